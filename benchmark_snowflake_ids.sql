@@ -0,0 +1,79 @@
+-- ================================================
+-- Benchmark: IDs do Discord como VARCHAR(20) x BIGINT
+-- ================================================
+-- Roda em tabelas temporárias, não toca em warns
+-- psql -U bot_user -d discord_bot -f benchmark_snowflake_ids.sql
+
+\timing on
+
+-- 1. Mesmos dados nos dois formatos: 1M de warns para 50k usuários
+CREATE TEMP TABLE bench_ids AS
+SELECT (1000000000000000000 + (random() * 50000)::bigint * 1000003) AS user_id,
+       (1000000000000000000 + (random() * 200)::bigint * 7000001)   AS moderator_id,
+       (EXTRACT(EPOCH FROM now()) * 1000)::bigint + (random() * 7776000000)::bigint AS expires_at
+FROM generate_series(1, 1000000);
+
+CREATE TEMP TABLE bench_varchar (
+    user_id VARCHAR(20) NOT NULL,
+    moderator_id VARCHAR(20),
+    expires_at BIGINT NOT NULL
+);
+CREATE TEMP TABLE bench_bigint (
+    user_id BIGINT NOT NULL,
+    moderator_id BIGINT,
+    expires_at BIGINT NOT NULL
+);
+
+INSERT INTO bench_varchar SELECT user_id::text, moderator_id::text, expires_at FROM bench_ids;
+INSERT INTO bench_bigint SELECT user_id, moderator_id, expires_at FROM bench_ids;
+
+-- mesmo índice usado pelo bot (idx_warns_user_expires)
+CREATE INDEX bench_varchar_idx ON bench_varchar(user_id, expires_at);
+CREATE INDEX bench_bigint_idx ON bench_bigint(user_id, expires_at);
+ANALYZE bench_varchar;
+ANALYZE bench_bigint;
+
+-- 2. Tamanho de tabela e índice
+SELECT relname,
+       pg_size_pretty(pg_relation_size(oid)) AS tamanho
+FROM pg_class
+WHERE relname IN ('bench_varchar', 'bench_bigint', 'bench_varchar_idx', 'bench_bigint_idx')
+ORDER BY relname;
+
+-- 3. Busca de warns ativos de um usuário (mesma consulta do WarnDAO.countActiveWarns)
+SELECT user_id AS alvo FROM bench_bigint LIMIT 1 \gset
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM bench_varchar
+WHERE user_id = :'alvo' AND expires_at > (EXTRACT(EPOCH FROM now()) * 1000)::bigint;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM bench_bigint
+WHERE user_id = :alvo AND expires_at > (EXTRACT(EPOCH FROM now()) * 1000)::bigint;
+
+-- 4. Muitas buscas seguidas (amortiza o ruído de uma execução só)
+DO $$
+DECLARE
+    ids BIGINT[];
+    t0 TIMESTAMPTZ;
+    n INTEGER;
+BEGIN
+    SELECT array_agg(user_id) INTO ids FROM (SELECT user_id FROM bench_ids LIMIT 20000) s;
+
+    t0 := clock_timestamp();
+    FOR i IN 1 .. array_length(ids, 1) LOOP
+        SELECT COUNT(*) INTO n FROM bench_varchar WHERE user_id = ids[i]::text AND expires_at > 0;
+    END LOOP;
+    RAISE NOTICE 'VARCHAR: % buscas em % ms', array_length(ids, 1),
+        round(EXTRACT(EPOCH FROM clock_timestamp() - t0) * 1000);
+
+    t0 := clock_timestamp();
+    FOR i IN 1 .. array_length(ids, 1) LOOP
+        SELECT COUNT(*) INTO n FROM bench_bigint WHERE user_id = ids[i] AND expires_at > 0;
+    END LOOP;
+    RAISE NOTICE 'BIGINT:  % buscas em % ms', array_length(ids, 1),
+        round(EXTRACT(EPOCH FROM clock_timestamp() - t0) * 1000);
+END;
+$$;
+
+DROP TABLE bench_ids, bench_varchar, bench_bigint;
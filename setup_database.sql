@@ -28,72 +28,22 @@ GRANT ALL ON SCHEMA public TO bot_user;
 ALTER DEFAULT PRIVILEGES IN SCHEMA public GRANT ALL ON TABLES TO bot_user;
 ALTER DEFAULT PRIVILEGES IN SCHEMA public GRANT ALL ON SEQUENCES TO bot_user;
 
--- 5. Cria tabela de warns
-CREATE TABLE IF NOT EXISTS warns (
-    id SERIAL PRIMARY KEY,
-    user_id VARCHAR(20) NOT NULL,
-    moderator_id VARCHAR(20),
-    reason TEXT,
-    timestamp BIGINT NOT NULL,
-    expires_at BIGINT NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
+-- 5. Tabelas e índices
+-- criados pelo próprio bot na primeira inicialização (migrações versionadas em
+-- src/main/resources/db/migration, registradas na tabela schema_version)
 
-COMMENT ON TABLE warns IS 'Tabela de advertências (warns) dos usuários';
-COMMENT ON COLUMN warns.user_id IS 'ID do Discord do usuário que recebeu o warn';
-COMMENT ON COLUMN warns.moderator_id IS 'ID do Discord do moderador que aplicou o warn';
-COMMENT ON COLUMN warns.timestamp IS 'Timestamp em milissegundos de quando o warn foi aplicado';
-COMMENT ON COLUMN warns.expires_at IS 'Timestamp em milissegundos de quando o warn expira';
-
--- 6. Cria tabela de logs
-CREATE TABLE IF NOT EXISTS logs (
-    id SERIAL PRIMARY KEY,
-    action_type VARCHAR(50) NOT NULL,
-    user_id VARCHAR(20),
-    moderator_id VARCHAR(20),
-    details TEXT,
-    timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
-
-COMMENT ON TABLE logs IS 'Tabela de logs de ações de moderação';
-COMMENT ON COLUMN logs.action_type IS 'Tipo da ação (WARN, BAN, KICK, etc)';
-
--- 7. Cria índices para otimização
-CREATE INDEX IF NOT EXISTS idx_warns_user_id ON warns(user_id);
-CREATE INDEX IF NOT EXISTS idx_warns_expires_at ON warns(expires_at);
-CREATE INDEX IF NOT EXISTS idx_warns_user_expires ON warns(user_id, expires_at);
-CREATE INDEX IF NOT EXISTS idx_logs_user_id ON logs(user_id);
-CREATE INDEX IF NOT EXISTS idx_logs_timestamp ON logs(timestamp);
-
--- 8. Cria função para limpeza automática de warns expirados (opcional)
-CREATE OR REPLACE FUNCTION cleanup_expired_warns()
-RETURNS INTEGER AS $$
-DECLARE
-    deleted_count INTEGER;
-BEGIN
-    DELETE FROM warns
-    WHERE expires_at < EXTRACT(EPOCH FROM NOW()) * 1000;
-
-    GET DIAGNOSTICS deleted_count = ROW_COUNT;
-    RETURN deleted_count;
-END;
-$$ LANGUAGE plpgsql;
-
-COMMENT ON FUNCTION cleanup_expired_warns IS 'Remove warns expirados e retorna quantidade removida';
-
--- 9. Da permissões finais
+-- 6. Da permissões finais
 GRANT ALL PRIVILEGES ON ALL TABLES IN SCHEMA public TO bot_user;
 GRANT ALL PRIVILEGES ON ALL SEQUENCES IN SCHEMA public TO bot_user;
 GRANT EXECUTE ON ALL FUNCTIONS IN SCHEMA public TO bot_user;
 
--- 10. Mostra resumo
+-- 7. Mostra resumo
 \echo '================================================'
 \echo 'Setup concluído com sucesso!'
 \echo '================================================'
 \echo 'Banco de dados: discord_bot'
 \echo 'Usuário: bot_user'
-\echo 'Tabelas criadas: warns, logs'
-\echo 'Índices criados: 5'
+\echo 'Tabelas: criadas pelo bot na primeira inicialização'
 \echo ''
 \echo 'Configure o bot com:'
 \echo '  DB_HOST=localhost'
@@ -102,9 +52,3 @@ GRANT EXECUTE ON ALL FUNCTIONS IN SCHEMA public TO bot_user;
 \echo '  DB_USER=bot_user'
 \echo '  DB_PASSWORD=Senha123!'
 \echo '================================================'
-
--- Lista tabelas
-\dt
-
--- Mostra estrutura da tabela warns
-\d warns
\ No newline at end of file
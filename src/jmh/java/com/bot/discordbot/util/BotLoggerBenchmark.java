@@ -0,0 +1,65 @@
+package com.bot.discordbot.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo dos logs de debug do caminho do /warn com debug desligado.
+ * Rodar com {@code -prof gc}: {@code gc.alloc.rate.norm} de {@link #warnPathDebugDisabled} deve ficar em 0 B/op.
+ * {@link #boxedDebugDisabled} é a chamada antiga (long boxeado antes do teste de nível), para comparação.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BotLoggerBenchmark {
+
+    // IDs do Discord ficam bem fora do cache de Long.valueOf
+    private long userId = 284_102_938_475_610_112L;
+    private long moderatorId = 190_332_847_561_203_456L;
+    private int warnCount = 2;
+    private long expiresAt = System.currentTimeMillis() + 86_400_000L;
+    private String reason = "spam no canal geral";
+
+    @Setup
+    public void disableDebug() {
+        BotLogger.setLevel(BotLogger.Level.INFO);
+    }
+
+    /**
+     * As chamadas de debug do WarnCommand, WarnService.addWarn e WarnDAO.applyWarn, na ordem
+     */
+    @Benchmark
+    public void warnPathDebugDisabled() {
+        BotLogger.debug("Reason: {}", reason);
+        BotLogger.debug("=== INÍCIO addWarn ===");
+        BotLogger.debug("userId: {}", userId);
+        BotLogger.debug("moderatorId: {}", moderatorId);
+        BotLogger.debug("reason: {}", reason);
+        BotLogger.database("INSERT warn para user", userId, true);
+        if (BotLogger.isDebugEnabled()) {
+            BotLogger.debug("Expira em: " + expiresAt);
+        }
+        BotLogger.debug("=== FIM addWarn ===");
+        BotLogger.debug("Warns ativos após inserção: {}", warnCount);
+        BotLogger.debug("User {} tem {} warns ativos", userId, warnCount);
+    }
+
+    @Benchmark
+    public void boxedDebugDisabled() {
+        BotLogger.debug("userId: {}", (Object) userId);
+        BotLogger.database("INSERT warn para user", (Object) userId, true);
+    }
+}
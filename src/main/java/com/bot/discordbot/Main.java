@@ -2,85 +2,217 @@ package com.bot.discordbot;
 
 import com.bot.discordbot.config.BotConfig;
 import com.bot.discordbot.database.Database;
+import com.bot.discordbot.database.DatabaseExecutor;
+import com.bot.discordbot.database.DatabaseReadiness;
 import com.bot.discordbot.database.DatabaseSetup;
+import com.bot.discordbot.database.PartitionManager;
 import com.bot.discordbot.moderation.warn.commands.WarnClearCommand;
 import com.bot.discordbot.moderation.warn.commands.WarnCommand;
 import com.bot.discordbot.moderation.warn.commands.WarnStatusCommand;
+import com.bot.discordbot.moderation.warn.dao.FileWarnRepository;
+import com.bot.discordbot.moderation.warn.dao.InMemoryWarnRepository;
+import com.bot.discordbot.moderation.warn.service.WarnReaper;
+import com.bot.discordbot.moderation.warn.service.WarnService;
+import com.bot.discordbot.moderation.warn.service.WarnedUserFilter;
 import com.bot.discordbot.util.BotLogger;
+import com.bot.discordbot.util.InstrumentedExecutor;
+import com.bot.discordbot.util.LogRollingPolicy;
+import com.bot.discordbot.util.StartupReport;
+import com.bot.discordbot.util.VirtualThreads;
 import com.bot.discordbot.commands.PingCommand;
 import com.bot.discordbot.commands.NukarCommand;
 import com.bot.discordbot.commands.DebugCommand;
 import com.bot.discordbot.commands.SetupCommand;
+import com.bot.discordbot.commands.CommandRouter;
+import com.bot.discordbot.commands.CommandSync;
 import com.bot.discordbot.listeners.WelcomeAndGoodbye;
+import com.bot.discordbot.metrics.EventCounter;
+import com.bot.discordbot.metrics.MetricsServer;
 
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
-import net.dv8tion.jda.api.Permission;
-import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
-import net.dv8tion.jda.api.interactions.commands.OptionType;
-import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Classe principal do Discord Bot
  */
 public class Main {
 
     private static JDA jda;
+    private static InstrumentedExecutor eventPool;
+    private static InstrumentedExecutor callbackPool;
+    private static final EventCounter eventCounter = new EventCounter();
+
+    // registro único dos comandos: roteamento das interações e definições enviadas ao Discord
+    private static final CommandRouter commandRouter = new CommandRouter(
+            new PingCommand(),
+            new NukarCommand(),
+            new DebugCommand(),
+            new SetupCommand(),
+            new WarnStatusCommand(),
+            new WarnCommand(),
+            new WarnClearCommand()
+    );
 
     public static void main(String[] args) {
+        StartupReport.begin();
         try {
             // Banner
             printBanner();
 
             // 1. Inicializa as configurações
-            BotLogger.info("Inicializando configurações...");
-            BotConfig.initialize();
-            BotLogger.info(BotConfig.getConfigSummary());
+            StartupReport.time("config", () -> {
+                BotLogger.info("Inicializando configurações...");
+                BotConfig.initialize();
+                BotLogger.info(BotConfig.getConfigSummary());
+                configureLogging();
+            });
 
-            // 2. Inicializa o banco de dados
-            BotLogger.info("Inicializando banco de dados...");
-            Database.initialize();
+            registerShutdownHook();
 
-            // 3. Criar tabelas e índices
-            BotLogger.info("Criando/verificando tabelas...");
-            DatabaseSetup.initialize();
+            // /health/live responde desde o início; /health/ready espera banco e gateway
+            MetricsServer.start(BotConfig.getMetricsBindAddress(), BotConfig.getMetricsPort());
 
-            // 4. Verificar integridade
-            if (!DatabaseSetup.verifyDatabase()) {
-                throw new RuntimeException("Falha na verificação do banco de dados!");
-            }
-
-            BotLogger.info(Database.getHealthCheck());
+            // 2. Banco de dados em paralelo com o login no Discord;
+            // comandos que usam o banco esperam pelo DatabaseReadiness
+            ExecutorService bootstrap = Executors.newSingleThreadExecutor(VirtualThreads.daemonFactory("db-bootstrap"));
+            CompletableFuture<Void> database = CompletableFuture.runAsync(Main::bootstrapDatabase, bootstrap);
+            bootstrap.shutdown();
 
             // 3. Construir JDA
-            BotLogger.info("Iniciando conexão com Discord...");
-            jda = buildJDA();
-            jda.awaitReady();
+            StartupReport.time("jda.login", () -> {
+                BotLogger.info("Iniciando conexão com Discord...");
+                jda = buildJDA();
+            });
+            StartupReport.time("jda.ready", () -> jda.awaitReady());
 
             // 4. Registra comandos na guild
-            BotLogger.info("Registrando comandos slash...");
-            registerCommands();
+            StartupReport.time("comandos", () -> {
+                BotLogger.info("Registrando comandos slash...");
+                registerCommands();
+            });
 
-            // 5. Shutdown hook
-            registerShutdownHook();
+            // 5. Só declara o bot online com o banco pronto
+            StartupReport.time("espera.banco", database::join);
 
+            StartupReport.log();
             BotLogger.success("🤖 Bot está online e operacional!");
             BotLogger.info("Pressione Ctrl+C para desligar");
 
         } catch (Exception e) {
-            BotLogger.error("❌ Falha crítica ao iniciar o bot", e);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            BotLogger.error("❌ Falha crítica ao iniciar o bot", cause);
             System.exit(1);
         }
     }
 
+    private static void configureLogging() {
+        BotLogger.setRollingPolicy(LogRollingPolicy.ofMegabytes(
+                BotConfig.getLogRollMaxSizeMb(),
+                BotConfig.getLogRetentionMaxFiles(),
+                BotConfig.getLogRetentionMaxTotalMb(),
+                BotConfig.isLogCompressEnabled()
+        ));
+
+        if (BotConfig.isLogJsonEnabled()) {
+            BotLogger.enableJsonSink(BotConfig.getLogJsonSegmentMb());
+        }
+
+        if (BotConfig.isLogAsyncEnabled()) {
+            BotLogger.enableAsync(BotConfig.getLogAsyncCapacity(), BotConfig.getLogAsyncOverflow());
+        }
+    }
+
+    /**
+     * Pool, migrações e tarefas de manutenção. Roda em paralelo com o login no Discord.
+     * Com warn.storage=file ou memory, nada disso é necessário.
+     */
+    private static void bootstrapDatabase() {
+        try {
+            String storage = BotConfig.getWarnStorage();
+            if (storage.equals("file")) {
+                StartupReport.time("warns.arquivo", () -> WarnService.setRepository(FileWarnRepository.open(
+                        Path.of(BotConfig.getWarnFileDirectory()), BotConfig.getWarnFileSyncIntervalMs())));
+            } else if (storage.equals("memory")) {
+                WarnService.setRepository(new InMemoryWarnRepository());
+            }
+            if (!storage.equals("postgres")) {
+                startWarnReaper();
+                DatabaseReadiness.markReady();
+                return;
+            }
+
+            StartupReport.time("banco.pool", () -> {
+                BotLogger.info("Inicializando banco de dados...");
+                Database.initialize();
+            });
+
+            // migrações versionadas; com o banco em dia, é uma consulta só
+            StartupReport.time("banco.schema", () -> {
+                PartitionManager.configure(
+                        BotConfig.getPartitionMonthsAhead(),
+                        BotConfig.getLogsRetentionMonths()
+                );
+                DatabaseSetup.initialize();
+            });
+
+            // warns ativos em memória: contagem e /warnstatus sem consulta ao banco
+            // parte do snapshot do último desligamento quando ele ainda bate com o banco
+            if (BotConfig.isWarnIndexEnabled()) {
+                String snapshot = BotConfig.getWarnIndexSnapshotPath();
+                StartupReport.time("warns.indice", () -> {
+                    if (snapshot.isEmpty()) {
+                        WarnService.loadActiveIndex();
+                    } else {
+                        WarnService.restoreActiveIndex(Path.of(snapshot));
+                    }
+                });
+            }
+
+            // quem nunca recebeu warn: responde "sem warns" sem consulta ao banco
+            if (BotConfig.isWarnBloomEnabled()) {
+                String bloomPath = BotConfig.getWarnBloomPath();
+                StartupReport.time("warns.filtro", () -> WarnService.loadWarnedUserFilter(
+                        BotConfig.getWarnBloomExpectedUsers(),
+                        BotConfig.getWarnBloomFalsePositiveRate(),
+                        bloomPath.isEmpty() ? null : Path.of(bloomPath)));
+            }
+
+            // manutenção diária das partições e remoção de warns expirados em segundo plano
+            PartitionManager.start();
+            startWarnReaper();
+
+            DatabaseReadiness.markReady();
+
+        } catch (Exception e) {
+            DatabaseReadiness.markFailed(e);
+            throw new CompletionException(e);
+        }
+    }
+
+    private static void startWarnReaper() {
+        WarnReaper.start(
+                BotConfig.getWarnReaperIntervalMinutes(),
+                BotConfig.getWarnReaperChunkSize(),
+                BotConfig.getWarnReaperPauseMs()
+        );
+    }
+
     /**
      * Constrói e configura o JDA
      */
     private static JDA buildJDA() throws InterruptedException {
         String token = BotConfig.getBotToken();
 
-        return JDABuilder.createDefault(token)
+        JDABuilder builder = JDABuilder.createDefault(token)
                 // Gateway Intents
                 .enableIntents(
                         GatewayIntent.MESSAGE_CONTENT,
@@ -89,18 +221,30 @@ public class Main {
                         GatewayIntent.GUILD_MODERATION,
                         GatewayIntent.GUILD_MESSAGE_REACTIONS
                 )
-                // Event Listeners
+                // Event Listeners: todos os comandos slash passam pelo router
                 .addEventListeners(
-                        new PingCommand(),
-                        new NukarCommand(),
-                        new DebugCommand(),
-                        new SetupCommand(),
-                        new WelcomeAndGoodbye(),
-                        new WarnStatusCommand(),
-                        new WarnCommand(),
-                        new WarnClearCommand()
-                )
-                .build();
+                        eventCounter,
+                        commandRouter,
+                        new WelcomeAndGoodbye()
+                );
+
+        // cada evento e callback na sua virtual thread: um comando lento não segura os outros eventos
+        if (BotConfig.isJdaVirtualExecution()) {
+            int eventLimit = BotConfig.getJdaEventPoolMaxConcurrency();
+            int callbackLimit = BotConfig.getJdaCallbackPoolMaxConcurrency();
+            eventPool = new InstrumentedExecutor("📨 Eventos JDA",
+                    VirtualThreads.newPerTaskExecutor("JDA-Event", eventLimit), eventLimit);
+            callbackPool = new InstrumentedExecutor("📬 Callbacks JDA",
+                    VirtualThreads.newPerTaskExecutor("JDA-Callback", callbackLimit), callbackLimit);
+
+            builder.setEventPool(eventPool, true)
+                    .setCallbackPool(callbackPool, true);
+            BotLogger.info(String.format("Eventos e callbacks do JDA em %s (limites: %d/%d)",
+                    VirtualThreads.isSupported() ? "virtual threads" : "threads de plataforma",
+                    eventLimit, callbackLimit));
+        }
+
+        return builder.build();
     }
 
     /**
@@ -115,44 +259,8 @@ public class Main {
             throw new IllegalStateException("Guild configurada não existe");
         }
 
-        guild.updateCommands()
-                .addCommands(
-                        // comando Ping
-                        Commands.slash("ping", "Responde com Pong!"),
-
-                        // comando Setup
-                        Commands.slash("setup", "Envia mensagens permanentes (info, regras)")
-                                .addOption(OptionType.STRING, "tipo", "Tipo de mensagem: info ou regras", true)
-                                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.BAN_MEMBERS)),
-
-                        // comando Debug
-                        Commands.slash("debug", "Mostra informações de debug do sistema (admin only)")
-                                .addOption(OptionType.STRING, "action", "Ação a executar", false)
-                                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.BAN_MEMBERS)),
-
-                        // comando Nukar
-                        Commands.slash("nukar", "Apaga até 1000 mensagens do canal atual")
-                                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.ADMINISTRATOR)),
-
-                        // comando WarnStatus
-                        Commands.slash("warnstatus", "Mostra seus warns (staff pode ver de outros)")
-                                .addOption(OptionType.USER, "user", "Usuário a consultar (somente staff)", false),
-
-                        // comando Warn
-                        Commands.slash("warn", "Aplica um warn a um usuário")
-                                .addOption(OptionType.USER, "user", "Usuário a ser advertido", true)
-                                .addOption(OptionType.STRING, "motivo", "Motivo do warn", true)
-                                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.BAN_MEMBERS)),
-
-                        // comando WarnClear
-                        Commands.slash("warnclear", "Remove todos os warns de um usuário")
-                                .addOption(OptionType.USER, "user", "Usuário", true)
-                                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.BAN_MEMBERS))
-                )
-                .queue(
-                        success -> BotLogger.success("Comandos registrados com sucesso!"),
-                        error -> BotLogger.error("Erro ao registrar comandos", error)
-                );
+        // só envia ao Discord o que mudou desde o último registro
+        CommandSync.sync(guild, commandRouter.getCommandData());
     }
 
     /**
@@ -161,14 +269,26 @@ public class Main {
     private static void registerShutdownHook() {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             BotLogger.info("Desligando bot...");
+            MetricsServer.shutdown();
 
             if (jda != null) {
                 jda.shutdown();
                 BotLogger.info("JDA encerrado");
             }
 
+            // termina as operações em andamento antes de fechar o pool
+            WarnReaper.shutdown();
+            PartitionManager.shutdown();
+            DatabaseExecutor.shutdown();
+            // depois do executor: as escritas que estavam na fila já passaram pelo repositório
+            WarnService.getRepository().close();
+            WarnService.saveActiveIndexSnapshot();
+            WarnedUserFilter.save();
             Database.shutdown();
             BotLogger.success("Bot desligado com sucesso!");
+
+            // esvazia a fila do logger assíncrono antes da JVM encerrar
+            BotLogger.shutdown();
         }, "ShutdownHook"));
     }
 
@@ -190,4 +310,34 @@ public class Main {
     public static JDA getJDA() {
         return jda;
     }
+
+    public static CommandRouter getCommandRouter() {
+        return commandRouter;
+    }
+
+    public static EventCounter getEventCounter() {
+        return eventCounter;
+    }
+
+    /**
+     * Pools de eventos/callbacks do JDA por nome (vazio com jda.execution-mode=default)
+     */
+    public static Map<String, InstrumentedExecutor> getJdaPools() {
+        Map<String, InstrumentedExecutor> pools = new LinkedHashMap<>();
+        if (eventPool != null) {
+            pools.put("event", eventPool);
+            pools.put("callback", callbackPool);
+        }
+        return pools;
+    }
+
+    /**
+     * Fila e concorrência dos pools de eventos/callbacks do JDA (usado pelo /debug)
+     */
+    public static String getJdaPoolStats() {
+        if (eventPool == null) {
+            return "📨 JDA: pools padrão (jda.execution-mode=default)";
+        }
+        return eventPool.getStats() + "\n" + callbackPool.getStats();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.bot.discordbot.commands;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+
+/**
+ * Um comando slash: a definição enviada ao Discord e o tratamento da interação.
+ * Registrado no {@link CommandRouter}, que entrega só as interações com o nome deste comando.
+ */
+public interface CommandHandler {
+
+    /**
+     * Definição do comando (nome, opções, permissões); o nome é usado para o roteamento
+     */
+    CommandData getCommandData();
+
+    void handle(SlashCommandInteractionEvent event);
+
+    /**
+     * Comandos que usam o banco só rodam depois que ele terminou de subir
+     */
+    default boolean requiresDatabase() {
+        return false;
+    }
+
+    /**
+     * Botões criados por este comando. O {@link CommandRouter} entrega aqui os cliques cujo
+     * custom id começa com "nome-do-comando:"; o resto do id é o estado que o comando guardou nele.
+     */
+    default void handleButton(ButtonInteractionEvent event) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.bot.discordbot.commands;
+
+import com.bot.discordbot.database.DatabaseReadiness;
+import com.bot.discordbot.util.BotLogger;
+import com.bot.discordbot.util.CommandMetrics;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Único listener de comandos slash: encontra o {@link CommandHandler} pelo nome num mapa imutável
+ * e chama só ele, em vez de cada comando receber todas as interações e filtrar pelo nome.
+ * Cada chamada é isolada: uma exceção num comando é registrada e respondida ao usuário,
+ * sem afetar os demais. Chamadas, erros e o ack síncrono vão para o {@link CommandMetrics}.
+ * Cliques em botões são entregues ao comando que os criou, pelo prefixo do custom id.
+ */
+public class CommandRouter extends ListenerAdapter {
+
+    private final Map<String, CommandHandler> handlers;
+    private final List<CommandData> commandData;
+
+    public CommandRouter(CommandHandler... handlers) {
+        Map<String, CommandHandler> byName = new HashMap<>();
+        List<CommandData> data = new ArrayList<>();
+
+        for (CommandHandler handler : handlers) {
+            CommandData definition = handler.getCommandData();
+            String name = definition.getName();
+            if (byName.put(name, handler) != null) {
+                throw new IllegalArgumentException("Comando registrado duas vezes: " + name);
+            }
+            CommandMetrics.register(name);
+            data.add(definition);
+        }
+
+        this.handlers = Map.copyOf(byName);
+        this.commandData = List.copyOf(data);
+    }
+
+    @Override
+    public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
+        CommandHandler handler = handlers.get(event.getName());
+        if (handler == null) {
+            BotLogger.warn("Comando sem handler: /" + event.getName());
+            return;
+        }
+
+        CommandMetrics.recordCall(event.getName());
+        if (handler.requiresDatabase() && DatabaseReadiness.rejectIfNotReady(event)) {
+            CommandMetrics.recordError(event.getName(), CommandMetrics.Cause.UNAVAILABLE);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            handler.handle(event);
+        } catch (Exception e) {
+            BotLogger.error("Erro no comando /" + event.getName(), e);
+            CommandMetrics.recordError(event.getName(), CommandMetrics.Cause.of(e));
+            replyError(event);
+        } finally {
+            // reply/deferReply feito direto no handler; acks em callbacks são medidos pelo comando
+            if (event.isAcknowledged()) {
+                CommandMetrics.recordAck(event.getName(), event.getIdLong());
+            }
+            long elapsed = System.nanoTime() - start;
+            if (BotLogger.isDebugEnabled()) {
+                BotLogger.debug("/" + event.getName() + " tratado em " + TimeUnit.NANOSECONDS.toMicros(elapsed) + "µs");
+            }
+        }
+    }
+
+    /**
+     * Cliques em botões: o prefixo do custom id (até o primeiro ':') é o nome do comando que o criou
+     */
+    @Override
+    public void onButtonInteraction(@NotNull ButtonInteractionEvent event) {
+        String componentId = event.getComponentId();
+        int separator = componentId.indexOf(':');
+        CommandHandler handler = separator > 0 ? handlers.get(componentId.substring(0, separator)) : null;
+        if (handler == null) {
+            BotLogger.warn("Botão sem handler: " + componentId);
+            return;
+        }
+
+        if (handler.requiresDatabase() && DatabaseReadiness.rejectIfNotReady(event)) {
+            return;
+        }
+
+        try {
+            handler.handleButton(event);
+        } catch (Exception e) {
+            BotLogger.error("Erro no botão " + componentId, e);
+            String message = "❌ Erro ao executar o comando. Verifique os logs.";
+            if (event.isAcknowledged()) {
+                event.getHook().editOriginal(message).queue(null, error -> { });
+            } else {
+                event.reply(message).setEphemeral(true).queue(null, error -> { });
+            }
+        }
+    }
+
+    private static void replyError(SlashCommandInteractionEvent event) {
+        String message = "❌ Erro ao executar o comando. Verifique os logs.";
+        if (event.isAcknowledged()) {
+            event.getHook().editOriginal(message).queue(null, error -> { });
+        } else {
+            event.reply(message).setEphemeral(true).queue(null, error -> { });
+        }
+    }
+
+    /**
+     * Definições de todos os comandos, para o registro na guild
+     */
+    public List<CommandData> getCommandData() {
+        return commandData;
+    }
+}
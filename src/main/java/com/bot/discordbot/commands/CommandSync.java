@@ -0,0 +1,176 @@
+package com.bot.discordbot.commands;
+
+import com.bot.discordbot.util.BotLogger;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.utils.data.DataObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Registra os comandos slash na guild só quando eles mudam.
+ *
+ * O conjunto desejado é serializado de forma canônica e resumido num SHA-256, guardado em disco:
+ * se o hash bate com o do último registro, nenhuma chamada é feita ao Discord. Caso contrário,
+ * os comandos registrados são buscados e comparados um a um, e só os criados/alterados (upsert)
+ * e os que sobraram (delete) geram chamadas. O hash é gravado depois que todas dão certo.
+ */
+public class CommandSync {
+
+    private static final Path STATE_FILE = Path.of("data", "commands.sha256");
+
+    /**
+     * Sincroniza os comandos da guild com {@code desired} (assíncrono)
+     */
+    public static void sync(Guild guild, List<CommandData> desired) {
+        String hash = hash(guild.getId(), desired);
+
+        if (hash.equals(readStoredHash())) {
+            BotLogger.info("Comandos slash inalterados desde o último registro, nada a enviar");
+            return;
+        }
+
+        guild.retrieveCommands().queue(
+                registered -> applyDiff(guild, desired, registered, hash),
+                error -> BotLogger.error("Erro ao buscar comandos registrados", error)
+        );
+    }
+
+    private static void applyDiff(Guild guild, List<CommandData> desired, List<Command> registered, String hash) {
+        Map<String, Command> remaining = new HashMap<>();
+        for (Command command : registered) {
+            remaining.put(key(command.getType(), command.getName()), command);
+        }
+
+        List<RestAction<?>> actions = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+
+        for (CommandData data : desired) {
+            Command current = remaining.remove(key(data.getType(), data.getName()));
+            if (current == null || !canonical(CommandData.fromCommand(current)).equals(canonical(data))) {
+                actions.add(guild.upsertCommand(data));
+                changed.add(data.getName());
+            }
+        }
+        for (Command leftover : remaining.values()) {
+            actions.add(guild.deleteCommandById(leftover.getIdLong()));
+            removed.add(leftover.getName());
+        }
+
+        if (actions.isEmpty()) {
+            BotLogger.info("Comandos slash já estão atualizados no Discord");
+            storeHash(hash);
+            return;
+        }
+
+        RestAction.allOf(actions).queue(
+                success -> {
+                    BotLogger.success(String.format("Comandos sincronizados: %d criados/alterados %s, %d removidos %s",
+                            changed.size(), changed, removed.size(), removed));
+                    storeHash(hash);
+                },
+                error -> BotLogger.error("Erro ao sincronizar comandos", error)
+        );
+    }
+
+    // ==================== HASH ====================
+
+    private static String key(Command.Type type, String name) {
+        return type + ":" + name;
+    }
+
+    /**
+     * Hash do conjunto inteiro; a guild entra no cálculo para que trocar de guild force o registro
+     */
+    static String hash(String guildId, List<CommandData> commands) {
+        List<String> parts = new ArrayList<>();
+        for (CommandData data : commands) {
+            parts.add(canonical(data));
+        }
+        parts.sort(null);
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(guildId.getBytes(StandardCharsets.UTF_8));
+            for (String part : parts) {
+                digest.update((byte) '\n');
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * JSON do comando com as chaves ordenadas, para que a mesma definição sempre gere o mesmo texto
+     */
+    static String canonical(CommandData data) {
+        StringBuilder sb = new StringBuilder();
+        appendCanonical(sb, DataObject.fromJson(data.toData().toJson()).toMap());
+        return sb.toString();
+    }
+
+    private static void appendCanonical(StringBuilder sb, Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((k, v) -> sorted.put(String.valueOf(k), v));
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                sb.append('"').append(entry.getKey()).append("\":");
+                appendCanonical(sb, entry.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof List<?> list) {
+            // a ordem das opções importa, então listas mantêm a ordem
+            sb.append('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) sb.append(',');
+                appendCanonical(sb, list.get(i));
+            }
+            sb.append(']');
+        } else if (value instanceof String text) {
+            sb.append('"').append(text.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        } else {
+            sb.append(value);
+        }
+    }
+
+    // ==================== ESTADO EM DISCO ====================
+
+    private static String readStoredHash() {
+        try {
+            return Files.exists(STATE_FILE) ? Files.readString(STATE_FILE).trim() : null;
+        } catch (IOException e) {
+            BotLogger.warn("Não foi possível ler " + STATE_FILE + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void storeHash(String hash) {
+        try {
+            Files.createDirectories(STATE_FILE.getParent());
+            Files.writeString(STATE_FILE, hash + System.lineSeparator());
+        } catch (IOException e) {
+            // sem o arquivo, o próximo boot só refaz a comparação com o Discord
+            BotLogger.warn("Não foi possível gravar " + STATE_FILE + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.bot.discordbot.commands;
+
+import com.bot.discordbot.util.BotLogger;
+import com.bot.discordbot.util.CommandMetrics;
+import net.dv8tion.jda.api.interactions.commands.CommandInteraction;
+
+import java.util.function.Consumer;
+
+/**
+ * Liga as respostas dos comandos ao {@link CommandMetrics}.
+ * O ack síncrono é medido pelo {@link CommandRouter}; comandos que confirmam dentro de uma callback
+ * usam {@link #acknowledged} no queue() do deferReply, e a resposta final usa {@link #responded}/{@link #failed}:
+ * <pre>
+ * event.deferReply().queue(CommandTimings.acknowledged(event), CommandTimings.failed(event));
+ * hook.editOriginal(msg).queue(CommandTimings.responded(event), CommandTimings.failed(event));
+ * </pre>
+ */
+public final class CommandTimings {
+
+    private CommandTimings() {
+    }
+
+    /**
+     * Callback de sucesso do deferReply: o ack só conta quando o Discord confirma
+     */
+    public static <T> Consumer<T> acknowledged(CommandInteraction event) {
+        return ignored -> CommandMetrics.recordAck(event.getName(), event.getIdLong());
+    }
+
+    /**
+     * Callback de sucesso da resposta final
+     */
+    public static <T> Consumer<T> responded(CommandInteraction event) {
+        return ignored -> CommandMetrics.recordResponse(event.getName(), event.getIdLong());
+    }
+
+    /**
+     * Callback de falha da resposta final: conta como erro do Discord
+     */
+    public static Consumer<Throwable> failed(CommandInteraction event) {
+        return error -> {
+            CommandMetrics.recordError(event.getName(), CommandMetrics.Cause.DISCORD);
+            BotLogger.warn("Falha ao responder /" + event.getName() + ": " + error.getMessage());
+        };
+    }
+
+    /**
+     * Tempo de banco desde {@code startNanos} ({@link System#nanoTime()} antes da chamada)
+     */
+    public static void database(CommandInteraction event, long startNanos) {
+        CommandMetrics.recordDatabase(event.getName(), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Erro por exceção (banco, timeout ou interno)
+     */
+    public static void error(CommandInteraction event, Throwable error) {
+        CommandMetrics.recordError(event.getName(), CommandMetrics.Cause.of(error));
+    }
+}
@@ -1,27 +1,51 @@
 package com.bot.discordbot.commands;
 
+import com.bot.discordbot.Main;
+import com.bot.discordbot.config.BotConfig;
 import com.bot.discordbot.database.Database;
+import com.bot.discordbot.database.DatabaseExport;
+import com.bot.discordbot.database.DatabaseReadiness;
+import com.bot.discordbot.database.DatabaseExecutor;
 import com.bot.discordbot.database.DatabaseSetup;
-import com.bot.discordbot.moderation.warn.dao.WarnDAO;
+import com.bot.discordbot.database.PartitionManager;
+import com.bot.discordbot.moderation.warn.dao.WarnStatistics;
+import com.bot.discordbot.moderation.warn.service.WarnReaper;
+import com.bot.discordbot.moderation.warn.service.WarnService;
+import com.bot.discordbot.moderation.warn.service.WarnedUserFilter;
 import com.bot.discordbot.util.BotLogger;
+import com.bot.discordbot.util.CommandMetrics;
 import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.utils.FileUpload;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletionException;
 
 /**
  * Comando de debug para verificar o estado do banco de dados.
  */
-public class DebugCommand extends ListenerAdapter {
+public class DebugCommand implements CommandHandler {
 
     @Override
-    public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
-        if (!event.getName().equals("debug")) return;
+    public CommandData getCommandData() {
+        return Commands.slash("debug", "Mostra informações de debug do sistema (admin only)")
+                .addOption(OptionType.STRING, "action", "Ação: status, metrics, verify, loglevel, export ou reset", false)
+                .addOption(OptionType.STRING, "level", "Nível de log (action:loglevel)", false)
+                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.BAN_MEMBERS));
+    }
 
+    @Override
+    public void handle(SlashCommandInteractionEvent event) {
         // somente staff pode usar
         if (event.getMember() == null || !event.getMember().hasPermission(Permission.ADMINISTRATOR)) {
             event.reply("❌ Apenas administradores podem usar este comando.").setEphemeral(true).queue();
@@ -31,14 +55,62 @@ public class DebugCommand extends ListenerAdapter {
         var action = event.getOption("action");
         String actionValue = action != null ? action.getAsString() : "status";
 
-        event.deferReply(true).queue();
-
+        // métricas e nível de log ficam em memória: funcionam com o banco subindo ou fora do ar,
+        // justamente quando mais se precisa deles
         switch (actionValue) {
-            case "status" -> showStatus(event);
-            case "reset" -> resetDatabase(event);
-            case "verify" -> verifyDatabase(event);
-            default -> event.getHook().editOriginal("❌ Ação desconhecida: " + actionValue).queue();
+            case "metrics" -> {
+                event.deferReply(true).queue();
+                showMetrics(event);
+                return;
+            }
+            case "loglevel" -> {
+                event.deferReply(true).queue();
+                changeLogLevel(event);
+                return;
+            }
+            case "export" -> {
+                // roda na thread própria do DatabaseExport, fora do executor de banco
+                if (DatabaseReadiness.rejectIfNotReady(event)) {
+                    CommandMetrics.recordError(event.getName(), CommandMetrics.Cause.UNAVAILABLE);
+                    return;
+                }
+                event.deferReply(true).queue();
+                exportTables(event);
+                return;
+            }
+            case "status", "reset", "verify" -> {
+                // só as ações de banco esperam ele ficar pronto
+                if (DatabaseReadiness.rejectIfNotReady(event)) {
+                    CommandMetrics.recordError(event.getName(), CommandMetrics.Cause.UNAVAILABLE);
+                    return;
+                }
+            }
+            default -> {
+                event.reply("❌ Ação desconhecida: " + actionValue).setEphemeral(true).queue();
+                return;
+            }
         }
+
+        event.deferReply(true).queue();
+
+        // as ações consultam o banco de forma bloqueante: rodam no executor de banco,
+        // que limita o uso simultâneo ao tamanho do pool de conexões
+        long dbStart = System.nanoTime();
+        DatabaseExecutor.supplyAsync(() -> {
+            switch (actionValue) {
+                case "status" -> showStatus(event);
+                case "reset" -> resetDatabase(event);
+                case "verify" -> verifyDatabase(event);
+            }
+            return null;
+        }).whenComplete((ignored, error) -> {
+            CommandTimings.database(event, dbStart);
+            if (error != null) {
+                BotLogger.error("Erro no comando debug (" + actionValue + ")", error);
+                CommandTimings.error(event, error);
+                event.getHook().editOriginal("❌ Erro ao executar a ação. Verifique os logs.").queue();
+            }
+        });
     }
 
     private void showStatus(SlashCommandInteractionEvent event) {
@@ -48,13 +120,32 @@ public class DebugCommand extends ListenerAdapter {
 
             // 1. Health check do database
             response.append("**Database:**\n");
-            response.append(Database.getHealthCheck()).append("\n\n");
+            response.append("🗄️ Warns: ").append(WarnService.getRepository().getName()).append("\n");
+            if (Database.isInitialized()) {
+                response.append(Database.getHealthCheck()).append("\n");
+                response.append(PartitionManager.getStats()).append("\n");
+            }
+            response.append(DatabaseExecutor.getStats()).append("\n\n");
 
             // 2. Estatísticas gerais
             response.append("**Estatísticas:**\n");
-            response.append(WarnDAO.getStatistics()).append("\n\n");
+            if (Database.isInitialized()) {
+                response.append(WarnStatistics.getSummary(WarnService.getActiveIndex())).append("\n");
+            }
+            if (WarnService.getActiveIndex() != null) {
+                response.append(WarnService.getActiveIndex().getSummary()).append("\n");
+            }
+            if (WarnedUserFilter.isEnabled()) {
+                response.append(WarnedUserFilter.getSummary()).append("\n");
+            }
+            response.append(WarnReaper.getStats()).append("\n");
+            response.append(Main.getJdaPoolStats()).append("\n\n");
 
-            // 3. Testar cache de membros
+            // 3. Estado do logger
+            response.append("**Logs:**\n");
+            response.append(BotLogger.getStats()).append("\n\n");
+
+            // 4. Testar cache de membros
             response.append("**Teste de Cache:**\n");
             if (event.getGuild() != null) {
                 long cached = event.getGuild().getMemberCache().size();
@@ -62,53 +153,25 @@ public class DebugCommand extends ListenerAdapter {
                 response.append("Total de membros: ").append(event.getGuild().getMemberCount()).append("\n\n");
             }
 
-            // 4. Listar todos os warns (últimos 10)
+            // 5. Listar todos os warns (últimos 10)
             response.append("**Últimos Warns no Banco:**\n");
-            try (Connection conn = Database.getConnection();
-                 Statement stmt = conn.createStatement()) {
-
-                ResultSet rs = stmt.executeQuery(
-                        "SELECT id, user_id, moderator_id, reason, timestamp, expires_at " +
-                                "FROM warns ORDER BY timestamp DESC LIMIT 10"
-                );
-
-                int count = 0;
-                long now = System.currentTimeMillis();
-
-                while (rs.next()) {
-                    count++;
-                    int id = rs.getInt("id");
-                    String userId = rs.getString("user_id");
-                    long expiresAt = rs.getLong("expires_at");
-                    boolean isActive = expiresAt > now;
-
-                    response.append(String.format(
-                            "%d. ID=%d | User=%s | Expira=<t:%d:R> | %s\n",
-                            count,
-                            id,
-                            maskUserId(userId),
-                            expiresAt / 1000,
-                            isActive ? "✅ ATIVO" : "❌ EXPIRADO"
-                    ));
-                }
-
-                if (count == 0) {
-                    response.append("_(Nenhum warn no banco)_\n");
-                }
-
-            } catch (Exception e) {
-                response.append("❌ Erro ao consultar warns: ").append(e.getMessage()).append("\n");
-                BotLogger.error("Erro no comando debug", e);
+            if (!Database.isInitialized()) {
+                response.append("_(warn.storage=").append(BotConfig.getWarnStorage()).append(": sem banco)_\n");
+            } else {
+                appendRecentWarns(response);
             }
 
-            // 5. informações do usuário que executou
+            // 6. informações do usuário que executou
             response.append("\n**Seu UserID:** `").append(event.getUser().getId()).append("`\n");
 
-            int yourWarns = WarnDAO.countActiveWarns(event.getUser().getId());
+            int yourWarns = WarnService.countActiveWarns(event.getUser().getIdLong());
             response.append("**Seus warns ativos:** ").append(yourWarns).append("\n");
 
             response.append("\n_Use `/debug action:reset` para resetar o banco (APAGA TUDO!)_");
             response.append("\n_Use `/debug action:verify` para verificar integridade_");
+            response.append("\n_Use `/debug action:metrics` para ver latências por comando_");
+            response.append("\n_Use `/debug action:loglevel level:debug` para trocar o nível de log_");
+            response.append("\n_Use `/debug action:export` para exportar warns e logs em CSV_");
 
             event.getHook().editOriginal(response.toString()).queue();
 
@@ -118,11 +181,70 @@ public class DebugCommand extends ListenerAdapter {
         }
     }
 
+    /**
+     * Últimos 10 warns gravados (só com o PostgreSQL)
+     */
+    private void appendRecentWarns(StringBuilder response) {
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            ResultSet rs = stmt.executeQuery(
+                    "SELECT id, user_id, moderator_id, reason, timestamp, expires_at " +
+                            "FROM warns ORDER BY timestamp DESC LIMIT 10"
+            );
+
+            int count = 0;
+            long now = System.currentTimeMillis();
+
+            while (rs.next()) {
+                count++;
+                int id = rs.getInt("id");
+                long userId = rs.getLong("user_id");
+                long expiresAt = rs.getLong("expires_at");
+                boolean isActive = expiresAt > now;
+
+                response.append(String.format(
+                        "%d. ID=%d | User=%s | Expira=<t:%d:R> | %s\n",
+                        count,
+                        id,
+                        maskUserId(userId),
+                        expiresAt / 1000,
+                        isActive ? "✅ ATIVO" : "❌ EXPIRADO"
+                ));
+            }
+
+            if (count == 0) {
+                response.append("_(Nenhum warn no banco)_\n");
+            }
+
+        } catch (Exception e) {
+            response.append("❌ Erro ao consultar warns: ").append(e.getMessage()).append("\n");
+            BotLogger.error("Erro no comando debug", e);
+        }
+    }
+
+    /**
+     * Latências (ack, resposta, banco) e erros por comando
+     */
+    private void showMetrics(SlashCommandInteractionEvent event) {
+        String metrics = "📈 **Métricas de Comandos**\n\n" + CommandMetrics.render();
+        if (metrics.length() > 2000) {
+            metrics = metrics.substring(0, 1996) + "\n…";
+        }
+        event.getHook().editOriginal(metrics).queue(CommandTimings.responded(event), CommandTimings.failed(event));
+    }
+
     private void resetDatabase(SlashCommandInteractionEvent event) {
         try {
             BotLogger.warn("Reset de banco solicitado por: " + event.getUser().getAsTag());
 
             DatabaseSetup.resetDatabase();
+            if (WarnService.getActiveIndex() != null) {
+                WarnService.loadActiveIndex();
+            }
+            if (WarnedUserFilter.isEnabled()) {
+                WarnedUserFilter.rebuild();
+            }
 
             event.getHook().editOriginal(
                     "✅ **Banco de dados resetado com sucesso!**\n\n" +
@@ -137,6 +259,77 @@ public class DebugCommand extends ListenerAdapter {
         }
     }
 
+    /**
+     * Exporta warns e logs (CSV compactado) e anexa os arquivos; acima do limite de upload
+     * da guild eles ficam só no disco, em database.export.directory
+     */
+    private void exportTables(SlashCommandInteractionEvent event) {
+        BotLogger.info("Exportação de warns e logs solicitada por: " + event.getUser().getAsTag());
+        event.getHook().editOriginal("📦 Exportando warns e logs...").queue();
+
+        long start = System.nanoTime();
+        DatabaseExport.exportAsync(Path.of(BotConfig.getExportDirectory()), (table, rows, estimated, bytes) ->
+                event.getHook().editOriginal("📦 Exportando... " + DatabaseExport.formatProgress(table, rows, estimated, bytes))
+                        .queue(null, error -> { })
+        ).whenComplete((result, error) -> {
+            CommandTimings.database(event, start);
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof IllegalStateException) {
+                event.getHook().editOriginal("⏳ " + cause.getMessage() + ".").queue();
+            } else if (cause != null) {
+                BotLogger.error("Erro ao exportar warns e logs", cause);
+                CommandTimings.error(event, cause);
+                event.getHook().editOriginal("❌ Erro ao exportar: " + cause.getMessage()).queue();
+            } else {
+                deliverExport(event, result);
+            }
+        });
+    }
+
+    /**
+     * Anexa os arquivos se couberem; senão (ou se o envio falhar) mostra onde ficaram no servidor
+     */
+    private void deliverExport(SlashCommandInteractionEvent event, DatabaseExport.Result result) {
+        long size;
+        try {
+            size = result.getTotalBytes();
+        } catch (IOException e) {
+            BotLogger.error("Erro ao ler arquivos exportados", e);
+            event.getHook().editOriginal(withPaths("✅ **Exportação concluída**\n" + result.getSummary(),
+                    "Arquivos no servidor:", result)).queue();
+            return;
+        }
+
+        String summary = String.format("✅ **Exportação concluída** (%.1f MB)\n%s", size / (1024.0 * 1024.0), result.getSummary());
+        long maxUpload = event.getGuild() != null ? event.getGuild().getMaxFileSize() : Message.MAX_FILE_SIZE;
+        if (size > maxUpload) {
+            event.getHook().editOriginal(withPaths(summary, String.format(
+                    "Grande demais para anexar (limite de %d MB); arquivos no servidor:", maxUpload / (1024 * 1024)),
+                    result)).queue();
+            return;
+        }
+
+        List<FileUpload> uploads = result.getFiles().stream()
+                .map(file -> FileUpload.fromData(file.toFile(), file.getFileName().toString()))
+                .toList();
+        event.getHook().editOriginal(summary).setFiles(uploads).queue(
+                sent -> result.getFiles().forEach(file -> file.toFile().delete()),
+                error -> {
+                    BotLogger.warn("Falha ao anexar exportação (" + error.getMessage()
+                            + "); arquivos mantidos em " + BotConfig.getExportDirectory());
+                    event.getHook().editOriginal(withPaths(summary,
+                            "Não foi possível anexar (" + error.getMessage() + "); arquivos no servidor:", result))
+                            .setFiles().queue();
+                }
+        );
+    }
+
+    private static String withPaths(String summary, String header, DatabaseExport.Result result) {
+        StringBuilder message = new StringBuilder(summary).append("\n\n").append(header);
+        result.getFiles().forEach(file -> message.append("\n`").append(file.toAbsolutePath()).append("`"));
+        return message.toString();
+    }
+
     private void verifyDatabase(SlashCommandInteractionEvent event) {
         try {
             boolean valid = DatabaseSetup.verifyDatabase();
@@ -161,13 +354,43 @@ public class DebugCommand extends ListenerAdapter {
         }
     }
 
+    /**
+     * Mostra ou altera o nível de log em runtime
+     */
+    private void changeLogLevel(SlashCommandInteractionEvent event) {
+        var levelOption = event.getOption("level");
+
+        if (levelOption == null) {
+            event.getHook().editOriginal(
+                    "📝 Nível de log atual: **" + BotLogger.getLevel().getLabel() + "**\n" +
+                            "_Use `/debug action:loglevel level:<debug|info|warn|error>` para alterar_"
+            ).queue();
+            return;
+        }
+
+        BotLogger.Level level = BotLogger.Level.parse(levelOption.getAsString());
+        if (level == null) {
+            event.getHook().editOriginal("❌ Nível inválido: " + levelOption.getAsString() +
+                    " (use debug, info, warn ou error)").queue();
+            return;
+        }
+
+        BotLogger.Level previous = BotLogger.getLevel();
+        BotLogger.setLevel(level);
+        BotLogger.warn("Nível de log alterado por " + event.getUser().getName() + ": " + level.getLabel());
+
+        event.getHook().editOriginal(
+                "✅ Nível de log alterado: **" + previous.getLabel() + "** → **" + level.getLabel() + "**"
+        ).queue();
+    }
+
     /**
      * Mascara UserID para privcidade nos logs
      */
-    private String maskUserId(String userId) {
-        if (userId == null || userId.length() < 4) {
+    private String maskUserId(long userId) {
+        if (userId < 1000) {
             return "****";
         }
-        return "****" + userId.substring(userId.length() - 4);
+        return String.format("****%04d", userId % 10_000);
     }
 }
\ No newline at end of file
@@ -1,15 +1,22 @@
 package com.bot.discordbot.commands;
 
+import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
 
-public class NukarCommand extends ListenerAdapter {
+public class NukarCommand implements CommandHandler {
 
-    // deleta 100 mensagens
     @Override
-    public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
-        if (!event.getName().equals("nukar")) return;
+    public CommandData getCommandData() {
+        return Commands.slash("nukar", "Apaga até 1000 mensagens do canal atual")
+                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.ADMINISTRATOR));
+    }
 
+    // deleta 100 mensagens
+    @Override
+    public void handle(SlashCommandInteractionEvent event) {
         event.reply("Nukando 1000 mensagens...").queue();
 
         event.getChannel().getHistory().retrievePast(100).queue(messages -> {
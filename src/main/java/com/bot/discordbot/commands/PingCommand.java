@@ -1,17 +1,19 @@
 package com.bot.discordbot.commands;
 
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import net.dv8tion.jda.api.hooks.ListenerAdapter;
-import org.jetbrains.annotations.NotNull;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
 
-public class PingCommand extends ListenerAdapter {
+public class PingCommand implements CommandHandler {
 
-    // entrada 'ping' saída 'pong'
     @Override
-    public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
+    public CommandData getCommandData() {
+        return Commands.slash("ping", "Responde com Pong!");
+    }
 
-        if (event.getName().equals("ping")) {
-            event.reply("🏓 Pong!").queue();
-        }
+    // entrada 'ping' saída 'pong'
+    @Override
+    public void handle(SlashCommandInteractionEvent event) {
+        event.reply("🏓 Pong!").queue(CommandTimings.responded(event), CommandTimings.failed(event));
     }
 }
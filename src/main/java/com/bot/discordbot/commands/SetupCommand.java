@@ -6,7 +6,10 @@ import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
 
 import java.awt.Color;
 
@@ -14,12 +17,17 @@ import java.awt.Color;
  * Comando para configurar mensagens permanentes no servidor
  * (Boas-vindas, Regras, etc)
  */
-public class SetupCommand extends ListenerAdapter {
+public class SetupCommand implements CommandHandler {
 
     @Override
-    public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
-        if (!event.getName().equals("setup")) return;
+    public CommandData getCommandData() {
+        return Commands.slash("setup", "Envia mensagens permanentes (info, regras)")
+                .addOption(OptionType.STRING, "tipo", "Tipo de mensagem: info ou regras", true)
+                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.BAN_MEMBERS));
+    }
 
+    @Override
+    public void handle(SlashCommandInteractionEvent event) {
         // apenas administradores podem usar
         if (event.getMember() == null || !event.getMember().hasPermission(Permission.ADMINISTRATOR)) {
             event.reply("❌ Apenas administradores podem usar este comando.").setEphemeral(true).queue();
@@ -32,6 +32,43 @@ public class BotConfig {
     private static String databaseName;
     private static String databaseUser;
     private static String databasePassword;
+    private static String partitionMonthsAhead = "3";
+    private static String logsRetentionMonths = "12";
+    private static String exportDirectory = "data/exports";
+
+    // ==================== LOGGING ====================
+    private static String logAsyncEnabled = "false";
+    private static String logAsyncCapacity = "8192";
+    private static String logAsyncOverflow = "DROP_DEBUG";
+    private static String logRollMaxSizeMb = "100";
+    private static String logRetentionMaxFiles = "30";
+    private static String logRetentionMaxTotalMb = "1024";
+    private static String logCompress = "true";
+    private static String logJsonEnabled = "false";
+    private static String logJsonSegmentMb = "16";
+
+    // ==================== WARNS ====================
+    private static String warnReaperIntervalMinutes = "10";
+    private static String warnReaperChunkSize = "1000";
+    private static String warnReaperPauseMs = "200";
+    private static String warnStorage = "postgres";
+    private static String warnFileDirectory = "data/warns";
+    private static String warnFileSyncIntervalMs = "1000";
+    private static String warnIndexEnabled = "true";
+    private static String warnIndexSnapshotPath = "data/active-warns.snap";
+    private static String warnBloomEnabled = "true";
+    private static String warnBloomExpectedUsers = "100000";
+    private static String warnBloomFalsePositiveRate = "0.01";
+    private static String warnBloomPath = "data/warned-users.bloom";
+
+    // ==================== JDA ====================
+    private static String jdaExecutionMode = "virtual";
+    private static String jdaEventPoolMaxConcurrency = "64";
+    private static String jdaCallbackPoolMaxConcurrency = "64";
+
+    // ==================== MÉTRICAS ====================
+    private static String metricsPort = "9464";
+    private static String metricsBindAddress = "127.0.0.1";
 
     /**
      * Inicializa as configurações do bot.
@@ -50,6 +87,20 @@ public class BotConfig {
         System.out.println("[Config] ✅ Configurações carregadas com sucesso!");
     }
 
+    /**
+     * Para ferramentas de linha de comando que só usam o banco (ex: DatabaseExport):
+     * carrega as mesmas fontes sem exigir token e guild do Discord
+     */
+    public static void initializeWithoutDiscord() {
+        if (initialized) {
+            return;
+        }
+
+        loadFromPropertiesFile();
+        loadFromEnvironmentVariables();
+        initialized = true;
+    }
+
     /**
      * Carrega configurações do arquivo config.properties (se existir)
      */
@@ -72,6 +123,43 @@ public class BotConfig {
             databaseName = properties.getProperty("database.name", "discord_bot");
             databaseUser = properties.getProperty("database.user", "postgres");
             databasePassword = properties.getProperty("database.password", "");
+            partitionMonthsAhead = properties.getProperty("database.partitions.months-ahead", partitionMonthsAhead);
+            logsRetentionMonths = properties.getProperty("database.logs.retention-months", logsRetentionMonths);
+            exportDirectory = properties.getProperty("database.export.directory", exportDirectory);
+
+            // Logging
+            logAsyncEnabled = properties.getProperty("log.async.enabled", logAsyncEnabled);
+            logAsyncCapacity = properties.getProperty("log.async.capacity", logAsyncCapacity);
+            logAsyncOverflow = properties.getProperty("log.async.overflow", logAsyncOverflow);
+            logRollMaxSizeMb = properties.getProperty("log.roll.max-size-mb", logRollMaxSizeMb);
+            logRetentionMaxFiles = properties.getProperty("log.retention.max-files", logRetentionMaxFiles);
+            logRetentionMaxTotalMb = properties.getProperty("log.retention.max-total-mb", logRetentionMaxTotalMb);
+            logCompress = properties.getProperty("log.compress", logCompress);
+            logJsonEnabled = properties.getProperty("log.json.enabled", logJsonEnabled);
+            logJsonSegmentMb = properties.getProperty("log.json.segment-mb", logJsonSegmentMb);
+
+            // Warns
+            warnReaperIntervalMinutes = properties.getProperty("warn.reaper.interval-minutes", warnReaperIntervalMinutes);
+            warnReaperChunkSize = properties.getProperty("warn.reaper.chunk-size", warnReaperChunkSize);
+            warnReaperPauseMs = properties.getProperty("warn.reaper.pause-ms", warnReaperPauseMs);
+            warnStorage = properties.getProperty("warn.storage", warnStorage);
+            warnFileDirectory = properties.getProperty("warn.file.directory", warnFileDirectory);
+            warnFileSyncIntervalMs = properties.getProperty("warn.file.sync-interval-ms", warnFileSyncIntervalMs);
+            warnIndexEnabled = properties.getProperty("warn.index.enabled", warnIndexEnabled);
+            warnIndexSnapshotPath = properties.getProperty("warn.index.snapshot-path", warnIndexSnapshotPath);
+            warnBloomEnabled = properties.getProperty("warn.bloom.enabled", warnBloomEnabled);
+            warnBloomExpectedUsers = properties.getProperty("warn.bloom.expected-users", warnBloomExpectedUsers);
+            warnBloomFalsePositiveRate = properties.getProperty("warn.bloom.false-positive-rate", warnBloomFalsePositiveRate);
+            warnBloomPath = properties.getProperty("warn.bloom.path", warnBloomPath);
+
+            // JDA
+            jdaExecutionMode = properties.getProperty("jda.execution-mode", jdaExecutionMode);
+            jdaEventPoolMaxConcurrency = properties.getProperty("jda.event-pool.max-concurrency", jdaEventPoolMaxConcurrency);
+            jdaCallbackPoolMaxConcurrency = properties.getProperty("jda.callback-pool.max-concurrency", jdaCallbackPoolMaxConcurrency);
+
+            // Métricas
+            metricsPort = properties.getProperty("metrics.port", metricsPort);
+            metricsBindAddress = properties.getProperty("metrics.bind-address", metricsBindAddress);
 
         } catch (IOException e) {
             System.out.println("[Config] ⚠️ Arquivo config.properties não encontrado. Usando apenas variáveis de ambiente.");
@@ -95,6 +183,43 @@ public class BotConfig {
         databaseName = getEnvOrDefault("DB_NAME", databaseName);
         databaseUser = getEnvOrDefault("DB_USER", databaseUser);
         databasePassword = getEnvOrDefault("DB_PASSWORD", databasePassword);
+        partitionMonthsAhead = getEnvOrDefault("DB_PARTITIONS_MONTHS_AHEAD", partitionMonthsAhead);
+        logsRetentionMonths = getEnvOrDefault("DB_LOGS_RETENTION_MONTHS", logsRetentionMonths);
+        exportDirectory = getEnvOrDefault("DB_EXPORT_DIRECTORY", exportDirectory);
+
+        // Logging
+        logAsyncEnabled = getEnvOrDefault("LOG_ASYNC", logAsyncEnabled);
+        logAsyncCapacity = getEnvOrDefault("LOG_ASYNC_CAPACITY", logAsyncCapacity);
+        logAsyncOverflow = getEnvOrDefault("LOG_ASYNC_OVERFLOW", logAsyncOverflow);
+        logRollMaxSizeMb = getEnvOrDefault("LOG_ROLL_MAX_SIZE_MB", logRollMaxSizeMb);
+        logRetentionMaxFiles = getEnvOrDefault("LOG_RETENTION_MAX_FILES", logRetentionMaxFiles);
+        logRetentionMaxTotalMb = getEnvOrDefault("LOG_RETENTION_MAX_TOTAL_MB", logRetentionMaxTotalMb);
+        logCompress = getEnvOrDefault("LOG_COMPRESS", logCompress);
+        logJsonEnabled = getEnvOrDefault("LOG_JSON", logJsonEnabled);
+        logJsonSegmentMb = getEnvOrDefault("LOG_JSON_SEGMENT_MB", logJsonSegmentMb);
+
+        // Warns
+        warnReaperIntervalMinutes = getEnvOrDefault("WARN_REAPER_INTERVAL_MINUTES", warnReaperIntervalMinutes);
+        warnReaperChunkSize = getEnvOrDefault("WARN_REAPER_CHUNK_SIZE", warnReaperChunkSize);
+        warnReaperPauseMs = getEnvOrDefault("WARN_REAPER_PAUSE_MS", warnReaperPauseMs);
+        warnStorage = getEnvOrDefault("WARN_STORAGE", warnStorage);
+        warnFileDirectory = getEnvOrDefault("WARN_FILE_DIRECTORY", warnFileDirectory);
+        warnFileSyncIntervalMs = getEnvOrDefault("WARN_FILE_SYNC_INTERVAL_MS", warnFileSyncIntervalMs);
+        warnIndexEnabled = getEnvOrDefault("WARN_INDEX_ENABLED", warnIndexEnabled);
+        warnIndexSnapshotPath = getEnvOrDefault("WARN_INDEX_SNAPSHOT_PATH", warnIndexSnapshotPath);
+        warnBloomEnabled = getEnvOrDefault("WARN_BLOOM_ENABLED", warnBloomEnabled);
+        warnBloomExpectedUsers = getEnvOrDefault("WARN_BLOOM_EXPECTED_USERS", warnBloomExpectedUsers);
+        warnBloomFalsePositiveRate = getEnvOrDefault("WARN_BLOOM_FALSE_POSITIVE_RATE", warnBloomFalsePositiveRate);
+        warnBloomPath = getEnvOrDefault("WARN_BLOOM_PATH", warnBloomPath);
+
+        // JDA
+        jdaExecutionMode = getEnvOrDefault("JDA_EXECUTION_MODE", jdaExecutionMode);
+        jdaEventPoolMaxConcurrency = getEnvOrDefault("JDA_EVENT_POOL_MAX_CONCURRENCY", jdaEventPoolMaxConcurrency);
+        jdaCallbackPoolMaxConcurrency = getEnvOrDefault("JDA_CALLBACK_POOL_MAX_CONCURRENCY", jdaCallbackPoolMaxConcurrency);
+
+        // Métricas
+        metricsPort = getEnvOrDefault("METRICS_PORT", metricsPort);
+        metricsBindAddress = getEnvOrDefault("METRICS_BIND_ADDRESS", metricsBindAddress);
     }
 
     /**
@@ -105,6 +230,30 @@ public class BotConfig {
         return (value != null && !value.isEmpty()) ? value : defaultValue;
     }
 
+    /**
+     * Converte valor numérico da configuração, usando o padrão se for inválido
+     */
+    private static int parseIntOrDefault(String key, String value, int defaultValue) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            System.out.println("[Config] ⚠️ Valor inválido para " + key + ": " + value + " (usando " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Como {@link #parseIntOrDefault}, para valores decimais
+     */
+    private static double parseDoubleOrDefault(String key, String value, double defaultValue) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            System.out.println("[Config] ⚠️ Valor inválido para " + key + ": " + value + " (usando " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+
     /**
      * Valida se as configurações obrigatórias foram definidas
      */
@@ -174,6 +323,193 @@ public class BotConfig {
         return databasePassword;
     }
 
+    public static int getPartitionMonthsAhead() {
+        ensureInitialized();
+        return parseIntOrDefault("database.partitions.months-ahead", partitionMonthsAhead, 3);
+    }
+
+    public static int getLogsRetentionMonths() {
+        ensureInitialized();
+        return parseIntOrDefault("database.logs.retention-months", logsRetentionMonths, 12);
+    }
+
+    /**
+     * Onde o /debug action:export e o DatabaseExport gravam os CSVs
+     */
+    public static String getExportDirectory() {
+        ensureInitialized();
+        return exportDirectory.trim();
+    }
+
+    public static boolean isLogAsyncEnabled() {
+        ensureInitialized();
+        return "true".equalsIgnoreCase(logAsyncEnabled) || "1".equals(logAsyncEnabled);
+    }
+
+    public static int getLogAsyncCapacity() {
+        ensureInitialized();
+        return parseIntOrDefault("log.async.capacity", logAsyncCapacity, 8192);
+    }
+
+    public static String getLogAsyncOverflow() {
+        ensureInitialized();
+        return logAsyncOverflow;
+    }
+
+    public static int getLogRollMaxSizeMb() {
+        ensureInitialized();
+        return parseIntOrDefault("log.roll.max-size-mb", logRollMaxSizeMb, 100);
+    }
+
+    public static int getLogRetentionMaxFiles() {
+        ensureInitialized();
+        return parseIntOrDefault("log.retention.max-files", logRetentionMaxFiles, 30);
+    }
+
+    public static int getLogRetentionMaxTotalMb() {
+        ensureInitialized();
+        return parseIntOrDefault("log.retention.max-total-mb", logRetentionMaxTotalMb, 1024);
+    }
+
+    public static boolean isLogCompressEnabled() {
+        ensureInitialized();
+        return !"false".equalsIgnoreCase(logCompress) && !"0".equals(logCompress);
+    }
+
+    public static boolean isLogJsonEnabled() {
+        ensureInitialized();
+        return "true".equalsIgnoreCase(logJsonEnabled) || "1".equals(logJsonEnabled);
+    }
+
+    public static int getLogJsonSegmentMb() {
+        ensureInitialized();
+        return parseIntOrDefault("log.json.segment-mb", logJsonSegmentMb, 16);
+    }
+
+    public static int getWarnReaperIntervalMinutes() {
+        ensureInitialized();
+        return parseIntOrDefault("warn.reaper.interval-minutes", warnReaperIntervalMinutes, 10);
+    }
+
+    public static int getWarnReaperChunkSize() {
+        ensureInitialized();
+        return parseIntOrDefault("warn.reaper.chunk-size", warnReaperChunkSize, 1000);
+    }
+
+    public static int getWarnReaperPauseMs() {
+        ensureInitialized();
+        return parseIntOrDefault("warn.reaper.pause-ms", warnReaperPauseMs, 200);
+    }
+
+    /**
+     * Onde os warns são guardados: postgres, file (log local, sem banco) ou memory (sem banco, perdidos ao reiniciar)
+     */
+    public static String getWarnStorage() {
+        ensureInitialized();
+        String value = warnStorage.trim().toLowerCase();
+        if (!value.equals("postgres") && !value.equals("memory") && !value.equals("file")) {
+            System.out.println("[Config] ⚠️ Valor inválido para warn.storage: " + warnStorage + " (usando postgres)");
+            return "postgres";
+        }
+        return value;
+    }
+
+    /**
+     * Diretório dos segmentos com warn.storage=file
+     */
+    public static String getWarnFileDirectory() {
+        ensureInitialized();
+        return warnFileDirectory;
+    }
+
+    /**
+     * Intervalo (ms) entre os fsync do log de warns com warn.storage=file
+     */
+    public static int getWarnFileSyncIntervalMs() {
+        ensureInitialized();
+        return parseIntOrDefault("warn.file.sync-interval-ms", warnFileSyncIntervalMs, 1000);
+    }
+
+    /**
+     * true = warns ativos carregados em memória na inicialização (só com warn.storage=postgres)
+     */
+    public static boolean isWarnIndexEnabled() {
+        ensureInitialized();
+        return !"false".equalsIgnoreCase(warnIndexEnabled) && !"0".equals(warnIndexEnabled);
+    }
+
+    /**
+     * Snapshot do índice de warns ativos para reinícios rápidos (vazio = sempre carga completa)
+     */
+    public static String getWarnIndexSnapshotPath() {
+        ensureInitialized();
+        return warnIndexSnapshotPath.trim();
+    }
+
+    /**
+     * true = filtro de Bloom dos usuários com warns, para responder "sem warns" sem consultar o banco
+     */
+    public static boolean isWarnBloomEnabled() {
+        ensureInitialized();
+        return !"false".equalsIgnoreCase(warnBloomEnabled) && !"0".equals(warnBloomEnabled);
+    }
+
+    /**
+     * Usuários distintos com warns para os quais o filtro é dimensionado
+     */
+    public static int getWarnBloomExpectedUsers() {
+        ensureInitialized();
+        return parseIntOrDefault("warn.bloom.expected-users", warnBloomExpectedUsers, 100000);
+    }
+
+    /**
+     * Taxa de falsos positivos desejada com {@link #getWarnBloomExpectedUsers()} usuários
+     */
+    public static double getWarnBloomFalsePositiveRate() {
+        ensureInitialized();
+        double rate = parseDoubleOrDefault("warn.bloom.false-positive-rate", warnBloomFalsePositiveRate, 0.01);
+        return rate > 0 && rate < 1 ? rate : 0.01;
+    }
+
+    /**
+     * Arquivo do filtro de Bloom (vazio = reconstruído a cada inicialização)
+     */
+    public static String getWarnBloomPath() {
+        ensureInitialized();
+        return warnBloomPath.trim();
+    }
+
+    /**
+     * true = eventos e callbacks do JDA em virtual threads; false = pools padrão do JDA
+     */
+    public static boolean isJdaVirtualExecution() {
+        ensureInitialized();
+        return !"default".equalsIgnoreCase(jdaExecutionMode.trim());
+    }
+
+    public static int getJdaEventPoolMaxConcurrency() {
+        ensureInitialized();
+        return parseIntOrDefault("jda.event-pool.max-concurrency", jdaEventPoolMaxConcurrency, 64);
+    }
+
+    public static int getJdaCallbackPoolMaxConcurrency() {
+        ensureInitialized();
+        return parseIntOrDefault("jda.callback-pool.max-concurrency", jdaCallbackPoolMaxConcurrency, 64);
+    }
+
+    /**
+     * Porta do servidor HTTP de métricas e health check (0 = desativado)
+     */
+    public static int getMetricsPort() {
+        ensureInitialized();
+        return parseIntOrDefault("metrics.port", metricsPort, 9464);
+    }
+
+    public static String getMetricsBindAddress() {
+        ensureInitialized();
+        return metricsBindAddress.trim();
+    }
+
     /**
      * Verifica se o bot foi inicializado
      */
@@ -4,6 +4,7 @@ import com.bot.discordbot.config.BotConfig;
 import com.bot.discordbot.util.BotLogger;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -13,6 +14,12 @@ import java.sql.SQLException;
  */
 public class Database {
 
+    // também limita a concorrência do DatabaseExecutor
+    static final int MAX_POOL_SIZE = 10;
+
+    // primeira chave das advisory locks de warns (a segunda é o hash do user_id)
+    public static final int WARN_LOCK_NAMESPACE = 0x5741524E;
+
     private static HikariDataSource dataSource;
     private static boolean initialized = false;
 
@@ -34,9 +41,9 @@ public class Database {
             String password = BotConfig.getDatabasePassword();
 
             BotLogger.info("Configurando conexão com PostgreSQL...");
-            BotLogger.debug("Host: " + host + ":" + port);
-            BotLogger.debug("Database: " + database);
-            BotLogger.debug("User: " + user);
+            BotLogger.debug("Host: {}:{}", host, port);
+            BotLogger.debug("Database: {}", database);
+            BotLogger.debug("User: {}", user);
 
             // configura HikariCP
             HikariConfig config = new HikariConfig();
@@ -45,7 +52,7 @@ public class Database {
             config.setPassword(password);
 
             // configurações de Pool
-            config.setMaximumPoolSize(10); // Máximo de 10 conexões
+            config.setMaximumPoolSize(MAX_POOL_SIZE); // Máximo de 10 conexões
             config.setMinimumIdle(2);      // Mínimo de 2 conexões idle
             config.setConnectionTimeout(30000); // 30 segundos timeout
             config.setIdleTimeout(600000);      // 10 minutos idle timeout
@@ -126,21 +133,27 @@ public class Database {
     }
 
     /**
-     * Executa query de teste e retorna estatísticas
+     * Contadores do pool (leitura em memória, sem consultar o banco); null antes da inicialização
+     */
+    public static HikariPoolMXBean getPoolMXBean() {
+        HikariDataSource ds = dataSource;
+        return ds != null && !ds.isClosed() ? ds.getHikariPoolMXBean() : null;
+    }
+
+    /**
+     * Confirma que o banco responde (isValid: uma ida e volta, sem ler tabelas) e mostra o pool.
+     * Contagens de warns ficam no {@link com.bot.discordbot.moderation.warn.dao.WarnStatistics}.
      */
     public static String getHealthCheck() {
+        long start = System.nanoTime();
         try (Connection conn = getConnection()) {
-            var stmt = conn.createStatement();
-            var rs = stmt.executeQuery("SELECT COUNT(*) as count FROM warns");
-
-            if (rs.next()) {
-                int warnCount = rs.getInt("count");
-                return String.format("✅ PostgreSQL OK - %d warns registrados | %s",
-                        warnCount,
-                        getPoolStats()
-                );
+            if (!conn.isValid(2)) {
+                return "❌ PostgreSQL não respondeu em 2s | " + getPoolStats();
             }
-            return "✅ PostgreSQL OK | " + getPoolStats();
+            return String.format("✅ PostgreSQL OK (%.1fms) | %s",
+                    (System.nanoTime() - start) / 1_000_000.0,
+                    getPoolStats()
+            );
 
         } catch (SQLException e) {
             BotLogger.error("Health check falhou", e);
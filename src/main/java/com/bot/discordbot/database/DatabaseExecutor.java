@@ -0,0 +1,92 @@
+package com.bot.discordbot.database;
+
+import com.bot.discordbot.util.BotLogger;
+import com.bot.discordbot.util.VirtualThreads;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executor das operações de banco que não podem bloquear threads do JDA.
+ * Cada tarefa roda numa virtual thread (quando disponível); um semáforo limita
+ * quantas usam o banco ao mesmo tempo ao tamanho do pool do HikariCP, então uma
+ * rajada de comandos espera aqui em vez de acumular na fila de conexões.
+ */
+public class DatabaseExecutor {
+
+    private static final int MAX_CONCURRENCY = Database.MAX_POOL_SIZE;
+
+    private static final Semaphore permits = new Semaphore(MAX_CONCURRENCY, true);
+    private static ExecutorService executor;
+
+    /**
+     * Executa uma operação de banco de forma assíncrona
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+
+            try {
+                return operation.get();
+            } finally {
+                permits.release();
+            }
+        }, getExecutor());
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null || executor.isShutdown()) {
+            executor = VirtualThreads.newPerTaskExecutor("DB-Worker", MAX_CONCURRENCY);
+            BotLogger.debug("Executor de banco criado (virtual threads: {}, limite: {})",
+                    VirtualThreads.isSupported(), MAX_CONCURRENCY);
+        }
+        return executor;
+    }
+
+    /**
+     * Operações em andamento ou esperando por uma vaga
+     */
+    public static int getActiveCount() {
+        return MAX_CONCURRENCY - permits.availablePermits();
+    }
+
+    public static int getQueuedCount() {
+        return permits.getQueueLength();
+    }
+
+    public static String getStats() {
+        return String.format("⚙️ Executor DB: %d/%d em uso | %d aguardando | %s",
+                getActiveCount(),
+                MAX_CONCURRENCY,
+                getQueuedCount(),
+                VirtualThreads.isSupported() ? "virtual threads" : "threads de plataforma");
+    }
+
+    /**
+     * Espera as operações pendentes terminarem (chamar antes de fechar o pool)
+     */
+    public static synchronized void shutdown() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                BotLogger.warn("Operações de banco ainda pendentes no shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+}
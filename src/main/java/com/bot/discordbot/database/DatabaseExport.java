@@ -0,0 +1,301 @@
+package com.bot.discordbot.database;
+
+import com.bot.discordbot.config.BotConfig;
+import com.bot.discordbot.util.BotLogger;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação completa de warns e logs para CSV compactado (um .csv.gz por tabela).
+ *
+ * Usa o COPY TO STDOUT do PostgreSQL via CopyManager do driver: as linhas chegam já em CSV e vão
+ * direto para o GZIP e o disco, uma mensagem por vez, então a memória não depende do tamanho das tabelas.
+ * As duas tabelas são lidas na mesma transação REPEATABLE READ (um retrato consistente do banco).
+ * Usado pelo /debug action:export e pela linha de comando ({@link #main}).
+ */
+public class DatabaseExport {
+
+    // tabela -> consulta do COPY (sem ORDER BY: ordenar o histórico inteiro custaria um sort no banco)
+    private static final Map<String, String> TABLES = Map.of(
+            "warns", "SELECT id, user_id, moderator_id, reason, timestamp, expires_at FROM warns",
+            "logs", "SELECT id, action_type, user_id, moderator_id, details, timestamp FROM logs"
+    );
+    private static final List<String> ORDER = List.of("warns", "logs");
+
+    // linhas estimadas pelas estatísticas das partições, só para a porcentagem do progresso
+    private static final String ESTIMATE_ROWS =
+            "SELECT COALESCE(SUM(GREATEST(c.reltuples, 0)), 0)::bigint " +
+                    "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = ?::regclass";
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long PROGRESS_INTERVAL_NANOS = 2_000_000_000L;
+
+    private static final AtomicBoolean running = new AtomicBoolean();
+
+    // thread própria: a exportação leva minutos e não deve ocupar uma vaga do DatabaseExecutor
+    private static ExecutorService executor;
+
+    /**
+     * Recebe o andamento a cada ~2s e ao fim de cada tabela
+     */
+    @FunctionalInterface
+    public interface Progress {
+        void update(String table, long rows, long estimatedRows, long bytes);
+    }
+
+    /**
+     * Arquivos gerados e linhas por tabela
+     */
+    public static final class Result {
+        private final List<Path> files;
+        private final Map<String, Long> rows;
+        private final long elapsedMillis;
+
+        private Result(List<Path> files, Map<String, Long> rows, long elapsedMillis) {
+            this.files = List.copyOf(files);
+            this.rows = rows;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<Path> getFiles() {
+            return files;
+        }
+
+        /**
+         * Tamanho somado dos arquivos compactados
+         */
+        public long getTotalBytes() throws IOException {
+            long total = 0;
+            for (Path file : files) {
+                total += Files.size(file);
+            }
+            return total;
+        }
+
+        public String getSummary() {
+            StringBuilder sb = new StringBuilder();
+            rows.forEach((table, count) -> sb.append(table).append(": ").append(count).append(" linhas | "));
+            return sb.append(elapsedMillis).append("ms").toString();
+        }
+    }
+
+    /**
+     * Exporta warns e logs para {@code directory}; uma exportação por vez
+     * @throws IllegalStateException se outra exportação estiver em andamento
+     */
+    public static Result export(Path directory, Progress progress) throws SQLException, IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Já existe uma exportação em andamento");
+        }
+        try {
+            return exportTables(directory, progress);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * {@link #export} numa thread dedicada (uma exportação por vez, de qualquer forma)
+     */
+    public static CompletableFuture<Result> exportAsync(Path directory, Progress progress) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return export(directory, progress);
+            } catch (SQLException | IOException e) {
+                throw new CompletionException(e);
+            }
+        }, getExecutor());
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "DB-Export");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    private static Result exportTables(Path directory, Progress progress) throws SQLException, IOException {
+        long start = System.currentTimeMillis();
+        Files.createDirectories(directory);
+        String stamp = ZonedDateTime.now(ZoneOffset.UTC).format(FILE_STAMP);
+
+        List<Path> files = new ArrayList<>();
+        Map<String, Long> rows = new LinkedHashMap<>();
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            conn.setReadOnly(true);
+            try {
+                CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+                for (String table : ORDER) {
+                    Path file = directory.resolve(table + "-" + stamp + ".csv.gz");
+                    rows.put(table, copyTable(conn, copy, table, file, progress));
+                    files.add(file);
+                }
+                conn.commit();
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+                throw e;
+            } finally {
+                conn.setReadOnly(false);
+                conn.setAutoCommit(true);
+            }
+        }
+
+        Result result = new Result(files, rows, System.currentTimeMillis() - start);
+        BotLogger.info("Exportação concluída em " + directory + ": " + result.getSummary());
+        return result;
+    }
+
+    /**
+     * COPY de uma tabela para {@code file}, via .part renomeado no fim
+     * @return linhas exportadas
+     */
+    private static long copyTable(Connection conn, CopyManager copy, String table, Path file, Progress progress)
+            throws SQLException, IOException {
+        long estimated = estimateRows(conn, table);
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+
+        long rows;
+        ProgressStream out = null;
+        try {
+            out = new ProgressStream(new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(part), BUFFER_SIZE), BUFFER_SIZE),
+                    table, estimated, progress);
+            rows = copy.copyOut("COPY (" + TABLES.get(table) + ") TO STDOUT WITH (FORMAT csv, HEADER)", out);
+            out.close();
+            progress.update(table, rows, estimated, out.bytes);
+        } catch (SQLException | IOException e) {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                    // o erro original é o que interessa
+                }
+            }
+            Files.deleteIfExists(part);
+            throw e;
+        }
+
+        Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows;
+    }
+
+    private static long estimateRows(Connection conn, String table) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(ESTIMATE_ROWS)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Conta o que passa para o GZIP. O CopyManager escreve uma mensagem CopyData por vez, e o
+     * PostgreSQL manda uma linha por mensagem (a primeira é o cabeçalho do CSV)
+     */
+    private static final class ProgressStream extends FilterOutputStream {
+        private final String table;
+        private final long estimated;
+        private final Progress progress;
+        private long writes;
+        private long bytes;
+        private long lastReport = System.nanoTime();
+
+        ProgressStream(OutputStream out, String table, long estimated, Progress progress) {
+            super(out);
+            this.table = table;
+            this.estimated = estimated;
+            this.progress = progress;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            // FilterOutputStream escreveria byte a byte
+            out.write(b, off, len);
+            writes++;
+            bytes += len;
+
+            long now = System.nanoTime();
+            if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                lastReport = now;
+                progress.update(table, Math.max(0, writes - 1), estimated, bytes);
+            }
+        }
+    }
+
+    /**
+     * Texto de andamento, para o /debug e a linha de comando
+     */
+    public static String formatProgress(String table, long rows, long estimatedRows, long bytes) {
+        String percent = estimatedRows > 0
+                ? String.format(" (~%d%%)", Math.min(100, rows * 100 / estimatedRows))
+                : "";
+        return String.format("%s: %d linhas%s, %.1f MB lidos", table, rows, percent, bytes / (1024.0 * 1024.0));
+    }
+
+    // ==================== LINHA DE COMANDO ====================
+
+    /**
+     * Exportação sem subir o bot, com a mesma configuração do banco:
+     * {@code java -cp discord-bot-1.0-SNAPSHOT-jar-with-dependencies.jar com.bot.discordbot.database.DatabaseExport [diretório]}
+     */
+    public static void main(String[] args) {
+        int status = 0;
+        try {
+            BotConfig.initializeWithoutDiscord();
+            Path directory = Path.of(args.length > 0 ? args[0] : BotConfig.getExportDirectory());
+            Database.initialize();
+
+            Result result = export(directory, (table, rows, estimated, bytes) ->
+                    BotLogger.info(formatProgress(table, rows, estimated, bytes)));
+            for (Path file : result.getFiles()) {
+                BotLogger.info(String.format("%s (%.1f MB)", file.toAbsolutePath(), Files.size(file) / (1024.0 * 1024.0)));
+            }
+
+        } catch (Exception e) {
+            BotLogger.error("Erro na exportação", e);
+            status = 1;
+        } finally {
+            if (Database.isInitialized()) {
+                Database.shutdown();
+            }
+            BotLogger.shutdown();
+        }
+        System.exit(status);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bot.discordbot.database;
+
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sinaliza quando o banco terminou de subir (pool, migrações e tarefas de manutenção).
+ * O login no Discord acontece em paralelo, então comandos que usam o banco podem chegar antes:
+ * esses respondem na hora pedindo para tentar de novo, em vez de segurar a thread do JDA.
+ */
+public class DatabaseReadiness {
+
+    private static final CountDownLatch LATCH = new CountDownLatch(1);
+    private static volatile boolean ready;
+    private static volatile Throwable failure;
+
+    public static void markReady() {
+        ready = true;
+        LATCH.countDown();
+    }
+
+    public static void markFailed(Throwable cause) {
+        failure = cause;
+        LATCH.countDown();
+    }
+
+    public static boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Espera o banco subir
+     * @return true se ficou pronto; false se falhou ou o tempo acabou
+     */
+    public static boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return LATCH.await(timeout, unit) && ready;
+    }
+
+    public static Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Para comandos que dependem do banco: se ele ainda não estiver pronto, responde e devolve true
+     */
+    public static boolean rejectIfNotReady(IReplyCallback event) {
+        if (ready) {
+            return false;
+        }
+        String message = failure == null
+                ? "⏳ O bot ainda está iniciando. Tente novamente em alguns segundos."
+                : "❌ Banco de dados indisponível. Verifique os logs.";
+        event.reply(message).setEphemeral(true).queue();
+        return true;
+    }
+}
@@ -0,0 +1,361 @@
+package com.bot.discordbot.database;
+
+import com.bot.discordbot.util.BotLogger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerencia o particionamento mensal (por intervalo) das tabelas warns e logs.
+ *
+ * warns é particionada por expires_at e logs por timestamp, com uma partição por mês (UTC)
+ * chamada tabela_pYYYY_MM, mais uma partição DEFAULT para valores fora dos meses criados.
+ * As partições dos próximos meses são criadas com antecedência; partições inteiramente
+ * expiradas são removidas com um DROP TABLE, que custa o mesmo para 10 ou 10 milhões de linhas
+ * e não deixa tabela nem índice inchados para o vacuum.
+ */
+public class PartitionManager {
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    static final PartitionedTable WARNS = new PartitionedTable("warns", "expires_at", true);
+    static final PartitionedTable LOGS = new PartitionedTable("logs", "timestamp", false);
+
+    private static ScheduledExecutorService scheduler;
+
+    private static int monthsAhead = 3;
+    private static int logRetentionMonths = 12;
+
+    private static final AtomicLong partitionsCreated = new AtomicLong();
+    private static final AtomicLong partitionsDropped = new AtomicLong();
+
+    /**
+     * Tabela particionada por mês: nome e coluna da chave.
+     * A chave de warns é BIGINT em milissegundos; a de logs é TIMESTAMP.
+     */
+    static final class PartitionedTable {
+        final String name;
+        final String keyColumn;
+        final boolean epochMillis;
+
+        PartitionedTable(String name, String keyColumn, boolean epochMillis) {
+            this.name = name;
+            this.keyColumn = keyColumn;
+            this.epochMillis = epochMillis;
+        }
+
+        String partitionName(YearMonth month) {
+            return name + "_p" + month.format(SUFFIX_FORMAT);
+        }
+
+        String defaultPartition() {
+            return name + "_default";
+        }
+
+        /**
+         * Literal SQL do início do mês, no tipo da chave
+         */
+        String bound(YearMonth month) {
+            LocalDateTime start = month.atDay(1).atStartOfDay();
+            if (epochMillis) {
+                return Long.toString(start.toInstant(ZoneOffset.UTC).toEpochMilli());
+            }
+            return "'" + start.format(TIMESTAMP_FORMAT) + "'";
+        }
+
+        YearMonth monthOf(String partition) {
+            String suffix = partition.substring(name.length() + 2);
+            return YearMonth.parse(suffix, SUFFIX_FORMAT);
+        }
+    }
+
+    // ==================== CONFIGURAÇÃO ====================
+
+    /**
+     * @param ahead meses futuros com partição pré-criada (além do atual)
+     * @param logRetention meses de logs mantidos antes de remover a partição
+     */
+    public static void configure(int ahead, int logRetention) {
+        monthsAhead = Math.max(1, ahead);
+        logRetentionMonths = Math.max(1, logRetention);
+    }
+
+    // ==================== INICIALIZAÇÃO ====================
+
+    /**
+     * Converte warns e logs de versões anteriores (tabelas comuns) para particionadas.
+     * Roda como a primeira migração do {@link SchemaMigrations}, antes do CREATE TABLE IF NOT EXISTS.
+     */
+    static void convertLegacyTables(Connection conn) throws SQLException {
+        convertIfLegacy(conn, WARNS);
+        convertIfLegacy(conn, LOGS);
+    }
+
+    /**
+     * Verifica o tipo da tabela: 'p' = particionada, 'r' = comum, null = não existe
+     */
+    private static String relationKind(Connection conn, String table) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT c.relkind FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                        "WHERE n.nspname = current_schema() AND c.relname = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Converte uma tabela comum em particionada: renomeia a antiga, cria a nova com as mesmas
+     * colunas, cria as partições dos meses existentes, copia os dados e reaproveita a sequence do id.
+     */
+    private static void convertIfLegacy(Connection conn, PartitionedTable table) throws SQLException {
+        if (!"r".equals(relationKind(conn, table.name))) {
+            return;
+        }
+
+        String legacy = table.name + "_legacy";
+        BotLogger.warn("Convertendo tabela '" + table.name + "' para particionada (executado uma única vez)...");
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table.name + " RENAME TO " + legacy);
+            stmt.execute("ALTER INDEX IF EXISTS " + table.name + "_pkey RENAME TO " + legacy + "_pkey");
+            for (String index : legacyIndexes(conn, legacy)) {
+                stmt.execute("DROP INDEX IF EXISTS " + index);
+            }
+
+            // chave de partição não pode ser nula
+            stmt.execute("UPDATE " + legacy + " SET " + table.keyColumn + " = "
+                    + (table.epochMillis ? "(EXTRACT(EPOCH FROM now()) * 1000)::bigint" : "now()")
+                    + " WHERE " + table.keyColumn + " IS NULL");
+
+            stmt.execute("CREATE TABLE " + table.name + " (LIKE " + legacy + " INCLUDING DEFAULTS, "
+                    + "PRIMARY KEY (id, " + table.keyColumn + ")) "
+                    + "PARTITION BY RANGE (" + table.keyColumn + ")");
+            stmt.execute("CREATE TABLE " + table.defaultPartition()
+                    + " PARTITION OF " + table.name + " DEFAULT");
+
+            // uma partição para cada mês com dados
+            for (YearMonth month : monthsWithData(conn, legacy, table)) {
+                createPartition(stmt, table, month);
+            }
+
+            stmt.execute("INSERT INTO " + table.name + " SELECT * FROM " + legacy);
+            stmt.execute("ALTER SEQUENCE IF EXISTS " + table.name + "_id_seq OWNED BY " + table.name + ".id");
+            stmt.execute("DROP TABLE " + legacy);
+        }
+
+        BotLogger.success("✅ Tabela '" + table.name + "' convertida para particionada");
+    }
+
+    private static List<String> legacyIndexes(Connection conn, String legacy) throws SQLException {
+        List<String> indexes = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema() " +
+                        "AND tablename = ? AND indexname <> ?")) {
+            ps.setString(1, legacy);
+            ps.setString(2, legacy + "_pkey");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    indexes.add(rs.getString(1));
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private static List<YearMonth> monthsWithData(Connection conn, String source, PartitionedTable table)
+            throws SQLException {
+        String monthExpr = table.epochMillis
+                ? "date_trunc('month', to_timestamp(" + table.keyColumn + " / 1000.0) AT TIME ZONE 'UTC')"
+                : "date_trunc('month', " + table.keyColumn + ")";
+
+        List<YearMonth> months = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT DISTINCT to_char(" + monthExpr + ", 'YYYY_MM') FROM " + source)) {
+            while (rs.next()) {
+                months.add(YearMonth.parse(rs.getString(1), SUFFIX_FORMAT));
+            }
+        }
+        return months;
+    }
+
+    // ==================== MANUTENÇÃO ====================
+
+    /**
+     * Agenda a manutenção diária numa única thread de baixa prioridade.
+     * A primeira roda logo em seguida; até lá, a partição DEFAULT recebe as linhas do mês.
+     */
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PartitionManager");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(PartitionManager::maintainSafely, 0, 24 * 60, TimeUnit.MINUTES);
+    }
+
+    private static void maintainSafely() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            BotLogger.error("Erro na manutenção de partições", e);
+        }
+    }
+
+    /**
+     * Cria as partições dos próximos meses e remove as que só têm dados expirados
+     */
+    public static synchronized void maintain() throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                ensureUpcoming(conn);
+                dropExpired(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Cria as partições do mês atual e dos próximos {@code monthsAhead} meses, se faltarem
+     */
+    private static void ensureUpcoming(Connection conn) throws SQLException {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+
+        try (Statement stmt = conn.createStatement()) {
+            for (PartitionedTable table : List.of(WARNS, LOGS)) {
+                List<String> existing = listPartitions(conn, table);
+                for (int i = 0; i <= monthsAhead; i++) {
+                    YearMonth month = current.plusMonths(i);
+                    if (!existing.contains(table.partitionName(month))) {
+                        createPartition(stmt, table, month);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Cria a partição de um mês. Se a DEFAULT já tiver linhas desse mês, elas são movidas
+     * para a nova tabela antes de anexá-la (o PostgreSQL recusa o anexo caso contrário).
+     */
+    private static void createPartition(Statement stmt, PartitionedTable table, YearMonth month) throws SQLException {
+        String partition = table.partitionName(month);
+        String from = table.bound(month);
+        String to = table.bound(month.plusMonths(1));
+        String range = table.keyColumn + " >= " + from + " AND " + table.keyColumn + " < " + to;
+
+        boolean hasDefaultRows;
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT EXISTS (SELECT 1 FROM " + table.defaultPartition() + " WHERE " + range + ")")) {
+            hasDefaultRows = rs.next() && rs.getBoolean(1);
+        }
+
+        if (hasDefaultRows) {
+            stmt.execute("CREATE TABLE " + partition + " (LIKE " + table.name + " INCLUDING DEFAULTS)");
+            stmt.execute("WITH moved AS (DELETE FROM " + table.defaultPartition() + " WHERE " + range
+                    + " RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved");
+            stmt.execute("ALTER TABLE " + table.name + " ATTACH PARTITION " + partition
+                    + " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+        } else {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + table.name
+                    + " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+        }
+
+        partitionsCreated.incrementAndGet();
+        BotLogger.debug("Partição criada: {} [{}, {})", partition, from, to);
+    }
+
+    /**
+     * Remove partições inteiras:
+     * warns, quando o mês todo já expirou; logs, quando passa da retenção configurada
+     */
+    private static void dropExpired(Connection conn) throws SQLException {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+
+        try (Statement stmt = conn.createStatement()) {
+            for (PartitionedTable table : List.of(WARNS, LOGS)) {
+                // primeiro mês que ainda deve ser mantido
+                YearMonth keepFrom = table == WARNS ? current : current.minusMonths(logRetentionMonths);
+
+                for (String partition : listPartitions(conn, table)) {
+                    if (table.monthOf(partition).isBefore(keepFrom)) {
+                        if (table == WARNS) {
+                            // DROP não dispara os triggers de warn_stats; normalmente o WarnReaper já esvaziou a partição
+                            stmt.execute("UPDATE warn_stats s SET total_rows = GREATEST(s.total_rows - p.n, 0) "
+                                    + "FROM (SELECT warn_stats_shard(user_id) AS shard, COUNT(*) AS n FROM "
+                                    + partition + " GROUP BY 1) p WHERE s.shard = p.shard");
+                        }
+                        stmt.execute("DROP TABLE " + partition);
+                        partitionsDropped.incrementAndGet();
+                        BotLogger.info("Partição removida: " + partition);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Partições mensais existentes (a DEFAULT fica de fora)
+     */
+    private static List<String> listPartitions(Connection conn, PartitionedTable table) throws SQLException {
+        List<String> partitions = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+                        "WHERE n.nspname = current_schema() AND p.relname = ? AND c.relname LIKE ? " +
+                        "ORDER BY c.relname")) {
+            ps.setString(1, table.name);
+            ps.setString(2, table.name + "\\_p%");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    partitions.add(rs.getString(1));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Resumo para o /debug
+     */
+    public static String getStats() {
+        return String.format("🗂️ Partições: %d criadas | %d removidas (meses à frente: %d, retenção de logs: %d meses)",
+                partitionsCreated.get(), partitionsDropped.get(), monthsAhead, logRetentionMonths);
+    }
+
+    public static synchronized void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+}
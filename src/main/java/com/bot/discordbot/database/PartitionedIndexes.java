@@ -0,0 +1,97 @@
+package com.bot.discordbot.database;
+
+import com.bot.discordbot.util.BotLogger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criação de índices em tabelas particionadas sem bloquear escritas.
+ *
+ * O PostgreSQL não aceita CREATE INDEX CONCURRENTLY na tabela pai, então o índice é montado por partes:
+ * 1. índice vazio só na pai (ON ONLY), instantâneo e ainda inválido;
+ * 2. CREATE INDEX CONCURRENTLY em cada partição;
+ * 3. ATTACH de cada índice no da pai, que fica válido quando todas as partições estão anexadas.
+ * Partições criadas depois herdam o índice normalmente.
+ * Precisa de conexão em autocommit: CONCURRENTLY não roda dentro de transação.
+ */
+final class PartitionedIndexes {
+
+    private PartitionedIndexes() {
+    }
+
+    /**
+     * Cria (ou termina de criar, se uma execução anterior parou no meio) o índice {@code name}
+     *
+     * @param columns lista de colunas, como no CREATE INDEX: "user_id, expires_at"
+     */
+    static void createConcurrently(Connection conn, String name, String table, String columns) throws SQLException {
+        if (Boolean.TRUE.equals(isValid(conn, name))) {
+            BotLogger.debug("Índice {} já existe", name);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS " + name + " ON ONLY " + table + " (" + columns + ")");
+
+            for (String partition : partitionsWithoutIndex(conn, table, name)) {
+                String partitionIndex = partition + "_" + name;
+
+                // um CONCURRENTLY que falhou deixa o índice inválido para trás
+                if (Boolean.FALSE.equals(isValid(conn, partitionIndex))) {
+                    stmt.execute("DROP INDEX CONCURRENTLY IF EXISTS " + partitionIndex);
+                }
+
+                stmt.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + partitionIndex
+                        + " ON " + partition + " (" + columns + ")");
+                stmt.execute("ALTER INDEX " + name + " ATTACH PARTITION " + partitionIndex);
+            }
+        }
+
+        BotLogger.info(String.format("Índice %s criado em %dms", name, System.currentTimeMillis() - start));
+    }
+
+    /**
+     * @return null se o índice não existe
+     */
+    private static Boolean isValid(Connection conn, String index) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)")) {
+            ps.setString(1, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getBoolean(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Partições (incluindo a DEFAULT) que ainda não têm índice anexado ao da pai.
+     * As criadas depois do ON ONLY já ganharam o índice automaticamente e ficam de fora.
+     */
+    private static List<String> partitionsWithoutIndex(Connection conn, String table, String index)
+            throws SQLException {
+        List<String> partitions = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = to_regclass(?) AND NOT EXISTS (" +
+                        "SELECT 1 FROM pg_inherits ii JOIN pg_index x ON x.indexrelid = ii.inhrelid " +
+                        "WHERE ii.inhparent = to_regclass(?) AND x.indrelid = c.oid) " +
+                        "ORDER BY c.relname")) {
+            ps.setString(1, table);
+            ps.setString(2, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    partitions.add(rs.getString(1));
+                }
+            }
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,272 @@
+package com.bot.discordbot.database;
+
+import com.bot.discordbot.util.BotLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Migrações versionadas do schema.
+ *
+ * Cada migração tem um número de versão e é aplicada uma única vez, em ordem; a tabela schema_version
+ * guarda quais já rodaram e o checksum (CRC32) dos scripts SQL, para detectar script alterado depois de aplicado.
+ * Scripts ficam em resources/db/migration; o que SQL puro não resolve (conversões com lotes,
+ * índices CONCURRENTLY em tabelas particionadas) é migração em Java.
+ *
+ * Com o banco em dia, a inicialização custa um único SELECT de uma linha.
+ */
+public class SchemaMigrations {
+
+    private static final String RESOURCE_DIR = "/db/migration/";
+
+    // pg_advisory_lock: impede que duas instâncias migrem ao mesmo tempo
+    private static final long MIGRATION_LOCK_KEY = 0x534348454D41L; // "SCHEMA"
+
+    @FunctionalInterface
+    interface JavaMigration {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Uma migração: script SQL (sempre em transação) ou código Java
+     * (em transação ou em autocommit, para quem controla os próprios commits)
+     */
+    static final class Migration {
+        final int version;
+        final String description;
+        final String script;
+        final JavaMigration code;
+        final boolean transactional;
+
+        private Migration(int version, String description, String script, JavaMigration code, boolean transactional) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.code = code;
+            this.transactional = transactional;
+        }
+
+        static Migration sql(int version, String script) {
+            String description = script.substring(script.indexOf("__") + 2, script.lastIndexOf('.')).replace('_', ' ');
+            return new Migration(version, description, script, null, true);
+        }
+
+        static Migration java(int version, String description, boolean transactional, JavaMigration code) {
+            return new Migration(version, description, null, code, transactional);
+        }
+    }
+
+    // ==================== MIGRAÇÕES ====================
+    // nunca altere uma migração já publicada: crie uma nova com o próximo número
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            Migration.java(1, "tabelas comuns para particionadas", true, PartitionManager::convertLegacyTables),
+            Migration.sql(2, "V002__baseline.sql"),
+            Migration.java(3, "ids do discord como bigint", false, SnowflakeIdMigration::migrate),
+            Migration.java(4, "indices de warns", false, SchemaMigrations::createWarnIndexes),
+            Migration.sql(5, "V005__align_with_setup_script.sql"),
+            Migration.sql(6, "V006__warn_stats.sql"),
+            Migration.java(7, "indice de paginacao de warns", false, SchemaMigrations::createWarnPageIndex)
+    );
+
+    private static final int LATEST_VERSION = MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+
+    // ==================== EXECUÇÃO ====================
+
+    /**
+     * Aplica as migrações pendentes
+     */
+    public static void migrate() {
+        try (Connection conn = Database.getConnection()) {
+            if (isUpToDate(conn)) {
+                BotLogger.debug("Schema na versão {}, nada a migrar", LATEST_VERSION);
+                return;
+            }
+            migrateLocked(conn);
+
+        } catch (SQLException | IOException e) {
+            BotLogger.error("Erro ao migrar o schema do banco", e);
+            throw new RuntimeException("Falha nas migrações do banco", e);
+        }
+    }
+
+    /**
+     * Caminho rápido: só a última versão aplicada é lida
+     */
+    private static boolean isUpToDate(Connection conn) throws SQLException, IOException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT version, checksum FROM schema_version ORDER BY version DESC LIMIT 1")) {
+
+            if (!rs.next()) {
+                return false;
+            }
+
+            int version = rs.getInt("version");
+            if (version > LATEST_VERSION) {
+                BotLogger.warn("Banco está na versão " + version + ", mais nova que a do bot ("
+                        + LATEST_VERSION + "). Continuando sem migrar.");
+                return true;
+            }
+
+            return version == LATEST_VERSION
+                    && sameChecksum(MIGRATIONS.get(MIGRATIONS.size() - 1), rs.getObject("checksum", Long.class));
+
+        } catch (SQLException e) {
+            // 42P01 = tabela não existe: banco novo ou anterior ao controle de versão
+            if ("42P01".equals(e.getSQLState())) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private static void migrateLocked(Connection conn) throws SQLException, IOException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SELECT pg_advisory_lock(" + MIGRATION_LOCK_KEY + ")");
+        }
+
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INTEGER PRIMARY KEY,
+                        description TEXT NOT NULL,
+                        checksum BIGINT,
+                        installed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                        execution_ms BIGINT NOT NULL
+                    )
+                """);
+            }
+
+            // relido depois do lock: outra instância pode ter acabado de migrar
+            Map<Integer, Long> applied = appliedChecksums(conn);
+            int pending = 0;
+
+            for (Migration migration : MIGRATIONS) {
+                if (applied.containsKey(migration.version)) {
+                    if (!sameChecksum(migration, applied.get(migration.version))) {
+                        throw new SQLException("Migração V" + migration.version + " (" + migration.description
+                                + ") foi alterada depois de aplicada");
+                    }
+                    continue;
+                }
+                apply(conn, migration);
+                pending++;
+            }
+
+            BotLogger.success("✅ Schema na versão " + LATEST_VERSION + " (" + pending + " migrações aplicadas)");
+
+        } finally {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SELECT pg_advisory_unlock(" + MIGRATION_LOCK_KEY + ")");
+            }
+        }
+    }
+
+    private static Map<Integer, Long> appliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getObject("checksum", Long.class));
+            }
+        }
+        return applied;
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException, IOException {
+        BotLogger.info("Aplicando migração V" + migration.version + ": " + migration.description);
+        long start = System.currentTimeMillis();
+
+        String sql = migration.script != null ? readScript(migration.script) : null;
+        Long checksum = sql != null ? checksum(sql) : null;
+
+        conn.setAutoCommit(!migration.transactional);
+        try {
+            if (sql != null) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(sql);
+                }
+            } else {
+                migration.code.apply(conn);
+            }
+
+            // registrado na mesma transação do script: ou os dois acontecem, ou nenhum
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+                ps.setInt(1, migration.version);
+                ps.setString(2, migration.description);
+                ps.setObject(3, checksum, Types.BIGINT);
+                ps.setLong(4, System.currentTimeMillis() - start);
+                ps.executeUpdate();
+            }
+
+            if (migration.transactional) {
+                conn.commit();
+            }
+        } catch (SQLException e) {
+            if (migration.transactional) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        BotLogger.info(String.format("Migração V%d aplicada em %dms", migration.version, System.currentTimeMillis() - start));
+    }
+
+    // ==================== CHECKSUM ====================
+
+    private static boolean sameChecksum(Migration migration, Long stored) throws IOException {
+        if (migration.script == null) {
+            return stored == null;
+        }
+        return stored != null && stored == checksum(readScript(migration.script));
+    }
+
+    private static String readScript(String script) throws IOException {
+        try (InputStream in = SchemaMigrations.class.getResourceAsStream(RESOURCE_DIR + script)) {
+            if (in == null) {
+                throw new IOException("Script de migração não encontrado: " + RESOURCE_DIR + script);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // quebras de linha normalizadas, para o checksum não mudar com o checkout no Windows
+    private static long checksum(String sql) {
+        CRC32 crc = new CRC32();
+        crc.update(sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    // ==================== MIGRAÇÕES EM JAVA ====================
+
+    /**
+     * Índices usados pelo WarnDAO, criados sem travar escritas
+     */
+    private static void createWarnIndexes(Connection conn) throws SQLException {
+        PartitionedIndexes.createConcurrently(conn, "idx_warns_expires_at", "warns", "expires_at");
+        PartitionedIndexes.createConcurrently(conn, "idx_warns_user_expires", "warns", "user_id, expires_at");
+    }
+
+    /**
+     * Keyset do /warnstatus: páginas de (timestamp, id) por usuário lidas direto do índice
+     */
+    private static void createWarnPageIndex(Connection conn) throws SQLException {
+        PartitionedIndexes.createConcurrently(conn, "idx_warns_user_timestamp", "warns", "user_id, timestamp, id");
+    }
+}
@@ -0,0 +1,168 @@
+package com.bot.discordbot.database;
+
+import com.bot.discordbot.util.BotLogger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Converte warns.user_id e warns.moderator_id de VARCHAR(20) para BIGINT (IDs do Discord são snowflakes de 64 bits).
+ * A conversão não bloqueia a tabela enquanto copia os dados:
+ * 1. cria colunas-sombra BIGINT e um trigger que as preenche em toda escrita nova;
+ * 2. copia as linhas antigas em lotes curtos, cada um na sua transação;
+ * 3. valida o NOT NULL via CHECK e cria o índice novo, ainda com a tabela em uso;
+ * 4. troca as colunas numa transação curta (só metadados, sem reescrever a tabela).
+ * Todos os passos podem ser repetidos: se o bot cair no meio, continua de onde parou.
+ * Roda como migração do {@link SchemaMigrations}, numa conexão em autocommit.
+ */
+final class SnowflakeIdMigration {
+
+    private static final int BATCH_SIZE = 5000;
+    private static final long BATCH_PAUSE_MILLIS = 50;
+
+    // a troca desiste se não conseguir o lock rápido, em vez de enfileirar as consultas atrás dela
+    private static final String SWAP_LOCK_TIMEOUT = "5s";
+
+    private static final String NUMERIC_MODERATOR =
+            "CASE WHEN moderator_id ~ '^[0-9]{1,19}$' THEN moderator_id::bigint END";
+
+    private SnowflakeIdMigration() {
+    }
+
+    /**
+     * Executa a migração se as colunas ainda forem texto (bancos novos já nascem com BIGINT)
+     */
+    static void migrate(Connection conn) throws SQLException {
+        String type = columnType(conn, "user_id");
+        if (!"character varying".equals(type)) {
+            BotLogger.debug("warns.user_id já é {}, nada a migrar", type);
+            return;
+        }
+
+        BotLogger.warn("Convertendo IDs de warns de VARCHAR para BIGINT (executado uma única vez)...");
+        long start = System.currentTimeMillis();
+
+        prepareShadowColumns(conn);
+        long copied = backfill(conn);
+        validateAndIndex(conn);
+        swap(conn);
+
+        BotLogger.success(String.format("✅ IDs de warns convertidos para BIGINT (%d linhas copiadas em %dms)",
+                copied, System.currentTimeMillis() - start));
+    }
+
+    private static String columnType(Connection conn, String column) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT data_type FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = 'warns' AND column_name = ?")) {
+            ps.setString(1, column);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Colunas-sombra e trigger de sincronização. ADD COLUMN sem default é só metadado.
+     */
+    private static void prepareShadowColumns(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE warns ADD COLUMN IF NOT EXISTS user_id_new BIGINT, " +
+                    "ADD COLUMN IF NOT EXISTS moderator_id_new BIGINT");
+
+            stmt.execute("""
+                CREATE OR REPLACE FUNCTION warns_sync_bigint_ids() RETURNS trigger AS $$
+                BEGIN
+                    NEW.user_id_new := NEW.user_id::bigint;
+                    NEW.moderator_id_new := CASE WHEN NEW.moderator_id ~ '^[0-9]{1,19}$'
+                                                 THEN NEW.moderator_id::bigint END;
+                    RETURN NEW;
+                END;
+                $$ LANGUAGE plpgsql
+            """);
+            stmt.execute("DROP TRIGGER IF EXISTS warns_sync_bigint_ids ON warns");
+            stmt.execute("CREATE TRIGGER warns_sync_bigint_ids BEFORE INSERT OR UPDATE OF user_id, moderator_id " +
+                    "ON warns FOR EACH ROW EXECUTE FUNCTION warns_sync_bigint_ids()");
+        }
+        BotLogger.debug("Colunas-sombra e trigger criados");
+    }
+
+    /**
+     * Copia as linhas existentes em faixas de id. Linhas novas já chegam preenchidas pelo trigger.
+     */
+    private static long backfill(Connection conn) throws SQLException {
+        long maxId;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM warns")) {
+            rs.next();
+            maxId = rs.getLong(1);
+        }
+
+        long copied = 0;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE warns SET user_id_new = user_id::bigint, moderator_id_new = " + NUMERIC_MODERATOR +
+                        " WHERE id > ? AND id <= ? AND user_id_new IS NULL")) {
+
+            for (long from = 0; from < maxId; from += BATCH_SIZE) {
+                ps.setLong(1, from);
+                ps.setLong(2, from + BATCH_SIZE);
+                copied += ps.executeUpdate();
+
+                try {
+                    Thread.sleep(BATCH_PAUSE_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Migração interrompida", e);
+                }
+            }
+        }
+
+        BotLogger.debug("Backfill concluído: {} linhas", copied);
+        return copied;
+    }
+
+    /**
+     * Prova o NOT NULL sem lock exclusivo (VALIDATE só bloqueia DDL) e cria o índice na coluna nova
+     */
+    private static void validateAndIndex(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE warns DROP CONSTRAINT IF EXISTS warns_user_id_new_not_null");
+            stmt.execute("ALTER TABLE warns ADD CONSTRAINT warns_user_id_new_not_null " +
+                    "CHECK (user_id_new IS NOT NULL) NOT VALID");
+            stmt.execute("ALTER TABLE warns VALIDATE CONSTRAINT warns_user_id_new_not_null");
+        }
+        PartitionedIndexes.createConcurrently(conn, "idx_warns_user_expires_new", "warns", "user_id_new, expires_at");
+        BotLogger.debug("CHECK validado e índice novo criado");
+    }
+
+    /**
+     * Troca as colunas numa transação curta. Com o CHECK já validado, o SET NOT NULL não varre a tabela.
+     */
+    private static void swap(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET LOCAL lock_timeout = '" + SWAP_LOCK_TIMEOUT + "'");
+            stmt.execute("LOCK TABLE warns IN ACCESS EXCLUSIVE MODE");
+
+            stmt.execute("DROP TRIGGER IF EXISTS warns_sync_bigint_ids ON warns");
+            // também remove idx_warns_user_expires, que dependia da coluna antiga
+            stmt.execute("ALTER TABLE warns DROP COLUMN user_id, DROP COLUMN moderator_id");
+            stmt.execute("ALTER TABLE warns RENAME COLUMN user_id_new TO user_id");
+            stmt.execute("ALTER TABLE warns RENAME COLUMN moderator_id_new TO moderator_id");
+            stmt.execute("ALTER TABLE warns ALTER COLUMN user_id SET NOT NULL");
+            stmt.execute("ALTER TABLE warns DROP CONSTRAINT warns_user_id_new_not_null");
+            stmt.execute("ALTER INDEX idx_warns_user_expires_new RENAME TO idx_warns_user_expires");
+            stmt.execute("DROP FUNCTION IF EXISTS warns_sync_bigint_ids()");
+
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.bot.discordbot.listeners;
 
 import com.bot.discordbot.config.BotConfig;
 import com.bot.discordbot.util.BotLogger;
+import com.bot.discordbot.util.ThrottledLog;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
@@ -13,6 +14,7 @@ import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 
 import java.awt.Color;
+import java.time.Duration;
 
 /**
  * Listener responsável por mensagens de boas-vindas e despedidas
@@ -20,6 +22,40 @@ import java.awt.Color;
  */
 public class WelcomeAndGoodbye extends ListenerAdapter {
 
+    // em raids chegam milhares de entradas por minuto: o volume de log fica limitado
+    // e o excedente vira um resumo periódico. Um limitador por ponto de chamada, para que uma
+    // mensagem nunca gaste o limite de outra (a primeira ocorrência de cada uma sempre aparece).
+    // Bans e kicks não passam por limitador: são ações de moderação e precisam ficar no log.
+    private static final ThrottledLog JOIN_LOG = BotLogger.rateLimited("welcome.join", 20, Duration.ofSeconds(10));
+    private static final ThrottledLog JOIN_ERROR_LOG = errorLog("welcome.error");
+    private static final ThrottledLog AUTO_ROLE_UNSET_LOG = configLog("welcome.auto-role.unset");
+    private static final ThrottledLog AUTO_ROLE_MISSING_LOG = configLog("welcome.auto-role.missing");
+    private static final ThrottledLog AUTO_ROLE_SUCCESS_LOG = BotLogger.sampled("welcome.auto-role.success", 50);
+    private static final ThrottledLog AUTO_ROLE_ERROR_LOG = errorLog("welcome.auto-role.error");
+    private static final ThrottledLog WELCOME_CHANNEL_UNSET_LOG = configLog("welcome.channel.unset");
+    private static final ThrottledLog WELCOME_CHANNEL_MISSING_LOG = configLog("welcome.channel.missing");
+    private static final ThrottledLog WELCOME_SUCCESS_LOG = BotLogger.sampled("welcome.message.success", 50);
+    private static final ThrottledLog WELCOME_ERROR_LOG = errorLog("welcome.message.error");
+
+    private static final ThrottledLog LEAVE_LOG = BotLogger.rateLimited("goodbye.leave", 20, Duration.ofSeconds(10));
+    private static final ThrottledLog LEAVE_ERROR_LOG = errorLog("goodbye.error");
+    private static final ThrottledLog EXIT_CHANNEL_UNSET_LOG = configLog("goodbye.channel.unset");
+    private static final ThrottledLog EXIT_CHANNEL_MISSING_LOG = configLog("goodbye.channel.missing");
+    private static final ThrottledLog AUDIT_LOG_ERROR_LOG = configLog("goodbye.audit-log.error");
+    private static final ThrottledLog NORMAL_LEAVE_LOG = BotLogger.rateLimited("goodbye.normal", 20, Duration.ofSeconds(10));
+    private static final ThrottledLog ASSUMED_LEAVE_LOG = BotLogger.rateLimited("goodbye.assumed", 20, Duration.ofSeconds(10));
+    private static final ThrottledLog GOODBYE_SUCCESS_LOG = BotLogger.sampled("goodbye.message.success", 50);
+    private static final ThrottledLog GOODBYE_ERROR_LOG = errorLog("goodbye.message.error");
+
+    // configuração ausente se repete a cada evento: uma linha por minuto basta
+    private static ThrottledLog configLog(String site) {
+        return BotLogger.rateLimited(site, 1, Duration.ofMinutes(1));
+    }
+
+    private static ThrottledLog errorLog(String site) {
+        return BotLogger.rateLimited(site, 5, Duration.ofSeconds(10));
+    }
+
     // ==================== ENTRADA DE MEMBRO ====================
 
     @Override
@@ -27,7 +63,7 @@ public class WelcomeAndGoodbye extends ListenerAdapter {
         Guild guild = event.getGuild();
         Member member = event.getMember();
 
-        BotLogger.info("Novo membro entrou: " + member.getEffectiveName() + " (ID: " + member.getId() + ")");
+        JOIN_LOG.info("Novo membro entrou: {} (ID: {})", member.getEffectiveName(), member.getId());
 
         try {
             // atribuir cargo automático
@@ -37,7 +73,7 @@ public class WelcomeAndGoodbye extends ListenerAdapter {
             sendWelcomeMessage(guild, member);
 
         } catch (Exception e) {
-            BotLogger.error("Erro ao processar entrada de membro", e);
+            JOIN_ERROR_LOG.error("Erro ao processar entrada de membro", e);
         }
     }
 
@@ -48,22 +84,22 @@ public class WelcomeAndGoodbye extends ListenerAdapter {
         String autoRoleId = BotConfig.getAutoRoleId();
 
         if (autoRoleId == null || autoRoleId.isEmpty()) {
-            BotLogger.warn("Auto role ID não configurado");
+            AUTO_ROLE_UNSET_LOG.warn("Auto role ID não configurado");
             return;
         }
 
         Role role = guild.getRoleById(autoRoleId);
 
         if (role == null) {
-            BotLogger.error("Cargo automático não encontrado: " + autoRoleId);
+            AUTO_ROLE_MISSING_LOG.error("Cargo automático não encontrado: " + autoRoleId);
             return;
         }
 
-        BotLogger.debug("Atribuindo cargo '" + role.getName() + "' para " + member.getEffectiveName());
+        BotLogger.debug("Atribuindo cargo '{}' para {}", role.getName(), member.getEffectiveName());
 
         guild.addRoleToMember(member, role).queue(
-                success -> BotLogger.success("✅ Cargo atribuído a " + member.getEffectiveName()),
-                error -> BotLogger.error("❌ Erro ao atribuir cargo: " + error.getMessage())
+                success -> AUTO_ROLE_SUCCESS_LOG.success("✅ Cargo atribuído a " + member.getEffectiveName()),
+                error -> AUTO_ROLE_ERROR_LOG.error("❌ Erro ao atribuir cargo: " + error.getMessage())
         );
     }
 
@@ -74,14 +110,14 @@ public class WelcomeAndGoodbye extends ListenerAdapter {
         String channelId = BotConfig.getWelcomeChannelId();
 
         if (channelId == null || channelId.isEmpty()) {
-            BotLogger.warn("Welcome channel ID não configurado");
+            WELCOME_CHANNEL_UNSET_LOG.warn("Welcome channel ID não configurado");
             return;
         }
 
         TextChannel channel = guild.getTextChannelById(channelId);
 
         if (channel == null) {
-            BotLogger.error("Canal de boas-vindas não encontrado: " + channelId);
+            WELCOME_CHANNEL_MISSING_LOG.error("Canal de boas-vindas não encontrado: " + channelId);
             return;
         }
 
@@ -99,11 +135,11 @@ public class WelcomeAndGoodbye extends ListenerAdapter {
                 .setFooter("Bem-vindo(a)!", guild.getIconUrl())
                 .setTimestamp(java.time.Instant.now());
 
-        BotLogger.debug("Enviando mensagem de boas-vindas para " + member.getEffectiveName());
+        BotLogger.debug("Enviando mensagem de boas-vindas para {}", member.getEffectiveName());
 
         channel.sendMessageEmbeds(embed.build()).queue(
-                success -> BotLogger.success("✅ Mensagem de boas-vindas enviada"),
-                error -> BotLogger.error("❌ Erro ao enviar mensagem: " + error.getMessage())
+                success -> WELCOME_SUCCESS_LOG.success("✅ Mensagem de boas-vindas enviada"),
+                error -> WELCOME_ERROR_LOG.error("❌ Erro ao enviar mensagem: " + error.getMessage())
         );
     }
 
@@ -114,14 +150,14 @@ public class WelcomeAndGoodbye extends ListenerAdapter {
         Guild guild = event.getGuild();
         User user = event.getUser();
 
-        BotLogger.info("Membro saiu: " + user.getName() + " (ID: " + user.getId() + ")");
+        LEAVE_LOG.info("Membro saiu: {} (ID: {})", user.getName(), user.getId());
 
         try {
             // verifica se foi ban ou saída normal
             checkBanOrLeave(guild, user);
 
         } catch (Exception e) {
-            BotLogger.error("Erro ao processar saída de membro", e);
+            LEAVE_ERROR_LOG.error("Erro ao processar saída de membro", e);
         }
     }
 
@@ -132,14 +168,14 @@ public class WelcomeAndGoodbye extends ListenerAdapter {
         String channelId = BotConfig.getExitChannelId();
 
         if (channelId == null || channelId.isEmpty()) {
-            BotLogger.warn("Exit channel ID não configurado");
+            EXIT_CHANNEL_UNSET_LOG.warn("Exit channel ID não configurado");
             return;
         }
 
         TextChannel channel = guild.getTextChannelById(channelId);
 
         if (channel == null) {
-            BotLogger.error("Canal de saída não encontrado: " + channelId);
+            EXIT_CHANNEL_MISSING_LOG.error("Canal de saída não encontrado: " + channelId);
             return;
         }
 
@@ -190,14 +226,14 @@ public class WelcomeAndGoodbye extends ListenerAdapter {
 
                             if (!wasKicked) {
                                 // usuário saiu normalmente
-                                BotLogger.info("Usuário saiu normalmente: " + user.getName());
+                                NORMAL_LEAVE_LOG.info("Usuário saiu normalmente: " + user.getName());
                                 sendLeaveMessage(channel, user);
                             }
                         },
                         error -> {
                             // erro ao buscar audit logs, assume saída normal
-                            BotLogger.warn("Erro ao buscar audit logs (pode ser falta de permissão): " + error.getMessage());
-                            BotLogger.info("Assumindo saída normal de: " + user.getName());
+                            AUDIT_LOG_ERROR_LOG.warn("Erro ao buscar audit logs (pode ser falta de permissão): " + error.getMessage());
+                            ASSUMED_LEAVE_LOG.info("Assumindo saída normal de: " + user.getName());
                             sendLeaveMessage(channel, user);
                         }
                 );
@@ -270,8 +306,8 @@ public class WelcomeAndGoodbye extends ListenerAdapter {
                 .setTimestamp(java.time.Instant.now());
 
         channel.sendMessageEmbeds(embed.build()).queue(
-                success -> BotLogger.success("✅ Mensagem de saída enviada"),
-                error -> BotLogger.error("❌ Erro ao enviar mensagem: " + error.getMessage())
+                success -> GOODBYE_SUCCESS_LOG.success("✅ Mensagem de saída enviada"),
+                error -> GOODBYE_ERROR_LOG.error("❌ Erro ao enviar mensagem: " + error.getMessage())
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.bot.discordbot.metrics;
+
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conta os eventos do gateway por tipo (classe do evento).
+ * Depois do primeiro evento de cada tipo, contar é um get no mapa e um incremento, sem lock.
+ */
+public class EventCounter implements EventListener {
+
+    private final Map<Class<?>, LongAdder> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void onEvent(@NotNull GenericEvent event) {
+        LongAdder counter = counts.get(event.getClass());
+        if (counter == null) {
+            counter = counts.computeIfAbsent(event.getClass(), type -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Total por tipo de evento (nome simples da classe), em ordem alfabética
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((type, counter) -> result.put(type.getSimpleName(), counter.sum()));
+        return result;
+    }
+}
@@ -0,0 +1,302 @@
+package com.bot.discordbot.metrics;
+
+import com.bot.discordbot.Main;
+import com.bot.discordbot.database.Database;
+import com.bot.discordbot.database.DatabaseExecutor;
+import com.bot.discordbot.database.DatabaseReadiness;
+import com.bot.discordbot.moderation.warn.dao.WarnStatistics;
+import com.bot.discordbot.moderation.warn.service.ActiveWarnIndex;
+import com.bot.discordbot.moderation.warn.service.WarnService;
+import com.bot.discordbot.moderation.warn.service.WarnedUserFilter;
+import com.bot.discordbot.util.BotLogger;
+import com.bot.discordbot.util.CommandMetrics;
+import com.bot.discordbot.util.InstrumentedExecutor;
+import com.bot.discordbot.util.LatencyHistogram;
+import com.bot.discordbot.util.VirtualThreads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import net.dv8tion.jda.api.JDA;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor HTTP local (com.sun.net.httpserver) para monitoramento:
+ * <ul>
+ *   <li>/metrics: formato texto do Prometheus</li>
+ *   <li>/health/live: 200 enquanto o processo responde</li>
+ *   <li>/health/ready: 200 com o banco pronto e o gateway conectado, 503 caso contrário</li>
+ * </ul>
+ * Um scrape só lê contadores em memória (Hikari, executores, histogramas, logger): nunca consulta
+ * o banco nem chama a API do Discord. A latência REST é amostrada em segundo plano e guardada.
+ */
+public final class MetricsServer {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final long REST_PING_INTERVAL_SECONDS = 30;
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private static final AtomicLong restPingMillis = new AtomicLong(-1);
+    private static HttpServer server;
+    private static ScheduledExecutorService restPingSampler;
+
+    private MetricsServer() {
+    }
+
+    /**
+     * Sobe o servidor; porta 0 desativa
+     */
+    public static synchronized void start(String bindAddress, int port) {
+        if (port <= 0 || server != null) {
+            return;
+        }
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        } catch (IOException e) {
+            // sem métricas o bot continua funcionando
+            BotLogger.error("Não foi possível abrir o servidor de métricas em " + bindAddress + ":" + port, e);
+            return;
+        }
+
+        server.createContext("/metrics", get(MetricsServer::metrics));
+        server.createContext("/health/live", get(exchange -> respond(exchange, 200, "ok\n")));
+        server.createContext("/health/ready", get(MetricsServer::ready));
+        server.setExecutor(Executors.newSingleThreadExecutor(VirtualThreads.daemonFactory("metrics-http")));
+        server.start();
+
+        restPingSampler = Executors.newSingleThreadScheduledExecutor(VirtualThreads.daemonFactory("rest-ping"));
+        restPingSampler.scheduleWithFixedDelay(MetricsServer::sampleRestPing,
+                REST_PING_INTERVAL_SECONDS, REST_PING_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        BotLogger.info("Métricas em http://" + bindAddress + ":" + port + "/metrics");
+    }
+
+    public static synchronized void shutdown() {
+        if (server == null) {
+            return;
+        }
+        restPingSampler.shutdownNow();
+        server.stop(0);
+        server = null;
+    }
+
+    private static void sampleRestPing() {
+        JDA jda = Main.getJDA();
+        if (jda != null && jda.getStatus() == JDA.Status.CONNECTED) {
+            jda.getRestPing().queue(restPingMillis::set, error -> restPingMillis.set(-1));
+        }
+    }
+
+    // ==================== HANDLERS ====================
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private static HttpHandler get(Handler handler) {
+        return exchange -> {
+            try (exchange) {
+                if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                    respond(exchange, 405, "método não permitido\n");
+                    return;
+                }
+                handler.handle(exchange);
+            } catch (RuntimeException e) {
+                BotLogger.error("Erro no endpoint " + exchange.getRequestURI(), e);
+            }
+        };
+    }
+
+    private static void ready(HttpExchange exchange) throws IOException {
+        JDA jda = Main.getJDA();
+        boolean database = DatabaseReadiness.isReady();
+        boolean gateway = jda != null && jda.getStatus() == JDA.Status.CONNECTED;
+
+        if (database && gateway) {
+            respond(exchange, 200, "ready\n");
+        } else {
+            respond(exchange, 503, String.format("not ready: banco=%s, gateway=%s%n",
+                    database ? "ok" : "pendente",
+                    jda != null ? jda.getStatus() : "pendente"));
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        boolean head = "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, head ? -1 : bytes.length);
+        if (!head) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    // ==================== /metrics ====================
+
+    private static void metrics(HttpExchange exchange) throws IOException {
+        StringBuilder sb = new StringBuilder(8192);
+
+        JDA jda = Main.getJDA();
+        header(sb, "discordbot_ready", "gauge", "1 quando banco e gateway estão prontos");
+        sample(sb, "discordbot_ready", null, DatabaseReadiness.isReady()
+                && jda != null && jda.getStatus() == JDA.Status.CONNECTED ? 1 : 0);
+
+        // Discord
+        header(sb, "discordbot_gateway_ping_seconds", "gauge", "Latência do heartbeat do gateway");
+        sample(sb, "discordbot_gateway_ping_seconds", null, jda != null ? millis(jda.getGatewayPing()) : -1);
+        header(sb, "discordbot_rest_ping_seconds", "gauge", "Última latência REST amostrada");
+        sample(sb, "discordbot_rest_ping_seconds", null, millis(restPingMillis.get()));
+
+        header(sb, "discordbot_events_total", "counter", "Eventos do gateway por tipo");
+        for (Map.Entry<String, Long> entry : Main.getEventCounter().getCounts().entrySet()) {
+            sample(sb, "discordbot_events_total", labels("type", entry.getKey()), entry.getValue());
+        }
+
+        Map<String, InstrumentedExecutor> pools = Main.getJdaPools();
+        header(sb, "discordbot_jda_pool_running", "gauge", "Tarefas rodando nos pools do JDA");
+        pools.forEach((name, pool) -> sample(sb, "discordbot_jda_pool_running", labels("pool", name), pool.getRunningCount()));
+        header(sb, "discordbot_jda_pool_queued", "gauge", "Tarefas esperando vaga nos pools do JDA");
+        pools.forEach((name, pool) -> sample(sb, "discordbot_jda_pool_queued", labels("pool", name), pool.getQueuedCount()));
+
+        // comandos
+        appendCommands(sb);
+
+        // banco
+        HikariPoolMXBean pool = Database.getPoolMXBean();
+        header(sb, "discordbot_db_connections", "gauge", "Conexões do pool Hikari por estado");
+        if (pool != null) {
+            sample(sb, "discordbot_db_connections", labels("state", "active"), pool.getActiveConnections());
+            sample(sb, "discordbot_db_connections", labels("state", "idle"), pool.getIdleConnections());
+        }
+        header(sb, "discordbot_db_connections_pending", "gauge", "Threads esperando conexão do pool Hikari");
+        if (pool != null) {
+            sample(sb, "discordbot_db_connections_pending", null, pool.getThreadsAwaitingConnection());
+        }
+        header(sb, "discordbot_db_executor_active", "gauge", "Operações rodando no executor de banco");
+        sample(sb, "discordbot_db_executor_active", null, DatabaseExecutor.getActiveCount());
+        header(sb, "discordbot_db_executor_queued", "gauge", "Operações esperando no executor de banco");
+        sample(sb, "discordbot_db_executor_queued", null, DatabaseExecutor.getQueuedCount());
+
+        // warns: último snapshot do WarnStatistics (renovado pelo WarnReaper)
+        WarnStatistics.Snapshot warns = WarnStatistics.getSnapshot();
+        if (warns != null) {
+            header(sb, "discordbot_warns_active", "gauge", "Warns ativos no último snapshot");
+            sample(sb, "discordbot_warns_active", null, warns.getActive());
+            header(sb, "discordbot_warns_rows", "gauge", "Linhas na tabela warns (contador mantido por trigger)");
+            sample(sb, "discordbot_warns_rows", null, warns.getTotalRows());
+            header(sb, "discordbot_warns_applied_total", "counter", "Warns aplicados desde a criação da tabela");
+            sample(sb, "discordbot_warns_applied_total", null, warns.getTotalApplied());
+        }
+
+        ActiveWarnIndex index = WarnService.getActiveIndex();
+        if (index != null) {
+            header(sb, "discordbot_warn_index_warns", "gauge", "Warns no índice de ativos em memória");
+            sample(sb, "discordbot_warn_index_warns", null, index.getWarnCount());
+            header(sb, "discordbot_warn_index_bytes", "gauge", "Memória aproximada do índice de ativos");
+            sample(sb, "discordbot_warn_index_bytes", null, index.estimateBytes());
+        }
+        if (WarnedUserFilter.isEnabled()) {
+            header(sb, "discordbot_warn_filter_checks_total", "counter", "Consultas ao filtro de usuários com warns");
+            sample(sb, "discordbot_warn_filter_checks_total", labels("result", "negative"), WarnedUserFilter.getNegativeCount());
+            sample(sb, "discordbot_warn_filter_checks_total", labels("result", "positive"), WarnedUserFilter.getPositiveCount());
+            header(sb, "discordbot_warn_filter_empty_positives_total", "counter", "Positivos do filtro sem nenhum warn no banco");
+            sample(sb, "discordbot_warn_filter_empty_positives_total", null, WarnedUserFilter.getEmptyPositiveCount());
+            header(sb, "discordbot_warn_filter_false_positive_rate", "gauge", "Taxa de falsos positivos estimada pelo preenchimento");
+            sample(sb, "discordbot_warn_filter_false_positive_rate", null, WarnedUserFilter.getEstimatedFalsePositiveRate());
+            header(sb, "discordbot_warn_filter_bytes", "gauge", "Tamanho do filtro de usuários com warns");
+            sample(sb, "discordbot_warn_filter_bytes", null, WarnedUserFilter.getSizeBytes());
+        }
+
+        // logger
+        header(sb, "discordbot_log_queue_depth", "gauge", "Linhas na fila do logger assíncrono");
+        sample(sb, "discordbot_log_queue_depth", null, BotLogger.getQueueDepth());
+        header(sb, "discordbot_log_queue_capacity", "gauge", "Capacidade da fila do logger assíncrono");
+        sample(sb, "discordbot_log_queue_capacity", null, BotLogger.getQueueCapacity());
+        header(sb, "discordbot_log_dropped_total", "counter", "Linhas descartadas pela política de overflow");
+        sample(sb, "discordbot_log_dropped_total", null, BotLogger.getDroppedCount());
+
+        respond(exchange, 200, sb.toString());
+    }
+
+    private static void appendCommands(StringBuilder sb) {
+        Map<String, CommandMetrics.CommandStats> commands = CommandMetrics.getAll();
+
+        header(sb, "discordbot_command_calls_total", "counter", "Chamadas por comando");
+        commands.forEach((name, stats) ->
+                sample(sb, "discordbot_command_calls_total", labels("command", name), stats.getCalls()));
+
+        header(sb, "discordbot_command_errors_total", "counter", "Erros por comando e causa");
+        commands.forEach((name, stats) -> {
+            for (CommandMetrics.Cause cause : CommandMetrics.Cause.values()) {
+                sample(sb, "discordbot_command_errors_total",
+                        labels("command", name) + ",cause=\"" + cause.name().toLowerCase() + "\"",
+                        stats.getErrors(cause));
+            }
+        });
+
+        summaryHeader(sb, "discordbot_command_ack_seconds", "Da criação da interação até o ack");
+        commands.forEach((name, stats) -> summary(sb, "discordbot_command_ack_seconds", name, stats.getAck()));
+        summaryHeader(sb, "discordbot_command_response_seconds", "Da criação da interação até a resposta final");
+        commands.forEach((name, stats) -> summary(sb, "discordbot_command_response_seconds", name, stats.getResponse()));
+        summaryHeader(sb, "discordbot_command_db_seconds", "Tempo de banco por comando");
+        commands.forEach((name, stats) -> summary(sb, "discordbot_command_db_seconds", name, stats.getDatabase()));
+    }
+
+    // ==================== FORMATO ====================
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void summaryHeader(StringBuilder sb, String name, String help) {
+        header(sb, name, "summary", help + " (quantis desde o início do processo)");
+    }
+
+    /**
+     * Quantis, soma e contagem de um histograma em segundos
+     */
+    private static void summary(StringBuilder sb, String name, String command, LatencyHistogram histogram) {
+        String labels = labels("command", command);
+        for (double quantile : QUANTILES) {
+            sample(sb, name, labels + ",quantile=\"" + quantile + "\"", histogram.getPercentile(quantile * 100) / 1e6);
+        }
+        sample(sb, name + "_sum", labels, histogram.getSum() / 1e6);
+        sample(sb, name + "_count", labels, histogram.getCount());
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name);
+        if (labels != null) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            sb.append((long) value);
+        } else {
+            sb.append(value);
+        }
+        sb.append('\n');
+    }
+
+    private static String labels(String key, String value) {
+        return key + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    private static double millis(long value) {
+        return value < 0 ? -1 : value / 1000.0;
+    }
+}
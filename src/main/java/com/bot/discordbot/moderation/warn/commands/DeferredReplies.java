@@ -0,0 +1,24 @@
+package com.bot.discordbot.moderation.warn.commands;
+
+import net.dv8tion.jda.api.interactions.InteractionHook;
+
+/**
+ * Respostas para comandos que usam deferReply() e completam pelo hook
+ */
+final class DeferredReplies {
+
+    private DeferredReplies() {
+    }
+
+    /**
+     * Resposta privada depois de um deferReply público.
+     * O primeiro follow-up herdaria a visibilidade do defer, então remove o "pensando..." antes
+     * e envia a mensagem como follow-up efêmero.
+     */
+    static void ephemeral(InteractionHook hook, String message) {
+        hook.deleteOriginal().queue(
+                deleted -> hook.sendMessage(message).setEphemeral(true).queue(),
+                error -> hook.sendMessage(message).setEphemeral(true).queue()
+        );
+    }
+}
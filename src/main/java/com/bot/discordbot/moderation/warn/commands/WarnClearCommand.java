@@ -1,16 +1,33 @@
 package com.bot.discordbot.moderation.warn.commands;
 
-import com.bot.discordbot.moderation.warn.dao.WarnDAO;
+import com.bot.discordbot.commands.CommandHandler;
+import com.bot.discordbot.commands.CommandTimings;
+import com.bot.discordbot.moderation.warn.service.WarnService;
+import com.bot.discordbot.util.BotLogger;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
 
-public class WarnClearCommand extends ListenerAdapter {
+public class WarnClearCommand implements CommandHandler {
 
     @Override
-    public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
-        if (!event.getName().equals("warnclear")) return;
+    public CommandData getCommandData() {
+        return Commands.slash("warnclear", "Remove todos os warns de um usuário")
+                .addOption(OptionType.USER, "user", "Usuário", true)
+                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.BAN_MEMBERS));
+    }
+
+    @Override
+    public boolean requiresDatabase() {
+        return true;
+    }
 
+    @Override
+    public void handle(SlashCommandInteractionEvent event) {
         var optUser = event.getOption("user");
         if (optUser == null) {
             event.reply("Uso: /warnclear user:@user").setEphemeral(true).queue();
@@ -22,8 +39,22 @@ public class WarnClearCommand extends ListenerAdapter {
             return;
         }
 
-        String targetId = optUser.getAsUser().getId();
-        WarnDAO.clearUserWarns(targetId);
-        event.reply("✅ Warns do usuário foram removidos.").queue();
+        long targetId = optUser.getAsUser().getIdLong();
+
+        event.deferReply().queue();
+        InteractionHook hook = event.getHook();
+
+        long dbStart = System.nanoTime();
+        WarnService.clearUserWarnsAsync(targetId).whenComplete((removed, error) -> {
+            CommandTimings.database(event, dbStart);
+            if (error != null) {
+                BotLogger.error("Erro ao limpar warns do usuário " + targetId, error);
+                CommandTimings.error(event, error);
+                DeferredReplies.ephemeral(hook, "❌ Erro ao remover warns. Verifique os logs.");
+                return;
+            }
+            hook.editOriginal("✅ Warns do usuário foram removidos.")
+                    .queue(CommandTimings.responded(event), CommandTimings.failed(event));
+        });
     }
 }
@@ -1,19 +1,37 @@
 package com.bot.discordbot.moderation.warn.commands;
 
+import com.bot.discordbot.commands.CommandHandler;
+import com.bot.discordbot.commands.CommandTimings;
 import com.bot.discordbot.moderation.warn.service.WarnService;
 import com.bot.discordbot.util.BotLogger;
+import com.bot.discordbot.util.CommandMetrics;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
 
-public class WarnCommand extends ListenerAdapter {
+public class WarnCommand implements CommandHandler {
 
     @Override
-    public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
-        if (!event.getName().equals("warn")) return;
+    public CommandData getCommandData() {
+        return Commands.slash("warn", "Aplica um warn a um usuário")
+                .addOption(OptionType.USER, "user", "Usuário a ser advertido", true)
+                .addOption(OptionType.STRING, "motivo", "Motivo do warn", true)
+                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.BAN_MEMBERS));
+    }
 
+    @Override
+    public boolean requiresDatabase() {
+        return true;
+    }
+
+    @Override
+    public void handle(SlashCommandInteractionEvent event) {
         BotLogger.debug("=== INÍCIO ===");
 
         Member moderator = event.getMember();
@@ -35,10 +53,12 @@ public class WarnCommand extends ListenerAdapter {
         User targetUser = optUser.getAsUser();
         String reason = optReason.getAsString();
 
-        BotLogger.debug("Target User ID: " + targetUser.getId());
-        BotLogger.debug("Target User Name: " + targetUser.getName());
-        BotLogger.debug("Moderator: " + moderator.getEffectiveName());
-        BotLogger.debug("Reason: " + reason);
+        if (BotLogger.isDebugEnabled()) {
+            BotLogger.debug("Target User ID: {}", targetUser.getId());
+            BotLogger.debug("Target User Name: {}", targetUser.getName());
+            BotLogger.debug("Moderator: {}", moderator.getEffectiveName());
+            BotLogger.debug("Reason: {}", reason);
+        }
 
         //verifica se o usuário está no servidor
         if (event.getGuild() == null) {
@@ -49,7 +69,7 @@ public class WarnCommand extends ListenerAdapter {
         // tenta buscar o membro
         event.getGuild().retrieveMemberById(targetUser.getId()).queue(
                 target -> {
-                    BotLogger.debug("Membro encontrado no servidor: " + target.getEffectiveName());
+                    BotLogger.debug("Membro encontrado no servidor: {}", target.getEffectiveName());
 
                     if (target.getUser().isBot()) {
                         event.reply("❌ Não é possível aplicar warn em bots.").setEphemeral(true).queue();
@@ -61,7 +81,7 @@ public class WarnCommand extends ListenerAdapter {
                         return;
                     }
 
-                    if (target.getId().equals(moderator.getId())) {
+                    if (target.getIdLong() == moderator.getIdLong()) {
                         event.reply("❌ Você não pode aplicar warn em si mesmo.").setEphemeral(true).queue();
                         return;
                     }
@@ -69,30 +89,37 @@ public class WarnCommand extends ListenerAdapter {
                     // aplica o warn
                     BotLogger.info("Aplicando warn a " + target.getEffectiveName() + " (ID: " + target.getId() + ")");
 
-                    boolean success = WarnService.addWarn(
-                            target.getId(),  // ID do membro do servidor
-                            moderator.getId(),
+                    // o banco responde numa virtual thread; esta callback do JDA retorna na hora
+                    event.deferReply().queue(CommandTimings.acknowledged(event), CommandTimings.failed(event));
+                    InteractionHook hook = event.getHook();
+
+                    long dbStart = System.nanoTime();
+                    WarnService.addWarnAsync(
+                            target.getIdLong(),  // ID do membro do servidor
+                            moderator.getIdLong(),
                             reason,
                             event.getGuild()
-                    );
-
-                    BotLogger.debug("Resultado do addWarn: " + success);
-
-                    if (success) {
-                        // aguarda um pouco para o banco processar
-                        try {
-                            Thread.sleep(100); // 100ms
-                        } catch (InterruptedException e) {
-                            // ignora
+                    ).whenComplete((result, error) -> {
+                        CommandTimings.database(event, dbStart);
+                        if (error != null || !result.isSuccess()) {
+                            if (error != null) {
+                                BotLogger.error("Falha ao aplicar warn", error);
+                                CommandTimings.error(event, error);
+                            } else {
+                                BotLogger.error("Falha ao aplicar warn - addWarn não persistiu");
+                                CommandMetrics.recordError(event.getName(), CommandMetrics.Cause.DATABASE);
+                            }
+                            DeferredReplies.ephemeral(hook, "❌ Erro ao aplicar warn. Verifique os logs.");
+                            return;
                         }
 
-                        // conta warns atuais
-                        int warnCount = WarnService.getActiveWarns(target.getId()).size();
-                        BotLogger.debug("Warns ativos após inserção: " + warnCount);
+                        // o total já vem do RETURNING, sem consulta extra
+                        int warnCount = result.getWarnCount();
+                        BotLogger.debug("Warns ativos após inserção: {}", warnCount);
 
                         String punishment = WarnService.getPunishmentDescription(warnCount);
 
-                        event.reply(String.format(
+                        hook.editOriginal(String.format(
                                 "⚠️ **Warn aplicado com sucesso!**\n\n" +
                                         "👤 Usuário: %s\n" +
                                         "📝 Motivo: `%s`\n" +
@@ -102,20 +129,18 @@ public class WarnCommand extends ListenerAdapter {
                                 reason,
                                 warnCount,
                                 punishment
-                        )).queue();
+                        )).queue(CommandTimings.responded(event), CommandTimings.failed(event));
 
                         BotLogger.success("Warn aplicado e feedback enviado!");
-                    } else {
-                        event.reply("❌ Erro ao aplicar warn. Verifique os logs.").setEphemeral(true).queue();
-                        BotLogger.error("Falha ao aplicar warn - addWarn retornou false");
-                    }
+                    });
 
                     BotLogger.debug("=== FIM WarnCommand ===");
                 },
                 error -> {
                     BotLogger.error("Erro ao buscar membro: " + error.getMessage());
+                    CommandMetrics.recordError(event.getName(), CommandMetrics.Cause.DISCORD);
                     event.reply("❌ Usuário não encontrado no servidor. Ele pode ter saído.").setEphemeral(true).queue();
                 }
         );
     }
-}
\ No newline at end of file
+}
@@ -1,23 +1,49 @@
 package com.bot.discordbot.moderation.warn.commands;
 
-import com.bot.discordbot.moderation.warn.dao.WarnDAO;
+import com.bot.discordbot.commands.CommandHandler;
+import com.bot.discordbot.commands.CommandTimings;
 import com.bot.discordbot.moderation.warn.model.Warn;
+import com.bot.discordbot.moderation.warn.model.WarnPage;
+import com.bot.discordbot.moderation.warn.service.WarnService;
 import com.bot.discordbot.util.BotLogger;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
 
 import java.util.List;
 
-public class WarnStatusCommand extends ListenerAdapter {
+/**
+ * /warnstatus: warns ativos (ou o histórico) em páginas de {@link WarnService#WARN_PAGE_SIZE},
+ * com botões que editam a própria mensagem
+ */
+public class WarnStatusCommand implements CommandHandler {
+
+    private static final int REASON_PREVIEW_LENGTH = 80;
 
     @Override
-    public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
-        if (!event.getName().equals("warnstatus")) return;
+    public CommandData getCommandData() {
+        return Commands.slash("warnstatus", "Mostra seus warns (staff pode ver de outros)")
+                .addOption(OptionType.USER, "user", "Usuário a consultar (somente staff)", false)
+                .addOption(OptionType.BOOLEAN, "historico", "Incluir warns já expirados", false);
+    }
+
+    @Override
+    public boolean requiresDatabase() {
+        return true;
+    }
 
+    @Override
+    public void handle(SlashCommandInteractionEvent event) {
         BotLogger.debug("=== INÍCIO warnstatus ===");
-        BotLogger.commandExecuted("warnstatus", event.getUser().getId(), event.getUser().getName());
+        BotLogger.commandExecuted("warnstatus", event.getUser().getId(), event.getUser().getName(),
+                event.getGuild() != null ? event.getGuild().getId() : null, -1);
 
         // funciona em guild
         if (event.getGuild() == null) {
@@ -54,52 +80,165 @@ public class WarnStatusCommand extends ListenerAdapter {
             target = requester;
         }
 
-        String targetUserId = target.getId();
-        BotLogger.debug("Consultando warns para userId: " + targetUserId);
+        long targetUserId = target.getIdLong();
+        boolean history = event.getOption("historico", false, option -> option.getAsBoolean());
+        BotLogger.debug("Consultando warns para userId: {} (histórico: {})", targetUserId, history);
+
+        // resposta sempre privada; a consulta roda fora da thread do JDA
+        event.deferReply(true).queue();
+        long dbStart = System.nanoTime();
+        WarnService.getWarnPageAsync(targetUserId, !history, null).whenComplete((page, error) -> {
+            CommandTimings.database(event, dbStart);
+            if (error != null) {
+                BotLogger.error("Erro ao consultar warns de " + targetUserId, error);
+                CommandTimings.error(event, error);
+                event.getHook().editOriginal("❌ Erro ao consultar warns. Verifique os logs.").queue();
+                return;
+            }
+            sendStatus(event, requester, target, history, page);
+        });
+    }
 
-        // Debug: contar warns primeiro
-        int count = WarnDAO.countActiveWarns(targetUserId);
-        BotLogger.debug("countActiveWarns retornou: " + count);
+    /**
+     * Próxima/anterior: relê só a página pedida e edita a mesma mensagem
+     */
+    @Override
+    public void handleButton(ButtonInteractionEvent event) {
+        // warnstatus:<a|h>:<userId>:<página>:<o|n>:<timestamp>:<id>
+        String[] parts = event.getComponentId().split(":");
+        boolean history;
+        long targetUserId;
+        int pageNumber;
+        WarnPage.Cursor cursor;
+        try {
+            if (parts.length != 7) {
+                throw new IllegalArgumentException("esperadas 7 partes");
+            }
+            history = parts[1].equals("h");
+            targetUserId = Long.parseLong(parts[2]);
+            pageNumber = Integer.parseInt(parts[3]);
+            cursor = WarnPage.Cursor.of(Long.parseLong(parts[5]), Integer.parseInt(parts[6]), parts[4].equals("o"));
+        } catch (IllegalArgumentException e) {
+            // toda interação precisa de resposta, senão o Discord mostra "a interação falhou"
+            BotLogger.warn("Botão do warnstatus com id inválido: " + event.getComponentId());
+            event.reply("❌ Botão inválido. Use /warnstatus de novo.").setEphemeral(true).queue();
+            return;
+        }
 
-        // buscar warns ativos
-        List<Warn> active = WarnDAO.getActiveWarns(targetUserId);
-        BotLogger.debug("getActiveWarns retornou: " + active.size() + " warns");
+        // a mensagem é efêmera, mas o botão carrega o alvo: confere de novo quem clicou
+        Member requester = event.getMember();
+        boolean isStaff = requester != null && requester.hasPermission(Permission.BAN_MEMBERS);
+        if (!isStaff && event.getUser().getIdLong() != targetUserId) {
+            event.reply("❌ Apenas a equipe pode ver os warns de outros membros.").setEphemeral(true).queue();
+            return;
+        }
+
+        event.deferEdit().queue();
+        WarnService.getWarnPageAsync(targetUserId, !history, cursor).whenComplete((page, error) -> {
+            if (error != null) {
+                BotLogger.error("Erro ao consultar warns de " + targetUserId, error);
+                event.getHook().editOriginal("❌ Erro ao consultar warns. Verifique os logs.").setComponents().queue();
+                return;
+            }
+            // sem página anterior = voltou para a primeira (ex: warns removidos no meio da navegação)
+            int number = page.hasNewer() ? pageNumber : 1;
+            event.getHook().editOriginal(formatPage(targetUserId, history, number, page))
+                    .setComponents(navigation(targetUserId, history, number, page))
+                    .queue(null, failure -> BotLogger.warn("Falha ao editar página de warns: " + failure.getMessage()));
+        });
+    }
+
+    /**
+     * Monta e envia a primeira página
+     */
+    private void sendStatus(SlashCommandInteractionEvent event, Member requester, Member target,
+                            boolean history, WarnPage page) {
+        BotLogger.debug("getWarnPage retornou: {} de {} warns", page.getWarns().size(), page.getTotal());
 
         // Debug adicional: mostrar cada warn
-        for (int i = 0; i < active.size(); i++) {
-            Warn w = active.get(i);
-            BotLogger.debug(String.format("Warn %d: id=%d, expires=%d, now=%d, isActive=%b",
-                    i + 1, w.getId(), w.getExpiresAt(), System.currentTimeMillis(), w.isActive()));
+        if (BotLogger.isDebugEnabled()) {
+            long now = System.currentTimeMillis();
+            List<Warn> warns = page.getWarns();
+            for (int i = 0; i < warns.size(); i++) {
+                Warn w = warns.get(i);
+                BotLogger.debug(String.format("Warn %d: id=%d, expires=%d, now=%d, isActive=%b",
+                        i + 1, w.getId(), w.getExpiresAt(), now, w.isActive()));
+            }
         }
 
-        if (active.isEmpty()) {
+        if (page.isEmpty()) {
+            String what = history ? "warns" : "warns ativos";
             String msg = requester.getId().equals(target.getId())
-                    ? "⭐ Você não possui warns ativos."
-                    : "⭐ " + target.getEffectiveName() + " não possui warns ativos.";
+                    ? "⭐ Você não possui " + what + "."
+                    : "⭐ " + target.getEffectiveName() + " não possui " + what + ".";
 
-            BotLogger.debug("Nenhum warn ativo encontrado");
-            event.reply(msg).setEphemeral(true).queue();
+            BotLogger.debug("Nenhum warn encontrado");
+            event.getHook().editOriginal(msg).queue(CommandTimings.responded(event), CommandTimings.failed(event));
             return;
         }
 
-        // montar resposta
-        StringBuilder sb = new StringBuilder();
-        sb.append("⚠️ **Warns ativos de ").append(target.getEffectiveName())
-                .append("** (").append(active.size()).append(")\n\n");
+        BotLogger.debug("Enviando página com {} warns", page.getWarns().size());
+        BotLogger.debug("=== FIM warnstatus ===");
 
-        for (int i = 0; i < active.size(); i++) {
-            Warn w = active.get(i);
-            sb.append("**").append(i + 1).append(".** ");
+        event.getHook().editOriginal(formatPage(target.getIdLong(), history, 1, page))
+                .setComponents(navigation(target.getIdLong(), history, 1, page))
+                .queue(CommandTimings.responded(event), CommandTimings.failed(event));
+    }
+
+    private static String formatPage(long targetUserId, boolean history, int pageNumber, WarnPage page) {
+        int pages = Math.max(1, (page.getTotal() + WarnService.WARN_PAGE_SIZE - 1) / WarnService.WARN_PAGE_SIZE);
+        long now = System.currentTimeMillis();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(history ? "📜 **Histórico de warns de " : "⚠️ **Warns ativos de ")
+                .append("<@").append(targetUserId).append(">** (").append(page.getTotal()).append(")\n\n");
+
+        List<Warn> warns = page.getWarns();
+        int first = (pageNumber - 1) * WarnService.WARN_PAGE_SIZE;
+        for (int i = 0; i < warns.size(); i++) {
+            Warn w = warns.get(i);
+            sb.append("**").append(first + i + 1).append(".** ");
             sb.append("ID: `").append(w.getId()).append("`");
-            sb.append(" | Por: ").append(w.getModeratorId() == null ? "Sistema" : "<@" + w.getModeratorId() + ">");
-            sb.append("\n   Motivo: `").append(w.getReason()).append("`");
-            sb.append("\n   Expira: <t:").append(w.getExpiresAt() / 1000).append(":R>");
+            sb.append(" | Por: ").append(w.getModeratorId() == 0 ? "Sistema" : "<@" + w.getModeratorId() + ">");
+            sb.append("\n   Motivo: `").append(preview(w.getReason())).append("`");
+            sb.append(w.getExpiresAt() > now ? "\n   Expira: <t:" : "\n   Expirou: <t:")
+                    .append(w.getExpiresAt() / 1000).append(":R>");
             sb.append("\n");
         }
 
-        BotLogger.debug("Enviando resposta com " + active.size() + " warns");
-        BotLogger.debug("=== FIM warnstatus ===");
+        if (pages > 1) {
+            sb.append("\nPágina ").append(Math.min(pageNumber, pages)).append(" de ").append(pages);
+        }
+        return sb.length() <= Message.MAX_CONTENT_LENGTH ? sb.toString() : sb.substring(0, Message.MAX_CONTENT_LENGTH);
+    }
+
+    /**
+     * Botões anterior/próxima; o estado da navegação (alvo, página, cursor) vai no próprio custom id
+     */
+    private static List<ActionRow> navigation(long targetUserId, boolean history, int pageNumber, WarnPage page) {
+        if (page.isEmpty() || (!page.hasNewer() && !page.hasOlder())) {
+            return List.of();
+        }
 
-        event.reply(sb.toString()).setEphemeral(true).queue();
+        String prefix = "warnstatus:" + (history ? "h" : "a") + ":" + targetUserId + ":";
+        List<Warn> warns = page.getWarns();
+        Warn newest = warns.get(0);
+        Warn oldest = warns.get(warns.size() - 1);
+
+        Button previous = Button.secondary(prefix + (pageNumber - 1) + ":n:" + newest.getTimestamp() + ":" + newest.getId(),
+                "◀ Anterior").withDisabled(!page.hasNewer());
+        Button next = Button.secondary(prefix + (pageNumber + 1) + ":o:" + oldest.getTimestamp() + ":" + oldest.getId(),
+                "Próxima ▶").withDisabled(!page.hasOlder());
+        return List.of(ActionRow.of(previous, next));
+    }
+
+    /**
+     * Motivo encurtado: 10 warns com motivos de até 500 caracteres não cabem numa mensagem
+     */
+    private static String preview(String reason) {
+        if (reason == null) {
+            return "";
+        }
+        return reason.length() <= REASON_PREVIEW_LENGTH ? reason : reason.substring(0, REASON_PREVIEW_LENGTH - 1) + "…";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,895 @@
+package com.bot.discordbot.moderation.warn.dao;
+
+import com.bot.discordbot.moderation.warn.model.Warn;
+import com.bot.discordbot.moderation.warn.model.WarnPage;
+import com.bot.discordbot.moderation.warn.model.WarnResult;
+import com.bot.discordbot.util.BotLogger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * {@link WarnRepository} em arquivos locais, para instâncias pequenas que não rodam PostgreSQL.
+ *
+ * Log só de acréscimo em segmentos warns-NNNNNN.rec de registros com largura fixa, mapeados em memória
+ * (o slot 0 é o cabeçalho). O motivo fica no warns-NNNNNN.txt do mesmo segmento e o registro guarda
+ * offset e tamanho. Remoções gravam um registro de exclusão com o ID do warn. Em memória ficam só as
+ * posições dos registros por usuário; moderador e motivo são lidos do disco quando o warn é montado.
+ *
+ * <ul>
+ *   <li>fsync em lote a cada {@code syncIntervalMs}: um crash do processo não perde nada (o mapeamento
+ *       já está no cache do SO); uma queda da máquina perde no máximo esse intervalo</li>
+ *   <li>compactação: no purge, segmentos fechados em que todos os warns expiraram são apagados inteiros,
+ *       sem gravar exclusões</li>
+ *   <li>recuperação: ao abrir, os segmentos são relidos em ordem; no último, o primeiro registro com CRC
+ *       inválido marca o fim de uma escrita interrompida e o restante é descartado</li>
+ * </ul>
+ */
+public class FileWarnRepository implements WarnRepository {
+
+    // ==================== FORMATO ====================
+
+    private static final long MAGIC = 0x5741524E4C4F4731L;     // "WARNLOG1"
+    private static final int VERSION = 1;
+
+    private static final int RECORD_SIZE = 56;
+    private static final int SEGMENT_RECORDS = 16384;          // ~900 KB por segmento
+    private static final long SEGMENT_BYTES = (long) RECORD_SIZE * SEGMENT_RECORDS;
+
+    private static final int TYPE_WARN = 1;
+    private static final int TYPE_DELETE = 2;
+
+    // registro: type | id | user | moderator | timestamp | expires_at | reason offset | reason length | crc
+    private static final int OFF_TYPE = 0;
+    private static final int OFF_ID = 4;
+    private static final int OFF_USER = 8;
+    private static final int OFF_MODERATOR = 16;
+    private static final int OFF_TIMESTAMP = 24;
+    private static final int OFF_EXPIRES = 32;
+    private static final int OFF_REASON_OFFSET = 40;
+    private static final int OFF_REASON_LENGTH = 48;
+    private static final int OFF_CRC = 52;
+
+    // cabeçalho: magic | version | número do segmento | próximo ID na criação | ... | crc
+    private static final int OFF_HEADER_VERSION = 8;
+    private static final int OFF_HEADER_SEGMENT = 12;
+    private static final int OFF_HEADER_NEXT_ID = 16;
+
+    private static final Comparator<Entry> BY_TIMESTAMP =
+            Comparator.comparingLong((Entry e) -> e.timestamp).thenComparingInt(e -> e.id);
+
+    /**
+     * Posição de um warn no log
+     */
+    private static final class Entry {
+        final int id;
+        final long userId;
+        final long timestamp;
+        final long expiresAt;
+        final Segment segment;
+        final int slot;
+
+        Entry(int id, long userId, long timestamp, long expiresAt, Segment segment, int slot) {
+            this.id = id;
+            this.userId = userId;
+            this.timestamp = timestamp;
+            this.expiresAt = expiresAt;
+            this.segment = segment;
+            this.slot = slot;
+        }
+    }
+
+    private static final class Segment {
+        final int number;
+        final Path recordsPath;
+        final Path reasonsPath;
+        final FileChannel recordsChannel;
+        final FileChannel reasonsChannel;
+        final MappedByteBuffer records;
+
+        int nextSlot = 1;
+        long reasonsEnd;
+        int live;                 // warns deste segmento ainda no índice
+        long maxExpiresAt;        // de todos os warns já gravados aqui, removidos ou não
+        // segmentos mais antigos com warns removidos por exclusões gravadas aqui: enquanto existirem,
+        // este segmento não pode sumir, senão os warns voltariam na próxima leitura
+        final Set<Integer> deletesFrom = new HashSet<>();
+
+        Segment(int number, Path recordsPath, Path reasonsPath,
+                FileChannel recordsChannel, FileChannel reasonsChannel, MappedByteBuffer records) {
+            this.number = number;
+            this.recordsPath = recordsPath;
+            this.reasonsPath = reasonsPath;
+            this.recordsChannel = recordsChannel;
+            this.reasonsChannel = reasonsChannel;
+            this.records = records;
+        }
+
+        boolean isFull() {
+            return nextSlot >= SEGMENT_RECORDS;
+        }
+    }
+
+    private final Path directory;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService syncScheduler;
+
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final Map<Long, List<Entry>> byUser = new HashMap<>();
+    private final Map<Integer, Entry> byId = new HashMap<>();
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_SIZE);
+
+    private Segment active;
+    private int nextId = 1;
+    private boolean dirty;
+    private boolean closed;         // depois do close() toda escrita falha, em vez de ir para canais fechados
+
+    private FileWarnRepository(Path directory, int syncIntervalMs) {
+        this.directory = directory;
+        this.syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "WarnFileSync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(10, syncIntervalMs);
+        syncScheduler.scheduleWithFixedDelay(this::sync, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre (ou cria) o log em {@code directory} e carrega o índice
+     * @throws IOException se um segmento existente estiver ilegível; nada é descartado nesse caso
+     */
+    public static FileWarnRepository open(Path directory, int syncIntervalMs) throws IOException {
+        Files.createDirectories(directory);
+        FileWarnRepository repository = new FileWarnRepository(directory, syncIntervalMs);
+        repository.lock.writeLock().lock();
+        try {
+            repository.load();
+        } catch (IOException | RuntimeException e) {
+            repository.lock.writeLock().unlock();
+            repository.close();
+            throw e;
+        }
+        repository.lock.writeLock().unlock();
+        return repository;
+    }
+
+    @Override
+    public String getName() {
+        return "arquivo (" + directory + ")";
+    }
+
+    // ==================== CREATE ====================
+
+    @Override
+    public boolean addWarn(long userId, long moderatorId, String reason, long timestamp, long expiresAt) {
+        if (userId <= 0) {
+            BotLogger.error("Tentativa de adicionar warn com userId inválido");
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            appendWarn(userId, moderatorId, reason, timestamp, expiresAt);
+            return true;
+        } catch (IOException e) {
+            BotLogger.error("Erro ao adicionar warn", e);
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public WarnResult applyWarn(long userId, long moderatorId, String reason,
+                                long timestamp, long[] expirationTiers) {
+        if (userId <= 0) {
+            BotLogger.error("Tentativa de aplicar warn com userId inválido");
+            return WarnResult.failed();
+        }
+
+        lock.writeLock().lock();
+        try {
+            int newCount = countActive(byUser.get(userId), timestamp) + 1;
+            long expiresAt = timestamp + expirationTiers[Math.min(newCount, expirationTiers.length) - 1];
+            Entry entry = appendWarn(userId, moderatorId, reason, timestamp, expiresAt);
+            return WarnResult.applied(entry.id, newCount, expiresAt);
+        } catch (IOException e) {
+            BotLogger.error("Erro ao aplicar warn", e);
+            return WarnResult.failed();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== READ ====================
+
+    @Override
+    public int countActiveWarns(long userId) {
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em countActiveWarns");
+            return 0;
+        }
+
+        lock.readLock().lock();
+        try {
+            return countActive(byUser.get(userId), System.currentTimeMillis());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Warn> getActiveWarns(long userId) {
+        List<Warn> warns = new ArrayList<>();
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em getActiveWarns");
+            return warns;
+        }
+
+        long now = System.currentTimeMillis();
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>();
+            for (Entry entry : byUser.getOrDefault(userId, List.of())) {
+                if (entry.expiresAt > now) {
+                    entries.add(entry);
+                }
+            }
+            entries.sort(BY_TIMESTAMP);
+            for (Entry entry : entries) {
+                warns.add(toWarn(entry));
+            }
+        } catch (IOException e) {
+            BotLogger.error("Erro ao buscar warns ativos", e);
+            warns.clear();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return warns;
+    }
+
+    @Override
+    public WarnPage getWarnPage(long userId, boolean activeOnly, WarnPage.Cursor cursor, int pageSize) {
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em getWarnPage");
+            return WarnPage.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        lock.readLock().lock();
+        try {
+            int total = 0;
+            List<Entry> entries = new ArrayList<>();
+            for (Entry entry : byUser.getOrDefault(userId, List.of())) {
+                if (activeOnly && entry.expiresAt <= now) {
+                    continue;
+                }
+                total++;
+                if (cursor == null || cursor.accepts(entry.timestamp, entry.id)) {
+                    entries.add(entry);
+                }
+            }
+            entries.sort(cursor == null || cursor.isOlder() ? BY_TIMESTAMP.reversed() : BY_TIMESTAMP);
+
+            // só os motivos da página (e da linha a mais) são lidos do disco
+            List<Warn> rows = new ArrayList<>();
+            for (Entry entry : entries.subList(0, Math.min(entries.size(), pageSize + 1))) {
+                rows.add(toWarn(entry));
+            }
+            return WarnPage.of(rows, total, cursor, pageSize);
+
+        } catch (IOException e) {
+            BotLogger.error("Erro ao buscar página de warns", e);
+            return WarnPage.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Warn> getWarnById(int id) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byId.get(id);
+            return entry != null ? Optional.of(toWarn(entry)) : Optional.empty();
+        } catch (IOException e) {
+            BotLogger.error("Erro ao buscar warn por ID " + id, e);
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== DELETE ====================
+
+    @Override
+    public boolean removeWarnById(int id) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = byId.get(id);
+            if (entry == null) {
+                BotLogger.warn("Warn ID " + id + " não foi encontrado para remoção");
+                return false;
+            }
+            appendDelete(entry);
+            return true;
+        } catch (IOException e) {
+            BotLogger.error("Erro ao remover warn por ID", e);
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int clearUserWarns(long userId) {
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em clearUserWarns");
+            return 0;
+        }
+
+        lock.writeLock().lock();
+        int removed = 0;
+        try {
+            for (Entry entry : new ArrayList<>(byUser.getOrDefault(userId, List.of()))) {
+                appendDelete(entry);
+                removed++;
+            }
+        } catch (IOException e) {
+            BotLogger.error("Erro ao limpar warns do usuário", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return removed;
+    }
+
+    /**
+     * Apaga primeiro os segmentos fechados que só têm warns expirados (sem gravar nada; pode passar
+     * de {@code limit}, já que é um arquivo só) e grava exclusões para os expirados que sobrarem
+     */
+    @Override
+    public int purgeExpiredChunk(long cutoff, int limit) {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            int removed = compact(cutoff);
+
+            List<Entry> expired = new ArrayList<>();
+            for (Entry entry : byId.values()) {
+                if (removed + expired.size() >= limit) {
+                    break;
+                }
+                if (entry.expiresAt <= cutoff) {
+                    expired.add(entry);
+                }
+            }
+            for (Entry entry : expired) {
+                appendDelete(entry);
+                removed++;
+            }
+            return removed;
+
+        } catch (IOException e) {
+            BotLogger.error("Erro ao purgar warns expirados", e);
+            return -1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grava em disco o que estiver pendente e libera os arquivos
+     */
+    @Override
+    public void close() {
+        // sem shutdownNow: interromper um force() fecharia o FileChannel no meio (ClosedByInterruptException)
+        syncScheduler.shutdown();
+        try {
+            if (!syncScheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                BotLogger.warn("fsync dos warns ainda em andamento no fechamento");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Segment segment : segments.values()) {
+                try {
+                    if (segment == active) {
+                        force(segment);
+                    }
+                    segment.recordsChannel.close();
+                    segment.reasonsChannel.close();
+                } catch (IOException e) {
+                    BotLogger.error("Erro ao fechar segmento de warns " + segment.recordsPath.getFileName(), e);
+                }
+            }
+            dirty = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== ESCRITA ====================
+
+    /**
+     * Chamar com a trava de escrita
+     */
+    private Entry appendWarn(long userId, long moderatorId, String reason,
+                             long timestamp, long expiresAt) throws IOException {
+        Segment segment = writableSegment();
+        int id = nextId;
+        int slot = append(segment, TYPE_WARN, id, userId, Math.max(0, moderatorId), timestamp, expiresAt, reason);
+        nextId++;
+
+        Entry entry = new Entry(id, userId, timestamp, expiresAt, segment, slot);
+        index(entry);
+        return entry;
+    }
+
+    /**
+     * Chamar com a trava de escrita
+     */
+    private void appendDelete(Entry entry) throws IOException {
+        Segment segment = writableSegment();
+        append(segment, TYPE_DELETE, entry.id, entry.userId, 0, 0, 0, null);
+        unindex(entry, segment);
+    }
+
+    private int append(Segment segment, int type, int id, long userId, long moderatorId,
+                       long timestamp, long expiresAt, String reason) throws IOException {
+        ensureOpen();
+        byte[] reasonBytes = reason != null ? reason.getBytes(StandardCharsets.UTF_8) : null;
+        long reasonOffset = segment.reasonsEnd;
+
+        // motivo primeiro: um registro válido sempre aponta para bytes já escritos
+        if (reasonBytes != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(reasonBytes);
+            while (buffer.hasRemaining()) {
+                segment.reasonsChannel.write(buffer, reasonOffset + buffer.position());
+            }
+        }
+
+        ByteBuffer record = scratch.clear();
+        record.putInt(OFF_TYPE, type)
+                .putInt(OFF_ID, id)
+                .putLong(OFF_USER, userId)
+                .putLong(OFF_MODERATOR, moderatorId)
+                .putLong(OFF_TIMESTAMP, timestamp)
+                .putLong(OFF_EXPIRES, expiresAt)
+                .putLong(OFF_REASON_OFFSET, reasonOffset)
+                .putInt(OFF_REASON_LENGTH, reasonBytes != null ? reasonBytes.length : -1)
+                .putInt(OFF_CRC, checksum(record.array(), reasonBytes));
+
+        int slot = segment.nextSlot;
+        segment.records.put(slot * RECORD_SIZE, record.array());
+        segment.nextSlot++;
+        if (reasonBytes != null) {
+            segment.reasonsEnd += reasonBytes.length;
+        }
+        if (type == TYPE_WARN) {
+            segment.maxExpiresAt = Math.max(segment.maxExpiresAt, expiresAt);
+        }
+        dirty = true;
+        return slot;
+    }
+
+    /**
+     * Chamar com a trava de escrita
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Log de warns já foi fechado");
+        }
+    }
+
+    /**
+     * Segmento atual, ou um novo se ele estiver cheio
+     */
+    private Segment writableSegment() throws IOException {
+        ensureOpen();
+        if (!active.isFull()) {
+            return active;
+        }
+
+        force(active);
+        active = createSegment(active.number + 1);
+        BotLogger.debug("Novo segmento de warns: {}", active.recordsPath.getFileName());
+        return active;
+    }
+
+    private void sync() {
+        Segment segment;
+        lock.writeLock().lock();
+        try {
+            if (!dirty || closed) {
+                return;
+            }
+            segment = active;
+            dirty = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            force(segment);
+        } catch (IOException e) {
+            BotLogger.error("Erro no fsync dos warns", e);
+            lock.writeLock().lock();
+            dirty = true;
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Motivos antes dos registros, pela mesma razão da ordem de escrita
+     */
+    private static void force(Segment segment) throws IOException {
+        segment.reasonsChannel.force(false);
+        segment.records.force();
+    }
+
+    // ==================== ÍNDICE ====================
+
+    private void index(Entry entry) {
+        byUser.computeIfAbsent(entry.userId, id -> new ArrayList<>()).add(entry);
+        byId.put(entry.id, entry);
+        entry.segment.live++;
+    }
+
+    /**
+     * @param deletedBy segmento onde a exclusão foi gravada
+     */
+    private void unindex(Entry entry, Segment deletedBy) {
+        byId.remove(entry.id);
+        List<Entry> entries = byUser.get(entry.userId);
+        if (entries != null) {
+            entries.remove(entry);
+            if (entries.isEmpty()) {
+                byUser.remove(entry.userId);
+            }
+        }
+        entry.segment.live--;
+        if (deletedBy != null && deletedBy != entry.segment) {
+            deletedBy.deletesFrom.add(entry.segment.number);
+        }
+    }
+
+    private static int countActive(List<Entry> entries, long now) {
+        if (entries == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Entry entry : entries) {
+            if (entry.expiresAt > now) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Warn toWarn(Entry entry) throws IOException {
+        MappedByteBuffer records = entry.segment.records;
+        int position = entry.slot * RECORD_SIZE;
+        String reason = readReason(entry.segment,
+                records.getLong(position + OFF_REASON_OFFSET),
+                records.getInt(position + OFF_REASON_LENGTH));
+
+        return new Warn(entry.id, entry.userId, records.getLong(position + OFF_MODERATOR),
+                reason, entry.timestamp, entry.expiresAt);
+    }
+
+    private static String readReason(Segment segment, long offset, int length) throws IOException {
+        byte[] bytes = readReasonBytes(segment, offset, length);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] readReasonBytes(Segment segment, long offset, int length) throws IOException {
+        if (length < 0) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (segment.reasonsChannel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Motivo fora do arquivo " + segment.reasonsPath.getFileName());
+            }
+        }
+        return buffer.array();
+    }
+
+    // ==================== COMPACTAÇÃO ====================
+
+    /**
+     * Apaga os segmentos fechados sem warns ativos; do mais antigo para o mais novo, então
+     * as dependências criadas pelas exclusões se resolvem na mesma passada
+     * @return warns removidos do índice
+     */
+    private int compact(long cutoff) throws IOException {
+        int removed = 0;
+
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment == active || (segment.live > 0 && segment.maxExpiresAt > cutoff)) {
+                continue;
+            }
+            if (dependsOnLiveSegment(segment)) {
+                continue;
+            }
+
+            if (segment.live > 0) {
+                for (Entry entry : new ArrayList<>(byId.values())) {
+                    if (entry.segment == segment) {
+                        unindex(entry, null);
+                        removed++;
+                    }
+                }
+            }
+
+            segments.remove(segment.number);
+            segment.recordsChannel.close();
+            segment.reasonsChannel.close();
+            Files.deleteIfExists(segment.recordsPath);
+            Files.deleteIfExists(segment.reasonsPath);
+            BotLogger.debug("Segmento de warns {} compactado", segment.recordsPath.getFileName());
+        }
+
+        return removed;
+    }
+
+    private boolean dependsOnLiveSegment(Segment segment) {
+        for (int number : segment.deletesFrom) {
+            if (segments.containsKey(number)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==================== ABERTURA E RECUPERAÇÃO ====================
+
+    private void load() throws IOException {
+        TreeMap<Integer, Path> found = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "warns-*.rec")) {
+            for (Path file : files) {
+                found.put(segmentNumber(file), file);
+            }
+        }
+
+        // motivos de um segmento que a compactação não terminou de apagar
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "warns-*.txt")) {
+            for (Path file : files) {
+                if (!found.containsKey(segmentNumber(file))) {
+                    Files.delete(file);
+                }
+            }
+        }
+
+        int discarded = 0;
+        for (int number : found.keySet()) {
+            boolean last = number == found.lastKey();
+            Segment segment = openSegment(number, last);
+            if (segment == null) {
+                continue;
+            }
+            segments.put(number, segment);
+            discarded += replay(segment, last);
+        }
+
+        if (segments.isEmpty()) {
+            active = createSegment(1);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+
+        BotLogger.info(String.format("Warns em arquivo: %d warns de %d usuários em %d segmento(s) (%s)",
+                byId.size(), byUser.size(), segments.size(), directory));
+        if (discarded > 0) {
+            BotLogger.warn(discarded + " registro(s) de warn incompletos descartados na recuperação");
+        }
+    }
+
+    private Segment createSegment(int number) throws IOException {
+        Path recordsPath = recordsPath(number);
+        Path reasonsPath = reasonsPath(number);
+
+        FileChannel recordsChannel = FileChannel.open(recordsPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel reasonsChannel = FileChannel.open(reasonsPath,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer records = recordsChannel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+
+        Arrays.fill(scratch.array(), (byte) 0);
+        ByteBuffer header = scratch.clear();
+        header.putLong(0, MAGIC)
+                .putInt(OFF_HEADER_VERSION, VERSION)
+                .putInt(OFF_HEADER_SEGMENT, number)
+                .putInt(OFF_HEADER_NEXT_ID, nextId)
+                .putInt(OFF_CRC, checksum(header.array(), null));
+        records.put(0, header.array());
+        records.force();
+
+        Segment segment = new Segment(number, recordsPath, reasonsPath, recordsChannel, reasonsChannel, records);
+        segments.put(number, segment);
+        return segment;
+    }
+
+    /**
+     * @return null se for o último segmento e o cabeçalho ainda não tiver sido escrito
+     *         (crash durante a criação); os arquivos são apagados
+     */
+    private Segment openSegment(int number, boolean last) throws IOException {
+        Path recordsPath = recordsPath(number);
+        Path reasonsPath = reasonsPath(number);
+
+        FileChannel recordsChannel = FileChannel.open(recordsPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel reasonsChannel;
+        try {
+            reasonsChannel = FileChannel.open(reasonsPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            recordsChannel.close();
+            throw e;
+        }
+
+        MappedByteBuffer records = recordsChannel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+        byte[] header = new byte[RECORD_SIZE];
+        records.get(0, header);
+        ByteBuffer view = ByteBuffer.wrap(header);
+
+        if (last && view.getLong(0) == 0 && records.getInt(RECORD_SIZE + OFF_TYPE) == 0) {
+            recordsChannel.close();
+            reasonsChannel.close();
+            Files.delete(recordsPath);
+            Files.deleteIfExists(reasonsPath);
+            return null;
+        }
+        if (view.getLong(0) != MAGIC
+                || view.getInt(OFF_CRC) != checksum(header, null)
+                || view.getInt(OFF_HEADER_SEGMENT) != number) {
+            recordsChannel.close();
+            reasonsChannel.close();
+            throw new IOException("Cabeçalho inválido em " + recordsPath);
+        }
+        if (view.getInt(OFF_HEADER_VERSION) != VERSION) {
+            recordsChannel.close();
+            reasonsChannel.close();
+            throw new IOException("Versão " + view.getInt(OFF_HEADER_VERSION) + " não suportada em " + recordsPath);
+        }
+
+        nextId = Math.max(nextId, view.getInt(OFF_HEADER_NEXT_ID));
+        return new Segment(number, recordsPath, reasonsPath, recordsChannel, reasonsChannel, records);
+    }
+
+    /**
+     * Relê os registros do segmento e aplica ao índice
+     * @param last no último segmento, um registro inválido é o fim de uma escrita interrompida:
+     *             ele e o que vier depois são zerados
+     * @return registros descartados
+     */
+    private int replay(Segment segment, boolean last) throws IOException {
+        byte[] record = new byte[RECORD_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(record);
+        long reasonsSize = segment.reasonsChannel.size();
+        int discarded = 0;
+
+        int slot = 1;
+        for (; slot < SEGMENT_RECORDS; slot++) {
+            segment.records.get(slot * RECORD_SIZE, record);
+            int type = view.getInt(OFF_TYPE);
+            if (type == 0) {
+                break;
+            }
+
+            long reasonOffset = view.getLong(OFF_REASON_OFFSET);
+            int reasonLength = view.getInt(OFF_REASON_LENGTH);
+            boolean valid = (type == TYPE_WARN || type == TYPE_DELETE)
+                    && reasonOffset >= 0 && reasonOffset + Math.max(0, reasonLength) <= reasonsSize
+                    && view.getInt(OFF_CRC) == checksum(record, readReasonBytes(segment, reasonOffset, reasonLength));
+
+            if (!valid) {
+                discarded++;
+                if (last) {
+                    break;
+                }
+                BotLogger.warn("Registro de warn corrompido ignorado: " + segment.recordsPath.getFileName()
+                        + " slot " + slot);
+                continue;
+            }
+
+            int id = view.getInt(OFF_ID);
+            if (type == TYPE_WARN) {
+                index(new Entry(id, view.getLong(OFF_USER), view.getLong(OFF_TIMESTAMP),
+                        view.getLong(OFF_EXPIRES), segment, slot));
+                segment.maxExpiresAt = Math.max(segment.maxExpiresAt, view.getLong(OFF_EXPIRES));
+                nextId = Math.max(nextId, id + 1);
+            } else {
+                // warn de um segmento já compactado: nada a desfazer
+                Entry target = byId.get(id);
+                if (target != null) {
+                    unindex(target, segment);
+                }
+            }
+
+            if (reasonLength > 0) {
+                segment.reasonsEnd = Math.max(segment.reasonsEnd, reasonOffset + reasonLength);
+            }
+        }
+
+        segment.nextSlot = slot;
+
+        if (last) {
+            // descarta a escrita interrompida: registros zerados e motivos sem registro
+            for (int position = slot * RECORD_SIZE; position < SEGMENT_BYTES; position += RECORD_SIZE) {
+                if (segment.records.getInt(position + OFF_TYPE) != 0) {
+                    segment.records.put(position, new byte[RECORD_SIZE]);
+                }
+            }
+            if (reasonsSize > segment.reasonsEnd) {
+                segment.reasonsChannel.truncate(segment.reasonsEnd);
+            }
+            force(segment);
+        }
+
+        return discarded;
+    }
+
+    // ==================== UTILITIES ====================
+
+    /**
+     * CRC32 dos campos do registro (tudo antes do próprio CRC) e do motivo
+     */
+    private static int checksum(byte[] record, byte[] reason) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, OFF_CRC);
+        if (reason != null) {
+            crc.update(reason);
+        }
+        return (int) crc.getValue();
+    }
+
+    private Path recordsPath(int number) {
+        return directory.resolve(String.format("warns-%06d.rec", number));
+    }
+
+    private Path reasonsPath(int number) {
+        return directory.resolve(String.format("warns-%06d.txt", number));
+    }
+
+    private static int segmentNumber(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        try {
+            return Integer.parseInt(name.substring("warns-".length(), name.lastIndexOf('.')));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IOException("Arquivo inesperado no diretório de warns: " + name);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.bot.discordbot.moderation.warn.dao;
+
+import com.bot.discordbot.moderation.warn.model.Warn;
+import com.bot.discordbot.moderation.warn.model.WarnPage;
+import com.bot.discordbot.moderation.warn.model.WarnResult;
+import com.bot.discordbot.util.BotLogger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link WarnRepository} em memória, com a mesma semântica do {@link WarnDAO}.
+ * Serve para testes de carga e para rodar sem PostgreSQL; os warns se perdem ao reiniciar.
+ *
+ * Cada usuário tem sua lista, protegida pelo próprio monitor: o applyWarn conta e insere sob esse
+ * lock (o equivalente à trava por usuário do PostgreSQL), e usuários diferentes não disputam nada.
+ * Os warns devolvidos são cópias, então quem chama não altera o estado guardado.
+ */
+public class InMemoryWarnRepository implements WarnRepository {
+
+    // o PostgreSQL não define a ordem de timestamps iguais; aqui o id desempata
+    private static final Comparator<Warn> BY_TIMESTAMP =
+            Comparator.comparingLong(Warn::getTimestamp).thenComparingInt(Warn::getId);
+
+    private final Map<Long, List<Warn>> byUser = new ConcurrentHashMap<>();
+    private final Map<Integer, Warn> byId = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Override
+    public String getName() {
+        return "memória";
+    }
+
+    // ==================== CREATE ====================
+
+    @Override
+    public boolean addWarn(long userId, long moderatorId, String reason, long timestamp, long expiresAt) {
+        if (userId <= 0) {
+            BotLogger.error("Tentativa de adicionar warn com userId inválido");
+            return false;
+        }
+
+        List<Warn> warns = listOf(userId);
+        synchronized (warns) {
+            insert(warns, userId, moderatorId, reason, timestamp, expiresAt);
+        }
+        return true;
+    }
+
+    @Override
+    public WarnResult applyWarn(long userId, long moderatorId, String reason,
+                                long timestamp, long[] expirationTiers) {
+        if (userId <= 0) {
+            BotLogger.error("Tentativa de aplicar warn com userId inválido");
+            return WarnResult.failed();
+        }
+
+        List<Warn> warns = listOf(userId);
+        synchronized (warns) {
+            int newCount = countActive(warns, timestamp) + 1;
+            long expiresAt = timestamp + expirationTiers[Math.min(newCount, expirationTiers.length) - 1];
+            Warn warn = insert(warns, userId, moderatorId, reason, timestamp, expiresAt);
+            return WarnResult.applied(warn.getId(), newCount, expiresAt);
+        }
+    }
+
+    // ==================== READ ====================
+
+    @Override
+    public int countActiveWarns(long userId) {
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em countActiveWarns");
+            return 0;
+        }
+
+        List<Warn> warns = byUser.get(userId);
+        if (warns == null) {
+            return 0;
+        }
+        synchronized (warns) {
+            return countActive(warns, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public List<Warn> getActiveWarns(long userId) {
+        List<Warn> result = new ArrayList<>();
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em getActiveWarns");
+            return result;
+        }
+
+        List<Warn> warns = byUser.get(userId);
+        if (warns == null) {
+            return result;
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (warns) {
+            for (Warn warn : warns) {
+                if (warn.getExpiresAt() > now) {
+                    result.add(copy(warn));
+                }
+            }
+        }
+        result.sort(BY_TIMESTAMP);
+        return result;
+    }
+
+    @Override
+    public WarnPage getWarnPage(long userId, boolean activeOnly, WarnPage.Cursor cursor, int pageSize) {
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em getWarnPage");
+            return WarnPage.empty();
+        }
+
+        List<Warn> warns = byUser.get(userId);
+        if (warns == null) {
+            return WarnPage.empty();
+        }
+
+        List<Warn> all = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (warns) {
+            for (Warn warn : warns) {
+                if (!activeOnly || warn.getExpiresAt() > now) {
+                    all.add(copy(warn));
+                }
+            }
+        }
+        return WarnPage.slice(all, cursor, pageSize);
+    }
+
+    @Override
+    public Optional<Warn> getWarnById(int id) {
+        Warn warn = byId.get(id);
+        return warn != null ? Optional.of(copy(warn)) : Optional.empty();
+    }
+
+    // ==================== DELETE ====================
+
+    @Override
+    public boolean removeWarnById(int id) {
+        Warn warn = byId.get(id);
+        if (warn == null) {
+            BotLogger.warn("Warn ID " + id + " não foi encontrado para remoção");
+            return false;
+        }
+
+        List<Warn> warns = listOf(warn.getUserId());
+        synchronized (warns) {
+            if (!warns.remove(warn)) {
+                return false;   // removido por outra thread
+            }
+            byId.remove(id);
+        }
+        return true;
+    }
+
+    @Override
+    public int clearUserWarns(long userId) {
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em clearUserWarns");
+            return 0;
+        }
+
+        List<Warn> warns = byUser.get(userId);
+        if (warns == null) {
+            return 0;
+        }
+
+        synchronized (warns) {
+            int removed = warns.size();
+            for (Warn warn : warns) {
+                byId.remove(warn.getId());
+            }
+            warns.clear();
+            return removed;
+        }
+    }
+
+    @Override
+    public int purgeExpiredChunk(long cutoff, int limit) {
+        int removed = 0;
+
+        for (List<Warn> warns : byUser.values()) {
+            if (removed >= limit) {
+                break;
+            }
+            synchronized (warns) {
+                Iterator<Warn> iterator = warns.iterator();
+                while (iterator.hasNext() && removed < limit) {
+                    Warn warn = iterator.next();
+                    if (warn.getExpiresAt() <= cutoff) {
+                        iterator.remove();
+                        byId.remove(warn.getId());
+                        removed++;
+                    }
+                }
+            }
+        }
+
+        // listas vazias ficam no mapa; uma lista pode estar em uso por um applyWarn concorrente
+        return removed;
+    }
+
+    // ==================== UTILITIES ====================
+
+    private List<Warn> listOf(long userId) {
+        return byUser.computeIfAbsent(userId, id -> new ArrayList<>());
+    }
+
+    /**
+     * Chamar com o monitor de {@code warns}
+     */
+    private Warn insert(List<Warn> warns, long userId, long moderatorId, String reason,
+                        long timestamp, long expiresAt) {
+        Warn warn = new Warn(sequence.incrementAndGet(), userId, Math.max(0, moderatorId),
+                reason, timestamp, expiresAt);
+        warns.add(warn);
+        byId.put(warn.getId(), warn);
+        return warn;
+    }
+
+    private static int countActive(List<Warn> warns, long now) {
+        int count = 0;
+        for (Warn warn : warns) {
+            if (warn.getExpiresAt() > now) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Warn copy(Warn warn) {
+        return new Warn(warn.getId(), warn.getUserId(), warn.getModeratorId(),
+                warn.getReason(), warn.getTimestamp(), warn.getExpiresAt());
+    }
+}
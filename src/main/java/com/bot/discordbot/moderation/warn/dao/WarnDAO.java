@@ -2,23 +2,46 @@ package com.bot.discordbot.moderation.warn.dao;
 
 import com.bot.discordbot.database.Database;
 import com.bot.discordbot.moderation.warn.model.Warn;
+import com.bot.discordbot.moderation.warn.model.WarnPage;
+import com.bot.discordbot.moderation.warn.model.WarnResult;
 import com.bot.discordbot.util.BotLogger;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 /**
- * Data Access Object para operações relacionadas a warns no banco de dados
+ * Implementação PostgreSQL do {@link WarnRepository}
  */
-public class WarnDAO {
+public class WarnDAO implements WarnRepository {
 
     // ==================== SQL QUERIES ====================
 
     private static final String INSERT_WARN =
             "INSERT INTO warns (user_id, moderator_id, reason, timestamp, expires_at) VALUES (?, ?, ?, ?, ?)";
 
+    /**
+     * Aplicação de warn em uma única ida ao banco. São dois comandos enviados juntos
+     * (o driver manda um só Sync), então rodam na mesma transação implícita:
+     * 1. trava por usuário (liberada no commit), para que moderadores simultâneos
+     *    não vejam a mesma contagem;
+     * 2. conta os ativos, escolhe a faixa de expiração pelo novo total, insere e devolve tudo
+     *    via RETURNING. Por ser um comando separado, enxerga os warns commitados antes da trava.
+     */
+    private static final String APPLY_WARN =
+            "SELECT pg_advisory_xact_lock(" + Database.WARN_LOCK_NAMESPACE + ", hashint8(?)); " +
+                    "WITH params AS (SELECT ?::bigint[] AS tiers), " +
+                    "active AS (SELECT COUNT(*) AS cnt FROM warns WHERE user_id = ? AND expires_at > ?), " +
+                    "tier AS (SELECT active.cnt + 1 AS new_count, " +
+                    "params.tiers[LEAST(active.cnt + 1, cardinality(params.tiers))::int] AS ttl " +
+                    "FROM active, params) " +
+                    "INSERT INTO warns (user_id, moderator_id, reason, timestamp, expires_at) " +
+                    "SELECT ?, ?, ?, ?, ? + tier.ttl FROM tier " +
+                    "RETURNING id, expires_at, (SELECT new_count FROM tier) AS warn_count";
+
     private static final String COUNT_ACTIVE_WARNS =
             "SELECT COUNT(*) FROM warns WHERE user_id = ? AND expires_at > ?";
 
@@ -26,9 +49,30 @@ public class WarnDAO {
             "SELECT id, user_id, moderator_id, reason, timestamp, expires_at " +
                     "FROM warns WHERE user_id = ? AND expires_at > ? ORDER BY timestamp ASC";
 
-    private static final String SELECT_WARN_HISTORY =
+    /**
+     * Uma página por keyset em (timestamp, id) e o total do usuário, numa ida ao banco: o LEFT JOIN
+     * LATERAL devolve ao menos uma linha (com o total) mesmo quando a página vem vazia. O total é um
+     * COUNT à parte, não uma window function sobre a página, para que o PostgreSQL aplique o keyset
+     * e o LIMIT direto no índice (user_id, timestamp, id) em vez de ler todos os warns do usuário.
+     */
+    private static final String SELECT_ACTIVE_PAGE_OLDER = pageQuery(true, true);
+    private static final String SELECT_ACTIVE_PAGE_NEWER = pageQuery(true, false);
+    private static final String SELECT_HISTORY_PAGE_OLDER = pageQuery(false, true);
+    private static final String SELECT_HISTORY_PAGE_NEWER = pageQuery(false, false);
+
+    private static final String SELECT_ALL_ACTIVE_WARNS =
             "SELECT id, user_id, moderator_id, reason, timestamp, expires_at " +
-                    "FROM warns WHERE user_id = ? ORDER BY timestamp DESC";
+                    "FROM warns WHERE expires_at > ? AND id > ?";
+
+    private static final String SELECT_WARNED_USERS =
+            "SELECT id, user_id FROM warns WHERE id > ?";
+
+    private static final String SELECT_MAX_WARN_ID =
+            "SELECT COALESCE(MAX(id), 0) FROM warns";
+
+    private static final String FINGERPRINT_ACTIVE_WARNS =
+            "SELECT COUNT(*), COALESCE(SUM(id), 0), COALESCE(MAX(expires_at), 0) " +
+                    "FROM warns WHERE expires_at > ? AND id <= ?";
 
     private static final String SELECT_WARN_BY_ID =
             "SELECT id, user_id, moderator_id, reason, timestamp, expires_at " +
@@ -40,8 +84,17 @@ public class WarnDAO {
     private static final String DELETE_USER_WARNS =
             "DELETE FROM warns WHERE user_id = ?";
 
-    private static final String DELETE_EXPIRED_WARNS =
-            "DELETE FROM warns WHERE expires_at <= ?";
+    // lote limitado; SKIP LOCKED evita esperar por linhas que outra transação está usando
+    private static final String DELETE_EXPIRED_WARNS_CHUNK =
+            "DELETE FROM warns WHERE id IN (" +
+                    "SELECT id FROM warns WHERE expires_at <= ? LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final int ACTIVE_FETCH_SIZE = 1000;
+
+    @Override
+    public String getName() {
+        return "PostgreSQL";
+    }
 
     // ==================== CREATE ====================
 
@@ -49,9 +102,10 @@ public class WarnDAO {
      * Insere um warn no banco de dados
      * @return true se inserção deu certo
      */
-    public static boolean addWarn(String userId, String moderatorId, String reason,
+    @Override
+    public boolean addWarn(long userId, long moderatorId, String reason,
                                   long timestamp, long expiresAt) {
-        if (userId == null || userId.isEmpty()) {
+        if (userId <= 0) {
             BotLogger.error("Tentativa de adicionar warn com userId inválido");
             return false;
         }
@@ -59,8 +113,8 @@ public class WarnDAO {
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(INSERT_WARN)) {
 
-            ps.setString(1, userId);
-            ps.setString(2, moderatorId);
+            ps.setLong(1, userId);
+            setModerator(ps, 2, moderatorId);
             ps.setString(3, reason);
             ps.setLong(4, timestamp);
             ps.setLong(5, expiresAt);
@@ -69,7 +123,7 @@ public class WarnDAO {
             boolean success = rowsAffected > 0;
 
             if (success) {
-                BotLogger.database("INSERT warn para user " + userId, true);
+                BotLogger.database("INSERT warn para user", userId, true);
             } else {
                 BotLogger.warn("INSERT warn não afetou nenhuma linha");
             }
@@ -82,28 +136,90 @@ public class WarnDAO {
         }
     }
 
+    /**
+     * Conta os warns ativos, calcula a expiração e insere o novo warn em uma única ida ao banco
+     *
+     * @param expirationTiers duração (ms) de cada faixa: índice 0 para o 1º warn, 1 para o 2º...;
+     *                        a última faixa vale para todos os seguintes
+     * @return resultado com ID, novo total e expiração, ou {@link WarnResult#failed()}
+     */
+    @Override
+    public WarnResult applyWarn(long userId, long moderatorId, String reason,
+                                       long timestamp, long[] expirationTiers) {
+        if (userId <= 0) {
+            BotLogger.error("Tentativa de aplicar warn com userId inválido");
+            return WarnResult.failed();
+        }
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(APPLY_WARN)) {
+
+            Long[] tiers = new Long[expirationTiers.length];
+            for (int i = 0; i < tiers.length; i++) {
+                tiers[i] = expirationTiers[i];
+            }
+
+            ps.setLong(1, userId);
+            ps.setArray(2, conn.createArrayOf("bigint", tiers));
+            ps.setLong(3, userId);
+            ps.setLong(4, timestamp);
+            ps.setLong(5, userId);
+            setModerator(ps, 6, moderatorId);
+            ps.setString(7, reason);
+            ps.setLong(8, timestamp);
+            ps.setLong(9, timestamp);
+
+            // primeiro resultado: a trava; o segundo é o RETURNING do INSERT
+            ps.execute();
+            if (!ps.getMoreResults()) {
+                BotLogger.warn("INSERT warn não retornou resultado");
+                return WarnResult.failed();
+            }
+
+            try (ResultSet rs = ps.getResultSet()) {
+                if (rs.next()) {
+                    WarnResult result = WarnResult.applied(
+                            rs.getInt("id"),
+                            rs.getInt("warn_count"),
+                            rs.getLong("expires_at")
+                    );
+                    BotLogger.database("INSERT warn para user", userId, true);
+                    return result;
+                }
+            }
+
+            BotLogger.warn("INSERT warn não afetou nenhuma linha");
+            return WarnResult.failed();
+
+        } catch (SQLException e) {
+            BotLogger.error("Erro ao aplicar warn", e);
+            return WarnResult.failed();
+        }
+    }
+
     // ==================== READ ====================
 
     /**
      * Conta warns ativos de um usuário
      * @return número de warns ativos, ou 0 caso dê erro
      */
-    public static int countActiveWarns(String userId) {
-        if (userId == null || userId.isEmpty()) {
-            BotLogger.warn("userId nulo ou vazio em countActiveWarns");
+    @Override
+    public int countActiveWarns(long userId) {
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em countActiveWarns");
             return 0;
         }
 
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(COUNT_ACTIVE_WARNS)) {
 
-            ps.setString(1, userId);
+            ps.setLong(1, userId);
             ps.setLong(2, System.currentTimeMillis());
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     int count = rs.getInt(1);
-                    BotLogger.debug("User " + userId + " tem " + count + " warns ativos");
+                    BotLogger.debug("User {} tem {} warns ativos", userId, count);
                     return count;
                 }
             }
@@ -119,18 +235,19 @@ public class WarnDAO {
      * Retorna lista de warns ativos de um usuário
      * @return lista de warns (vazia se nenhum ou erro)
      */
-    public static List<Warn> getActiveWarns(String userId) {
+    @Override
+    public List<Warn> getActiveWarns(long userId) {
         List<Warn> warns = new ArrayList<>();
 
-        if (userId == null || userId.isEmpty()) {
-            BotLogger.warn("userId nulo ou vazio em getActiveWarns");
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em getActiveWarns");
             return warns;
         }
 
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(SELECT_ACTIVE_WARNS)) {
 
-            ps.setString(1, userId);
+            ps.setLong(1, userId);
             ps.setLong(2, System.currentTimeMillis());
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -139,7 +256,7 @@ public class WarnDAO {
                 }
             }
 
-            BotLogger.debug("Carregados " + warns.size() + " warns ativos para " + userId);
+            BotLogger.debug("Carregados {} warns ativos para {}", warns.size(), userId);
 
         } catch (SQLException e) {
             BotLogger.error("Erro ao buscar warns ativos", e);
@@ -149,41 +266,164 @@ public class WarnDAO {
     }
 
     /**
-     * Retorna histórico completo de warns de um usuário estejam eles ativos ou expirados
-     * @return lista de warns (vazia se não houver nenhum ou der erro)
+     * Página de warns (só ativos ou o histórico), do mais recente ao mais antigo
+     * @return página (vazia se não houver nenhum ou der erro)
      */
-    public static List<Warn> getWarnHistory(String userId) {
-        List<Warn> warns = new ArrayList<>();
-
-        if (userId == null || userId.isEmpty()) {
-            BotLogger.warn("userId nulo ou vazio em getWarnHistory");
-            return warns;
+    @Override
+    public WarnPage getWarnPage(long userId, boolean activeOnly, WarnPage.Cursor cursor, int pageSize) {
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em getWarnPage");
+            return WarnPage.empty();
         }
 
+        // primeira página: tudo antes do maior (timestamp, id) possível
+        boolean older = cursor == null || cursor.isOlder();
+        String sql = activeOnly
+                ? (older ? SELECT_ACTIVE_PAGE_OLDER : SELECT_ACTIVE_PAGE_NEWER)
+                : (older ? SELECT_HISTORY_PAGE_OLDER : SELECT_HISTORY_PAGE_NEWER);
+
         try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(SELECT_WARN_HISTORY)) {
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, userId);
+            long now = System.currentTimeMillis();
+            int index = 1;
+            ps.setLong(index++, userId);
+            if (activeOnly) {
+                ps.setLong(index++, now);
+            }
+            ps.setLong(index++, userId);
+            if (activeOnly) {
+                ps.setLong(index++, now);
+            }
+            ps.setLong(index++, cursor != null ? cursor.getTimestamp() : Long.MAX_VALUE);
+            ps.setInt(index++, cursor != null ? cursor.getId() : Integer.MAX_VALUE);
+            ps.setInt(index, pageSize + 1);
 
+            int total = 0;
+            List<Warn> rows = new ArrayList<>(pageSize + 1);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    warns.add(mapResultSetToWarn(rs));
+                    total = rs.getInt("total");
+                    rs.getInt("id");
+                    if (!rs.wasNull()) {
+                        rows.add(mapResultSetToWarn(rs));
+                    }
                 }
             }
-
-            BotLogger.debug("Carregado histórico de " + warns.size() + " warns para " + userId);
+            return WarnPage.of(rows, total, cursor, pageSize);
 
         } catch (SQLException e) {
-            BotLogger.error("Erro ao buscar histórico de warns", e);
+            BotLogger.error("Erro ao buscar página de warns", e);
         }
 
-        return warns;
+        return WarnPage.empty();
+    }
+
+    /**
+     * Percorre os warns ativos com ID maior que {@code afterId} (0 = todos) sem carregá-los juntos:
+     * com autocommit desligado o driver usa um cursor e busca {@code ACTIVE_FETCH_SIZE} linhas por vez
+     * @return quantidade de warns lidos
+     */
+    public int forEachActiveWarn(long now, long afterId, Consumer<Warn> consumer) throws SQLException {
+        int count = 0;
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_ALL_ACTIVE_WARNS)) {
+                ps.setFetchSize(ACTIVE_FETCH_SIZE);
+                ps.setLong(1, now);
+                ps.setLong(2, afterId);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(mapResultSetToWarn(rs));
+                        count++;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Percorre o user_id de todos os warns com ID maior que {@code afterId} (0 = todos), em lotes
+     * como {@link #forEachActiveWarn}
+     * @return maior ID lido, ou {@code afterId} se não houver nenhum
+     */
+    public long forEachWarnedUser(long afterId, LongConsumer consumer) throws SQLException {
+        long maxId = afterId;
+
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_WARNED_USERS)) {
+                ps.setFetchSize(ACTIVE_FETCH_SIZE);
+                ps.setLong(1, afterId);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        maxId = Math.max(maxId, rs.getLong(1));
+                        consumer.accept(rs.getLong(2));
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        return maxId;
+    }
+
+    public long getMaxWarnId() throws SQLException {
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_MAX_WARN_ID)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Resumo dos warns ativos com ID até {@code maxId}, no formato de
+     * {@link #fingerprint(int, long, long)}; compara um snapshot do índice com o banco
+     */
+    public String fingerprintActiveWarns(long now, long maxId) throws SQLException {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(FINGERPRINT_ACTIVE_WARNS)) {
+
+            ps.setLong(1, now);
+            ps.setLong(2, maxId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return fingerprint(rs.getInt(1), rs.getLong(2), rs.getLong(3));
+            }
+        }
+    }
+
+    /**
+     * Quantidade, soma dos IDs e maior expiração: iguais nos dois lados só se os conjuntos coincidem
+     * (na prática; um warn removido ou um banco recriado muda pelo menos um deles)
+     */
+    public static String fingerprint(int count, long idSum, long maxExpiresAt) {
+        return count + ":" + idSum + ":" + maxExpiresAt;
     }
 
     /**
      * Busca um warn específico por ID
      */
-    public static Optional<Warn> getWarnById(int id) {
+    @Override
+    public Optional<Warn> getWarnById(int id) {
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(SELECT_WARN_BY_ID)) {
 
@@ -207,7 +447,8 @@ public class WarnDAO {
     /**
      * Remove um warn específico por ID
      */
-    public static boolean removeWarnById(int id) {
+    @Override
+    public boolean removeWarnById(int id) {
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(DELETE_WARN_BY_ID)) {
 
@@ -216,7 +457,7 @@ public class WarnDAO {
             boolean success = rowsAffected > 0;
 
             if (success) {
-                BotLogger.database("DELETE warn ID " + id, true);
+                BotLogger.database("DELETE warn ID", id, true);
             } else {
                 BotLogger.warn("Warn ID " + id + " não foi encontrado para remoção");
             }
@@ -232,19 +473,20 @@ public class WarnDAO {
     /**
      * remove todos os warns de um usuário
      */
-    public static int clearUserWarns(String userId) {
-        if (userId == null || userId.isEmpty()) {
-            BotLogger.warn("userId nulo ou vazio em clearUserWarns");
+    @Override
+    public int clearUserWarns(long userId) {
+        if (userId <= 0) {
+            BotLogger.warn("userId inválido em clearUserWarns");
             return 0;
         }
 
         try (Connection conn = Database.getConnection();
              PreparedStatement ps = conn.prepareStatement(DELETE_USER_WARNS)) {
 
-            ps.setString(1, userId);
+            ps.setLong(1, userId);
             int rowsAffected = ps.executeUpdate();
 
-            BotLogger.database("DELETE " + rowsAffected + " warns do user " + userId, true);
+            BotLogger.database("DELETE warns do user", userId, true);
             return rowsAffected;
 
         } catch (SQLException e) {
@@ -254,71 +496,65 @@ public class WarnDAO {
     }
 
     /**
-     * Remove todos os warns expirados do banco
+     * Remove um lote de warns expirados (no máximo {@code limit} linhas)
+     * @return linhas removidas, ou -1 caso dê erro
      */
-    public static int purgeExpiredWarns() {
+    @Override
+    public int purgeExpiredChunk(long cutoff, int limit) {
         try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(DELETE_EXPIRED_WARNS)) {
+             PreparedStatement ps = conn.prepareStatement(DELETE_EXPIRED_WARNS_CHUNK)) {
 
-            ps.setLong(1, System.currentTimeMillis());
+            ps.setLong(1, cutoff);
+            ps.setInt(2, limit);
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
-                BotLogger.database("PURGE de " + rowsAffected + " warns expirados", true);
+                BotLogger.database("PURGE de warns expirados", rowsAffected, true);
             }
 
             return rowsAffected;
 
         } catch (SQLException e) {
             BotLogger.error("Erro ao purgar warns expirados", e);
-            return 0;
+            return -1;
         }
     }
 
     // ==================== UTILITIES ====================
 
+    /**
+     * Moderador 0 significa warn do sistema e é gravado como NULL
+     */
+    private static void setModerator(PreparedStatement ps, int index, long moderatorId) throws SQLException {
+        if (moderatorId > 0) {
+            ps.setLong(index, moderatorId);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static String pageQuery(boolean activeOnly, boolean older) {
+        String active = activeOnly ? " AND expires_at > ?" : "";
+        String direction = older ? "DESC" : "ASC";
+        return "SELECT c.total, w.id, w.user_id, w.moderator_id, w.reason, w.timestamp, w.expires_at " +
+                "FROM (SELECT COUNT(*) AS total FROM warns WHERE user_id = ?" + active + ") c " +
+                "LEFT JOIN LATERAL (SELECT id, user_id, moderator_id, reason, timestamp, expires_at " +
+                "FROM warns WHERE user_id = ?" + active + " AND (timestamp, id) " + (older ? "<" : ">") + " (?, ?) " +
+                "ORDER BY timestamp " + direction + ", id " + direction + " LIMIT ?) w ON true " +
+                "ORDER BY w.timestamp " + direction + ", w.id " + direction;
+    }
+
     /**
      * Mapeia um ResultSet para um objeto warn
      */
     private static Warn mapResultSetToWarn(ResultSet rs) throws SQLException {
         return new Warn(
                 rs.getInt("id"),
-                rs.getString("user_id"),
-                rs.getString("moderator_id"),
+                rs.getLong("user_id"),
+                rs.getLong("moderator_id"),   // NULL vira 0 (sistema)
                 rs.getString("reason"),
                 rs.getLong("timestamp"),
                 rs.getLong("expires_at")
         );
     }
-
-    /**
-     * Retorna estatísticas gerais de warns
-     */
-    public static String getStatistics() {
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            var rs = stmt.executeQuery(
-                    "SELECT " +
-                            "COUNT(*) as total, " +
-                            "SUM(CASE WHEN expires_at > " + System.currentTimeMillis() + " THEN 1 ELSE 0 END) as active, " +
-                            "COUNT(DISTINCT user_id) as unique_users " +
-                            "FROM warns"
-            );
-
-            if (rs.next()) {
-                return String.format(
-                        "📊 Estatísticas: %d warns total | %d ativos | %d usuários únicos",
-                        rs.getInt("total"),
-                        rs.getInt("active"),
-                        rs.getInt("unique_users")
-                );
-            }
-
-        } catch (SQLException e) {
-            BotLogger.error("Erro ao obter estatísticas", e);
-        }
-
-        return "❌ Erro ao obter estatísticas";
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package com.bot.discordbot.moderation.warn.dao;
+
+import com.bot.discordbot.moderation.warn.model.Warn;
+import com.bot.discordbot.moderation.warn.model.WarnPage;
+import com.bot.discordbot.moderation.warn.model.WarnResult;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Armazenamento de warns usado pelo WarnService.
+ *
+ * Contrato comum às implementações:
+ * <ul>
+ *   <li>um warn está ativo enquanto {@code expiresAt > agora}</li>
+ *   <li>ativos em ordem de aplicação (timestamp crescente); páginas do mais recente ao mais antigo</li>
+ *   <li>o histórico só é lido em páginas: um usuário antigo pode ter milhares de warns</li>
+ *   <li>userId inválido (&lt;= 0) não lança exceção: retorna vazio, 0, false ou {@link WarnResult#failed()}</li>
+ *   <li>moderador 0 significa warn do sistema</li>
+ *   <li>métodos bloqueantes e seguros para chamadas concorrentes</li>
+ * </ul>
+ */
+public interface WarnRepository {
+
+    /**
+     * Nome exibido no /debug e nos logs
+     */
+    String getName();
+
+    /**
+     * Insere um warn com expiração já calculada
+     */
+    boolean addWarn(long userId, long moderatorId, String reason, long timestamp, long expiresAt);
+
+    /**
+     * Conta os ativos, escolhe a expiração pelo novo total e insere, de forma atômica por usuário:
+     * dois warns simultâneos para o mesmo usuário nunca recebem a mesma contagem
+     *
+     * @param expirationTiers duração (ms) de cada faixa: índice 0 para o 1º warn, 1 para o 2º...;
+     *                        a última faixa vale para todos os seguintes
+     */
+    WarnResult applyWarn(long userId, long moderatorId, String reason, long timestamp, long[] expirationTiers);
+
+    int countActiveWarns(long userId);
+
+    List<Warn> getActiveWarns(long userId);
+
+    /**
+     * Uma página dos warns do usuário (só ativos, ou o histórico), do mais recente ao mais antigo
+     * @param cursor borda da página atual e direção; null = primeira página
+     */
+    WarnPage getWarnPage(long userId, boolean activeOnly, WarnPage.Cursor cursor, int pageSize);
+
+    Optional<Warn> getWarnById(int id);
+
+    boolean removeWarnById(int id);
+
+    /**
+     * @return quantidade removida
+     */
+    int clearUserWarns(long userId);
+
+    /**
+     * Remove até {@code limit} warns com {@code expiresAt <= cutoff}
+     * @return quantidade removida, ou -1 em caso de erro
+     */
+    int purgeExpiredChunk(long cutoff, int limit);
+
+    /**
+     * Libera arquivos e grava o que estiver pendente; chamado no desligamento
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,162 @@
+package com.bot.discordbot.moderation.warn.dao;
+
+import com.bot.discordbot.database.Database;
+import com.bot.discordbot.util.BotLogger;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estatísticas de warns servidas de um snapshot em memória.
+ *
+ * O snapshot é refeito pelo WarnReaper a cada rodada (ou sob demanda, se estiver velho) e nunca
+ * varre a tabela inteira:
+ * <ul>
+ *   <li>total e aplicados: soma dos shards da tabela warn_stats, mantida por triggers</li>
+ *   <li>ativos e usuários com warn ativo: do índice de ativos em memória, se ligado; sem ele, ativos
+ *       = linhas do warn_stats (o reaper remove os expirados) e usuários fica indisponível</li>
+ *   <li>logs: estimativa do pg_class.reltuples das partições, atualizada pelo autovacuum</li>
+ * </ul>
+ */
+public class WarnStatistics {
+
+    private static final long MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private static final String SELECT_COUNTERS =
+            "SELECT COALESCE(SUM(total_rows), 0), COALESCE(SUM(total_applied), 0) FROM warn_stats";
+
+    // a tabela particionada em si não tem reltuples; soma as partições (-1 = nunca analisada)
+    private static final String ESTIMATE_LOGS =
+            "SELECT COALESCE(SUM(GREATEST(c.reltuples, 0)), 0)::bigint " +
+                    "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                    "WHERE i.inhparent = 'logs'::regclass";
+
+    /**
+     * Contagens de ativos mantidas em memória (o ActiveWarnIndex do WarnService)
+     */
+    public interface ActiveCounts {
+        int getWarnCount();
+
+        int getUserCount();
+    }
+
+    /**
+     * Valores de um momento; imutável
+     */
+    public static final class Snapshot {
+        private final long totalRows;
+        private final long totalApplied;
+        private final long active;
+        private final long activeUsers;
+        private final long logsEstimate;
+        private final long takenAt;
+
+        Snapshot(long totalRows, long totalApplied, long active, long activeUsers, long logsEstimate, long takenAt) {
+            this.totalRows = totalRows;
+            this.totalApplied = totalApplied;
+            this.active = active;
+            this.activeUsers = activeUsers;
+            this.logsEstimate = logsEstimate;
+            this.takenAt = takenAt;
+        }
+
+        public long getTotalRows() {
+            return totalRows;
+        }
+
+        public long getTotalApplied() {
+            return totalApplied;
+        }
+
+        public long getActive() {
+            return active;
+        }
+
+        // -1 = indisponível (sem índice de ativos)
+        public long getActiveUsers() {
+            return activeUsers;
+        }
+
+        public long getLogsEstimate() {
+            return logsEstimate;
+        }
+
+        public long getTakenAt() {
+            return takenAt;
+        }
+    }
+
+    private static volatile Snapshot snapshot;
+
+    /**
+     * Refaz o snapshot (bloqueante: chamar fora da thread do JDA)
+     * @param counts índice de ativos, ou null se estiver desligado
+     */
+    public static Snapshot refresh(ActiveCounts counts) throws SQLException {
+        long now = System.currentTimeMillis();
+        long totalRows = 0;
+        long totalApplied = 0;
+        long logsEstimate;
+
+        try (Connection conn = Database.getConnection()) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(SELECT_COUNTERS)) {
+                if (rs.next()) {
+                    totalRows = rs.getLong(1);
+                    totalApplied = rs.getLong(2);
+                }
+            }
+
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(ESTIMATE_LOGS)) {
+                logsEstimate = rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+
+        // contar ativos no banco seria um agregado sobre praticamente a tabela inteira, já que o
+        // reaper remove os expirados: sem o índice, as linhas do warn_stats são a melhor aproximação
+        long active = counts != null ? counts.getWarnCount() : totalRows;
+        long activeUsers = counts != null ? counts.getUserCount() : -1;
+
+        Snapshot fresh = new Snapshot(totalRows, totalApplied, active, activeUsers, logsEstimate, now);
+        snapshot = fresh;
+        return fresh;
+    }
+
+    /**
+     * Último snapshot, sem consultar o banco (null antes do primeiro)
+     */
+    public static Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Resumo para o /debug; refaz o snapshot só se estiver velho
+     */
+    public static String getSummary(ActiveCounts counts) {
+        Snapshot current = snapshot;
+        if (current == null || System.currentTimeMillis() - current.takenAt > MAX_AGE_MILLIS) {
+            try {
+                current = refresh(counts);
+            } catch (SQLException e) {
+                BotLogger.error("Erro ao obter estatísticas", e);
+                if (current == null) {
+                    return "❌ Erro ao obter estatísticas";
+                }
+            }
+        }
+
+        return String.format(
+                "📊 Estatísticas: %d warns ativos (%s usuários) | %d no banco | %d aplicados desde a criação | ~%d logs | <t:%d:R>",
+                current.active,
+                current.activeUsers >= 0 ? String.valueOf(current.activeUsers) : "?",
+                current.totalRows,
+                current.totalApplied,
+                current.logsEstimate,
+                current.takenAt / 1000
+        );
+    }
+}
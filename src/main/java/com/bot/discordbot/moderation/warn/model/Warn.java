@@ -14,8 +14,8 @@ public class Warn {
     // ==================== ATRIBUTOS ====================
 
     private int id;
-    private String userId;
-    private String moderatorId;
+    private long userId;         // snowflake do Discord
+    private long moderatorId;    // 0 = sistema (sem moderador)
     private String reason;
     private long timestamp;      // quando o warn foi aplicado
     private long expiresAt;      // quando o warn expira
@@ -24,7 +24,7 @@ public class Warn {
     }
 
     // criação manual
-    public Warn(int id, String userId, String moderatorId, String reason,
+    public Warn(int id, long userId, long moderatorId, String reason,
                 long timestamp, long expiresAt) {
         this.id = id;
         this.userId = userId;
@@ -35,7 +35,7 @@ public class Warn {
     }
 
     // criar novo warn
-    public Warn(String userId, String moderatorId, String reason,
+    public Warn(long userId, long moderatorId, String reason,
                 long timestamp, long expiresAt) {
         this.userId = userId;
         this.moderatorId = moderatorId;
@@ -52,19 +52,19 @@ public class Warn {
         this.id = id;
     }
 
-    public String getUserId() {
+    public long getUserId() {
         return userId;
     }
 
-    public void setUserId(String userId) {
+    public void setUserId(long userId) {
         this.userId = userId;
     }
 
-    public String getModeratorId() {
+    public long getModeratorId() {
         return moderatorId;
     }
 
-    public void setModeratorId(String moderatorId) {
+    public void setModeratorId(long moderatorId) {
         this.moderatorId = moderatorId;
     }
 
@@ -179,8 +179,8 @@ public class Warn {
     public String toString() {
         return "Warn{" +
                 "id=" + id +
-                ", userId='" + userId + '\'' +
-                ", moderatorId='" + moderatorId + '\'' +
+                ", userId=" + userId +
+                ", moderatorId=" + moderatorId +
                 ", reason='" + reason + '\'' +
                 ", timestamp=" + getFormattedTimestamp() +
                 ", expiresAt=" + getFormattedExpiresAt() +
@@ -0,0 +1,146 @@
+package com.bot.discordbot.moderation.warn.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Uma página de warns de um usuário, do mais recente ao mais antigo.
+ * A navegação é por keyset em (timestamp, id): a página seguinte começa depois do último warn
+ * desta, sem OFFSET, então o custo de cada página não cresce com o tamanho do histórico.
+ */
+public class WarnPage {
+
+    private static final Comparator<Warn> NEWEST_FIRST =
+            Comparator.comparingLong(Warn::getTimestamp).thenComparingInt(Warn::getId).reversed();
+
+    private final List<Warn> warns;
+    private final int total;
+    private final boolean hasOlder;
+    private final boolean hasNewer;
+
+    private WarnPage(List<Warn> warns, int total, boolean hasOlder, boolean hasNewer) {
+        this.warns = warns;
+        this.total = total;
+        this.hasOlder = hasOlder;
+        this.hasNewer = hasNewer;
+    }
+
+    public static WarnPage empty() {
+        return new WarnPage(List.of(), 0, false, false);
+    }
+
+    /**
+     * Monta a página a partir das linhas lidas na ordem da consulta
+     * @param rows até {@code pageSize + 1} warns, a partir do cursor e na direção dele
+     *             (a linha a mais só indica que existe outra página)
+     * @param cursor null = primeira página
+     */
+    public static WarnPage of(List<Warn> rows, int total, Cursor cursor, int pageSize) {
+        boolean more = rows.size() > pageSize;
+        List<Warn> warns = new ArrayList<>(more ? rows.subList(0, pageSize) : rows);
+
+        if (cursor == null || cursor.older) {
+            return new WarnPage(warns, total, more, cursor != null);
+        }
+        // página anterior: lida do mais antigo para o mais recente
+        Collections.reverse(warns);
+        return new WarnPage(warns, total, true, more);
+    }
+
+    /**
+     * Página de uma lista completa já em memória (índice de ativos, armazenamentos sem SQL)
+     */
+    public static WarnPage slice(List<Warn> all, Cursor cursor, int pageSize) {
+        Comparator<Warn> order = cursor == null || cursor.older ? NEWEST_FIRST : NEWEST_FIRST.reversed();
+        List<Warn> rows = all.stream()
+                .filter(warn -> cursor == null || cursor.accepts(warn))
+                .sorted(order)
+                .limit(pageSize + 1L)
+                .toList();
+        return of(rows, all.size(), cursor, pageSize);
+    }
+
+    public List<Warn> getWarns() {
+        return warns;
+    }
+
+    // quantidade de warns do usuário na consulta inteira, não só nesta página
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean hasOlder() {
+        return hasOlder;
+    }
+
+    public boolean hasNewer() {
+        return hasNewer;
+    }
+
+    public boolean isEmpty() {
+        return warns.isEmpty();
+    }
+
+    /**
+     * Borda de uma página: os warns antes ou depois de (timestamp, id)
+     */
+    public static final class Cursor {
+
+        private final long timestamp;
+        private final int id;
+        private final boolean older;
+
+        private Cursor(long timestamp, int id, boolean older) {
+            this.timestamp = timestamp;
+            this.id = id;
+            this.older = older;
+        }
+
+        public static Cursor of(long timestamp, int id, boolean older) {
+            return new Cursor(timestamp, id, older);
+        }
+
+        /**
+         * Próxima página: warns mais antigos que o último desta
+         */
+        public static Cursor olderThan(Warn warn) {
+            return new Cursor(warn.getTimestamp(), warn.getId(), true);
+        }
+
+        /**
+         * Página anterior: warns mais recentes que o primeiro desta
+         */
+        public static Cursor newerThan(Warn warn) {
+            return new Cursor(warn.getTimestamp(), warn.getId(), false);
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        // true = warns antes de (timestamp, id); false = depois
+        public boolean isOlder() {
+            return older;
+        }
+
+        /**
+         * Mesma comparação de linha do SQL: (timestamp, id) &lt; ou &gt; (cursor)
+         */
+        public boolean accepts(Warn warn) {
+            return accepts(warn.getTimestamp(), warn.getId());
+        }
+
+        public boolean accepts(long warnTimestamp, int warnId) {
+            int cmp = warnTimestamp != timestamp
+                    ? Long.compare(warnTimestamp, timestamp)
+                    : Integer.compare(warnId, id);
+            return older ? cmp < 0 : cmp > 0;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.bot.discordbot.moderation.warn.model;
+
+/**
+ * Resultado da aplicação de um warn.
+ * Traz o que o banco devolveu no RETURNING: ID do novo warn, total de warns ativos
+ * (já contando este) e quando ele expira.
+ */
+public class WarnResult {
+
+    private static final WarnResult FAILED = new WarnResult(false, -1, 0, 0);
+
+    private final boolean success;
+    private final int warnId;
+    private final int warnCount;
+    private final long expiresAt;
+
+    private WarnResult(boolean success, int warnId, int warnCount, long expiresAt) {
+        this.success = success;
+        this.warnId = warnId;
+        this.warnCount = warnCount;
+        this.expiresAt = expiresAt;
+    }
+
+    public static WarnResult applied(int warnId, int warnCount, long expiresAt) {
+        return new WarnResult(true, warnId, warnCount, expiresAt);
+    }
+
+    public static WarnResult failed() {
+        return FAILED;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public int getWarnId() {
+        return warnId;
+    }
+
+    // total de warns ativos do usuário, incluindo o novo
+    public int getWarnCount() {
+        return warnCount;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        if (!success) {
+            return "WarnResult{failed}";
+        }
+        return "WarnResult{" +
+                "warnId=" + warnId +
+                ", warnCount=" + warnCount +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
@@ -0,0 +1,437 @@
+package com.bot.discordbot.moderation.warn.service;
+
+import com.bot.discordbot.moderation.warn.dao.WarnStatistics;
+import com.bot.discordbot.moderation.warn.model.Warn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice em memória dos warns ativos, por usuário.
+ *
+ * Mapa de endereçamento aberto (sondagem linear) com a chave no próprio {@code long[]}: sem Long boxeado
+ * nem nós de HashMap. Cada usuário aponta para um array de warns em ordem de aplicação, trocado inteiro
+ * a cada escrita. As leituras filtram por {@code expiresAt > agora}, então um warn some no instante
+ * exato em que expira; {@link #evictExpired} só libera a memória depois.
+ *
+ * Só reflete as escritas feitas por este processo (via WarnService): com mais de uma instância
+ * no mesmo banco, deixe warn.index.enabled=false.
+ */
+public class ActiveWarnIndex implements WarnStatistics.ActiveCounts {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Warn[] EMPTY = new Warn[0];
+
+    private static final Comparator<Warn> BY_TIMESTAMP =
+            Comparator.comparingLong(Warn::getTimestamp).thenComparingInt(Warn::getId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] keys = new long[INITIAL_CAPACITY];       // 0 = slot livre (userId é sempre > 0)
+    private Warn[][] values = new Warn[INITIAL_CAPACITY][];
+    private int users;
+    private int warns;
+    private long highWaterMark;                               // maior ID já incluído
+
+    // ==================== LEITURA ====================
+
+    public int count(long userId, long now) {
+        lock.readLock().lock();
+        try {
+            int slot = find(userId);
+            if (slot < 0) {
+                return 0;
+            }
+            int count = 0;
+            for (Warn warn : values[slot]) {
+                if (warn.getExpiresAt() > now) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cópias dos warns ativos, em ordem de aplicação
+     */
+    public List<Warn> get(long userId, long now) {
+        List<Warn> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int slot = find(userId);
+            if (slot >= 0) {
+                for (Warn warn : values[slot]) {
+                    if (warn.getExpiresAt() > now) {
+                        result.add(copy(warn));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // ==================== ESCRITA ====================
+
+    /**
+     * Inclui um warn (ignorado se já expirou ou se o ID já está no índice)
+     */
+    public void add(Warn warn, long now) {
+        if (warn.getUserId() <= 0 || warn.getExpiresAt() <= now) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            highWaterMark = Math.max(highWaterMark, warn.getId());
+            int slot = find(warn.getUserId());
+            Warn[] current = slot >= 0 ? values[slot] : EMPTY;
+            for (Warn existing : current) {
+                if (existing.getId() == warn.getId()) {
+                    return;
+                }
+            }
+
+            Warn[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = copy(warn);
+            Arrays.sort(updated, BY_TIMESTAMP);
+            warns++;
+            store(warn.getUserId(), slot, updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Substitui os warns de um usuário (ex: recarregados do banco)
+     */
+    public void replace(long userId, List<Warn> active, long now) {
+        Warn[] updated = active.stream()
+                .filter(warn -> warn.getExpiresAt() > now)
+                .map(ActiveWarnIndex::copy)
+                .sorted(BY_TIMESTAMP)
+                .toArray(Warn[]::new);
+
+        lock.writeLock().lock();
+        try {
+            for (Warn warn : updated) {
+                highWaterMark = Math.max(highWaterMark, warn.getId());
+            }
+            int slot = find(userId);
+            if (slot >= 0) {
+                warns -= values[slot].length;
+            }
+            warns += updated.length;
+            store(userId, slot, updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeUser(long userId) {
+        lock.writeLock().lock();
+        try {
+            int slot = find(userId);
+            if (slot >= 0) {
+                warns -= values[slot].length;
+                delete(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um warn pelo ID; percorre o índice, que só tem os ativos
+     */
+    public void removeWarn(int warnId) {
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] == 0) {
+                    continue;
+                }
+                Warn[] current = values[slot];
+                for (int i = 0; i < current.length; i++) {
+                    if (current[i].getId() == warnId) {
+                        Warn[] updated = new Warn[current.length - 1];
+                        System.arraycopy(current, 0, updated, 0, i);
+                        System.arraycopy(current, i + 1, updated, i, updated.length - i);
+                        warns--;
+                        store(keys[slot], slot, updated);
+                        return;
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Libera os warns já expirados (as leituras já os ignoram)
+     * @return quantidade removida
+     */
+    public int evictExpired(long now) {
+        lock.writeLock().lock();
+        try {
+            int before = warns;
+            int slot = 0;
+            while (slot < keys.length) {
+                if (keys[slot] == 0) {
+                    slot++;
+                    continue;
+                }
+
+                Warn[] current = values[slot];
+                int alive = 0;
+                for (Warn warn : current) {
+                    if (warn.getExpiresAt() > now) {
+                        alive++;
+                    }
+                }
+                if (alive == current.length) {
+                    slot++;
+                    continue;
+                }
+
+                Warn[] updated = new Warn[alive];
+                int i = 0;
+                for (Warn warn : current) {
+                    if (warn.getExpiresAt() > now) {
+                        updated[i++] = warn;
+                    }
+                }
+                warns -= current.length - alive;
+
+                if (alive > 0) {
+                    values[slot] = updated;
+                    slot++;
+                } else {
+                    // a remoção puxa outra chave para este slot: examina o mesmo slot de novo
+                    delete(slot);
+                }
+            }
+            return before - warns;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    /**
+     * Maior ID que já passou pelo índice, mesmo que tenha expirado ou sido removido
+     */
+    public long getHighWaterMark() {
+        lock.readLock().lock();
+        try {
+            return highWaterMark;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void raiseHighWaterMark(long id) {
+        lock.writeLock().lock();
+        try {
+            highWaterMark = Math.max(highWaterMark, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Visita todos os warns sob a trava de leitura (as escritas esperam); os objetos são os do índice,
+     * então {@code visitor} não deve alterá-los
+     */
+    void forEach(Consumer<Warn> visitor) {
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] == 0) {
+                    continue;
+                }
+                for (Warn warn : values[slot]) {
+                    visitor.accept(warn);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== MÉTRICAS ====================
+
+    @Override
+    public int getWarnCount() {
+        lock.readLock().lock();
+        try {
+            return warns;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getUserCount() {
+        lock.readLock().lock();
+        try {
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Memória aproximada, em bytes (JVM 64 bits com compressed oops; motivos contados como LATIN1)
+     */
+    public long estimateBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 16 + 8L * keys.length     // long[]
+                    + 16 + 4L * values.length;      // Warn[][]
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] == 0) {
+                    continue;
+                }
+                bytes += 16 + 4L * values[slot].length;
+                for (Warn warn : values[slot]) {
+                    bytes += 56;                    // objeto Warn
+                    if (warn.getReason() != null) {
+                        bytes += 24 + 16 + warn.getReason().length();
+                    }
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Resumo para o /debug
+     */
+    public String getSummary() {
+        long bytes = estimateBytes();
+        lock.readLock().lock();
+        try {
+            return String.format("🧠 Índice de ativos: %d warns de %d usuários | ~%.1f KB | capacidade %d",
+                    warns, users, bytes / 1024.0, keys.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== TABELA ====================
+
+    /**
+     * @return slot da chave, ou -1
+     */
+    private int find(long userId) {
+        int mask = keys.length - 1;
+        int slot = hash(userId) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == userId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Grava o array do usuário; array vazio remove a chave
+     * @param slot slot atual da chave, ou -1 se ela não existe
+     */
+    private void store(long userId, int slot, Warn[] updated) {
+        if (updated.length == 0) {
+            if (slot >= 0) {
+                delete(slot);
+            }
+            return;
+        }
+        if (slot >= 0) {
+            values[slot] = updated;
+            return;
+        }
+
+        // fator de carga até 1/2: sequências de sondagem curtas
+        if ((users + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        insert(userId, updated);
+        users++;
+    }
+
+    private void insert(long userId, Warn[] value) {
+        int mask = keys.length - 1;
+        int slot = hash(userId) & mask;
+        while (keys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = userId;
+        values[slot] = value;
+    }
+
+    /**
+     * Remoção com deslocamento para trás: as chaves seguintes voltam para perto do slot ideal,
+     * sem marcadores de remoção
+     */
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+
+        while (keys[next] != 0) {
+            int ideal = hash(keys[next]) & mask;
+            // move se o slot ideal não estiver entre o buraco (exclusive) e a posição atual
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        keys[hole] = 0;
+        values[hole] = null;
+        users--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Warn[][] oldValues = values;
+        keys = new long[capacity];
+        values = new Warn[capacity][];
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0) {
+                insert(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    /**
+     * Snowflakes têm bits baixos pouco variados (worker, sequência); mistura antes da máscara
+     */
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private static Warn copy(Warn warn) {
+        return new Warn(warn.getId(), warn.getUserId(), warn.getModeratorId(),
+                warn.getReason(), warn.getTimestamp(), warn.getExpiresAt());
+    }
+}
@@ -0,0 +1,242 @@
+package com.bot.discordbot.moderation.warn.service;
+
+import com.bot.discordbot.moderation.warn.dao.WarnDAO;
+import com.bot.discordbot.moderation.warn.model.Warn;
+import com.bot.discordbot.util.BotLogger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot binário do {@link ActiveWarnIndex}, para reiniciar sem recarregar todos os ativos do banco.
+ *
+ * Formato: cabeçalho de 48 bytes (magic, versão, quantidade, criação, maior ID, tamanho e CRC32 do
+ * conteúdo, CRC32 do próprio cabeçalho) seguido dos warns (id, user, moderator, timestamp, expires_at,
+ * tamanho do motivo e o motivo em UTF-8). Gravado num .tmp e renomeado, então um crash no meio
+ * deixa o snapshot anterior intacto.
+ *
+ * Na restauração, o arquivo é mapeado e validado; os ativos com ID até o maior ID do snapshot são
+ * comparados com o banco por {@link WarnDAO#fingerprintActiveWarns} (um warn removido depois do
+ * snapshot, ou um banco recriado, invalida o snapshot) e só os warns com ID maior são lidos do banco.
+ */
+final class ActiveWarnSnapshot {
+
+    private static final long MAGIC = 0x57494458534E5031L;     // "WIDXSNP1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 48;
+
+    private static final int OFF_VERSION = 8;
+    private static final int OFF_COUNT = 12;
+    private static final int OFF_CREATED_AT = 16;
+    private static final int OFF_HIGH_WATER_MARK = 24;
+    private static final int OFF_PAYLOAD_LENGTH = 32;
+    private static final int OFF_PAYLOAD_CRC = 40;
+    private static final int OFF_HEADER_CRC = 44;
+
+    private ActiveWarnSnapshot() {
+    }
+
+    /**
+     * Grava o índice em {@code path}, substituindo o snapshot anterior
+     * @return quantidade de warns gravados
+     */
+    static int write(ActiveWarnIndex index, Path path) throws IOException {
+        // maior ID lido antes dos warns; os aplicados durante a cópia ficam de fora e são relidos do banco
+        long highWaterMark = index.getHighWaterMark();
+        long now = System.currentTimeMillis();
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(Math.max(1024, index.getWarnCount() * 96));
+        DataOutputStream out = new DataOutputStream(payload);
+        int[] count = {0};
+        try {
+            index.forEach(warn -> {
+                if (warn.getExpiresAt() <= now || warn.getId() > highWaterMark) {
+                    return;
+                }
+                try {
+                    out.writeInt(warn.getId());
+                    out.writeLong(warn.getUserId());
+                    out.writeLong(warn.getModeratorId());
+                    out.writeLong(warn.getTimestamp());
+                    out.writeLong(warn.getExpiresAt());
+                    if (warn.getReason() == null) {
+                        out.writeInt(-1);
+                    } else {
+                        byte[] reason = warn.getReason().getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(reason.length);
+                        out.write(reason);
+                    }
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        byte[] body = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putLong(0, MAGIC)
+                .putInt(OFF_VERSION, VERSION)
+                .putInt(OFF_COUNT, count[0])
+                .putLong(OFF_CREATED_AT, now)
+                .putLong(OFF_HIGH_WATER_MARK, highWaterMark)
+                .putLong(OFF_PAYLOAD_LENGTH, body.length)
+                .putInt(OFF_PAYLOAD_CRC, (int) crc.getValue());
+        crc.reset();
+        crc.update(header.array(), 0, OFF_HEADER_CRC);
+        header.putInt(OFF_HEADER_CRC, (int) crc.getValue());
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] buffers = {header, ByteBuffer.wrap(body)};
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count[0];
+    }
+
+    /**
+     * Monta o índice a partir do snapshot e dos warns aplicados depois dele
+     * @return null se não houver snapshot ou se ele estiver corrompido ou desatualizado
+     *         (o motivo vai para o log); quem chama faz a carga completa
+     */
+    static ActiveWarnIndex restore(Path path, WarnDAO dao) throws SQLException {
+        if (!Files.isRegularFile(path)) {
+            BotLogger.info("Sem snapshot do índice de warns em " + path + "; carga completa");
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        ActiveWarnIndex index = new ActiveWarnIndex();
+        long highWaterMark;
+        long createdAt;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                BotLogger.warn("Snapshot do índice de warns com tamanho inválido; carga completa");
+                return null;
+            }
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            String problem = validate(file);
+            if (problem != null) {
+                BotLogger.warn("Snapshot do índice de warns inválido (" + problem + "); carga completa");
+                return null;
+            }
+
+            highWaterMark = file.getLong(OFF_HIGH_WATER_MARK);
+            createdAt = file.getLong(OFF_CREATED_AT);
+            int count = file.getInt(OFF_COUNT);
+            index.raiseHighWaterMark(highWaterMark);
+
+            // o que expirou desde o snapshot fica de fora; o resto tem que bater com o banco
+            int kept = 0;
+            long idSum = 0;
+            long maxExpiresAt = 0;
+            for (Warn warn : readWarns(file.position(HEADER_SIZE), count)) {
+                if (warn.getExpiresAt() > now) {
+                    index.add(warn, now);
+                    kept++;
+                    idSum += warn.getId();
+                    maxExpiresAt = Math.max(maxExpiresAt, warn.getExpiresAt());
+                }
+            }
+
+            String expected = WarnDAO.fingerprint(kept, idSum, maxExpiresAt);
+            String actual = dao.fingerprintActiveWarns(now, highWaterMark);
+            if (!expected.equals(actual)) {
+                BotLogger.warn("Snapshot do índice de warns desatualizado (snapshot " + expected
+                        + ", banco " + actual + "); carga completa");
+                return null;
+            }
+
+        } catch (IOException | BufferUnderflowException e) {
+            BotLogger.warn("Erro ao ler snapshot do índice de warns (" + e.getMessage() + "); carga completa");
+            return null;
+        }
+
+        int replayed = dao.forEachActiveWarn(now, highWaterMark, warn -> index.add(warn, now));
+        BotLogger.info(String.format("Índice de warns ativos restaurado do snapshot (de %d min atrás): %d warns + %d novos (ID > %d)",
+                (now - createdAt) / 60_000, index.getWarnCount() - replayed, replayed, highWaterMark));
+        return index;
+    }
+
+    /**
+     * @return descrição do problema, ou null se o arquivo estiver íntegro
+     */
+    private static String validate(MappedByteBuffer file) {
+        if (file.getLong(0) != MAGIC) {
+            return "magic";
+        }
+        if (file.getInt(OFF_VERSION) != VERSION) {
+            return "versão " + file.getInt(OFF_VERSION);
+        }
+
+        byte[] header = new byte[OFF_HEADER_CRC];
+        file.get(0, header);
+        CRC32 crc = new CRC32();
+        crc.update(header);
+        if ((int) crc.getValue() != file.getInt(OFF_HEADER_CRC)) {
+            return "checksum do cabeçalho";
+        }
+
+        if (file.getLong(OFF_PAYLOAD_LENGTH) != file.capacity() - HEADER_SIZE) {
+            return "tamanho";
+        }
+        crc.reset();
+        crc.update(file.slice(HEADER_SIZE, file.capacity() - HEADER_SIZE));
+        if ((int) crc.getValue() != file.getInt(OFF_PAYLOAD_CRC)) {
+            return "checksum do conteúdo";
+        }
+        return null;
+    }
+
+    private static List<Warn> readWarns(ByteBuffer buffer, int count) {
+        List<Warn> warns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = buffer.getInt();
+            long userId = buffer.getLong();
+            long moderatorId = buffer.getLong();
+            long timestamp = buffer.getLong();
+            long expiresAt = buffer.getLong();
+            int length = buffer.getInt();
+
+            String reason = null;
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                reason = new String(bytes, StandardCharsets.UTF_8);
+            }
+            warns.add(new Warn(id, userId, moderatorId, reason, timestamp, expiresAt));
+        }
+        return warns;
+    }
+}
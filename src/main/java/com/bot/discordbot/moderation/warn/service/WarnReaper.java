@@ -0,0 +1,165 @@
+package com.bot.discordbot.moderation.warn.service;
+
+import com.bot.discordbot.database.Database;
+import com.bot.discordbot.moderation.warn.dao.WarnStatistics;
+import com.bot.discordbot.util.BotLogger;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remove warns expirados em segundo plano, fora do caminho dos comandos.
+ * Apaga em lotes limitados com pausa entre eles, então nunca segura locks por muito tempo
+ * nem disputa o banco com os moderadores. As leituras já filtram por expires_at,
+ * então a remoção é só limpeza: atrasar não muda nenhum resultado.
+ */
+public class WarnReaper {
+
+    private static final Object RUN_LOCK = new Object();
+    private static ScheduledExecutorService scheduler;
+
+    private static int chunkSize = 1000;
+    private static long pauseMillis = 200;
+
+    // ==================== MÉTRICAS ====================
+
+    private static final AtomicLong totalReaped = new AtomicLong();
+    private static final AtomicLong totalRuns = new AtomicLong();
+    private static final AtomicLong totalNanos = new AtomicLong();
+    private static volatile long lastRunAt;
+    private static volatile long lastRunReaped;
+    private static volatile long lastRunMillis;
+
+    /**
+     * Agenda a remoção periódica numa única thread de baixa prioridade
+     */
+    public static synchronized void start(int intervalMinutes, int chunk, int pauseMs) {
+        if (scheduler != null) {
+            BotLogger.warn("WarnReaper já está rodando");
+            return;
+        }
+
+        chunkSize = Math.max(1, chunk);
+        pauseMillis = Math.max(0, pauseMs);
+        long interval = Math.max(1, intervalMinutes);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "WarnReaper");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(WarnReaper::runSafely, 1, interval, TimeUnit.MINUTES);
+
+        BotLogger.info(String.format("WarnReaper agendado (a cada %d min, lotes de %d, pausa de %dms)",
+                interval, chunkSize, pauseMillis));
+    }
+
+    private static void runSafely() {
+        try {
+            reapNow();
+        } catch (Exception e) {
+            BotLogger.error("Erro na remoção de warns expirados", e);
+        }
+        WarnService.evictExpiredFromIndex();
+        WarnService.saveActiveIndexSnapshot();
+        WarnedUserFilter.save();
+
+        // aproveita a rodada para renovar as estatísticas do /debug e do /metrics
+        if (!Database.isInitialized()) {
+            return;
+        }
+        try {
+            WarnStatistics.refresh(WarnService.getActiveIndex());
+        } catch (Exception e) {
+            BotLogger.error("Erro ao atualizar estatísticas de warns", e);
+        }
+    }
+
+    /**
+     * Executa uma rodada completa agora (na thread atual)
+     * @return total de warns removidos
+     */
+    public static int reapNow() {
+        synchronized (RUN_LOCK) {
+            return reapChunks();
+        }
+    }
+
+    private static int reapChunks() {
+        long start = System.nanoTime();
+        long cutoff = System.currentTimeMillis();
+        int reaped = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            int deleted = WarnService.getRepository().purgeExpiredChunk(cutoff, chunkSize);
+            if (deleted <= 0) {
+                break;
+            }
+            reaped += deleted;
+
+            // lote incompleto: não sobrou nada expirado até o cutoff
+            if (deleted < chunkSize) {
+                break;
+            }
+
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        totalReaped.addAndGet(reaped);
+        totalRuns.incrementAndGet();
+        totalNanos.addAndGet(elapsedNanos);
+        lastRunAt = System.currentTimeMillis();
+        lastRunReaped = reaped;
+        lastRunMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+
+        if (reaped > 0) {
+            BotLogger.info(String.format("WarnReaper removeu %d warns expirados em %dms", reaped, lastRunMillis));
+        }
+        return reaped;
+    }
+
+    /**
+     * Resumo das métricas (usado pelo /debug)
+     */
+    public static String getStats() {
+        if (totalRuns.get() == 0) {
+            return "🧹 Reaper: nenhuma execução ainda";
+        }
+        return String.format("🧹 Reaper: %d removidos em %d execuções (%dms no total) | última: %d em %dms <t:%d:R>",
+                totalReaped.get(),
+                totalRuns.get(),
+                TimeUnit.NANOSECONDS.toMillis(totalNanos.get()),
+                lastRunReaped,
+                lastRunMillis,
+                lastRunAt / 1000);
+    }
+
+    public static long getTotalReaped() {
+        return totalReaped.get();
+    }
+
+    /**
+     * Interrompe a rodada atual (entre lotes) e encerra a thread
+     */
+    public static synchronized void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        try {
+            // espera o lote em andamento terminar antes do pool ser fechado
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+    }
+}
@@ -1,70 +1,214 @@
 package com.bot.discordbot.moderation.warn.service;
 
+import com.bot.discordbot.database.DatabaseExecutor;
 import com.bot.discordbot.moderation.warn.dao.WarnDAO;
+import com.bot.discordbot.moderation.warn.dao.WarnRepository;
 import com.bot.discordbot.moderation.warn.model.Warn;
+import com.bot.discordbot.moderation.warn.model.WarnPage;
+import com.bot.discordbot.moderation.warn.model.WarnResult;
 import com.bot.discordbot.util.BotLogger;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Serviço que gerencia a lógica de negócio relacionada aos warns
  * há validações, regras de expiração e aplicação de punições.
+ * O armazenamento é um {@link WarnRepository} definido na inicialização (PostgreSQL por padrão).
+ * Com o PostgreSQL, os warns ativos também ficam num {@link ActiveWarnIndex}, atualizado pelas escritas daqui.
  */
 public class WarnService {
 
+    private static volatile WarnRepository repository = new WarnDAO();
+    private static volatile ActiveWarnIndex activeIndex;
+    private static volatile Path activeIndexSnapshot;
+
     // ==================== CONSTANTES ====================
 
     private static final int MAX_REASON_LENGTH = 500;
     private static final int MAX_WARNS_BEFORE_BAN = 6;
+    public static final int WARN_PAGE_SIZE = 10;
+
+    // ==================== REGRAS DE EXPIRAÇÃO ====================
+
+    /**
+     * Duração do warn baseada na quantidade (aplicada pelo repositório em {@link WarnRepository#applyWarn})
+     *
+     * Regras:
+     * 1º warn -> 24 horas
+     * 2º warn -> 48 horas
+     * 3º warn -> 7 dias
+     * 4º warn -> 14 dias
+     * 5º warn em diante -> 30 dias
+     */
+    private static final long[] EXPIRATION_TIERS_MILLIS = {
+            Duration.ofHours(24).toMillis(),
+            Duration.ofHours(48).toMillis(),
+            Duration.ofDays(7).toMillis(),
+            Duration.ofDays(14).toMillis(),
+            Duration.ofDays(30).toMillis()
+    };
+
+    // ==================== REPOSITÓRIO ====================
+
+    /**
+     * Troca o armazenamento dos warns; chamar antes de o bot receber comandos
+     */
+    public static void setRepository(WarnRepository warnRepository) {
+        repository = warnRepository;
+        activeIndex = null;
+        WarnedUserFilter.disable();
+        BotLogger.info("Armazenamento de warns: " + warnRepository.getName());
+    }
+
+    public static WarnRepository getRepository() {
+        return repository;
+    }
+
+    // ==================== ÍNDICE DE ATIVOS ====================
+
+    /**
+     * Carrega os warns ativos do PostgreSQL no índice em memória; a partir daí contagem e lista
+     * de ativos não vão ao banco. Chamar antes de o bot receber comandos.
+     */
+    public static void loadActiveIndex() throws SQLException {
+        if (!(repository instanceof WarnDAO dao)) {
+            BotLogger.warn("Índice de warns ativos só se aplica ao PostgreSQL; ignorado");
+            return;
+        }
+
+        ActiveWarnIndex index = new ActiveWarnIndex();
+        long now = System.currentTimeMillis();
+        int loaded = dao.forEachActiveWarn(now, 0, warn -> index.add(warn, now));
+        activeIndex = index;
+
+        BotLogger.info(String.format("Índice de warns ativos carregado: %d warns de %d usuários (~%d KB)",
+                loaded, index.getUserCount(), index.estimateBytes() / 1024));
+    }
+
+    /**
+     * Como {@link #loadActiveIndex()}, mas parte do snapshot em {@code snapshot} quando ele é válido
+     * e está em dia com o banco; o mesmo arquivo passa a ser regravado por {@link #saveActiveIndexSnapshot()}
+     */
+    public static void restoreActiveIndex(Path snapshot) throws SQLException {
+        if (!(repository instanceof WarnDAO dao)) {
+            BotLogger.warn("Índice de warns ativos só se aplica ao PostgreSQL; ignorado");
+            return;
+        }
+
+        activeIndexSnapshot = snapshot;
+        ActiveWarnIndex restored = ActiveWarnSnapshot.restore(snapshot, dao);
+        if (restored == null) {
+            loadActiveIndex();
+        } else {
+            activeIndex = restored;
+        }
+    }
+
+    /**
+     * Grava o snapshot do índice (no desligamento e a cada rodada do {@link WarnReaper})
+     */
+    public static void saveActiveIndexSnapshot() {
+        ActiveWarnIndex index = activeIndex;
+        Path snapshot = activeIndexSnapshot;
+        if (index == null || snapshot == null) {
+            return;
+        }
+
+        try {
+            long start = System.nanoTime();
+            int saved = ActiveWarnSnapshot.write(index, snapshot);
+            BotLogger.debug("Snapshot do índice de warns gravado: {} warns em {}ms",
+                    saved, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            BotLogger.error("Erro ao gravar snapshot do índice de warns", e);
+        }
+    }
+
+    /**
+     * null se o índice estiver desligado
+     */
+    public static ActiveWarnIndex getActiveIndex() {
+        return activeIndex;
+    }
+
+    /**
+     * Libera do índice os warns já expirados (chamado pelo {@link WarnReaper})
+     */
+    static void evictExpiredFromIndex() {
+        ActiveWarnIndex index = activeIndex;
+        if (index != null) {
+            int evicted = index.evictExpired(System.currentTimeMillis());
+            if (evicted > 0) {
+                BotLogger.debug("{} warns expirados saíram do índice", evicted);
+            }
+        }
+    }
+
+    // ==================== FILTRO DE USUÁRIOS ====================
+
+    /**
+     * Monta o {@link WarnedUserFilter}: a partir daí consultas de quem nunca recebeu warn
+     * não vão ao banco. Chamar antes de o bot receber comandos.
+     * @param file onde persistir o filtro (null = reconstrói a cada inicialização)
+     */
+    public static void loadWarnedUserFilter(int expectedUsers, double falsePositiveRate, Path file)
+            throws SQLException {
+        if (!(repository instanceof WarnDAO dao)) {
+            BotLogger.warn("Filtro de usuários com warns só se aplica ao PostgreSQL; ignorado");
+            return;
+        }
+        WarnedUserFilter.initialize(dao, expectedUsers, falsePositiveRate, file);
+    }
 
     // ==================== PÚBLICO ====================
 
     /**
-     * Adiciona um warn a um usuário com todas as validações necessárias
+     * Adiciona um warn a um usuário com todas as validações necessárias.
+     * Contagem, cálculo da expiração e inserção acontecem em uma única ida ao banco.
      */
-    public static boolean addWarn(String userId, String moderatorId, String reason, Guild guild) {
+    public static WarnResult addWarn(long userId, long moderatorId, String reason, Guild guild) {
         BotLogger.debug("=== INÍCIO addWarn ===");
-        BotLogger.debug("userId: " + userId);
-        BotLogger.debug("moderatorId: " + moderatorId);
-        BotLogger.debug("reason: " + reason);
+        BotLogger.debug("userId: {}", userId);
+        BotLogger.debug("moderatorId: {}", moderatorId);
+        BotLogger.debug("reason: {}", reason);
 
         // validações
         if (!validateWarnInput(userId, reason)) {
             BotLogger.error("Validação de input falhou");
-            return false;
+            return WarnResult.failed();
         }
 
-        // limpa os warns expirados antes de contar
-        int purged = WarnDAO.purgeExpiredWarns();
-        BotLogger.debug("Warns expirados removidos: " + purged);
-
-        // verifica warns atuais
-        int currentWarns = WarnDAO.countActiveWarns(userId);
-        int newWarnCount = currentWarns + 1;
-        BotLogger.debug("Warns atuais: " + currentWarns + " | Novo count: " + newWarnCount);
-
-        // calcula timestamps
+        // persiste no banco (warns expirados não entram na contagem, então não precisa purgar antes)
         long now = System.currentTimeMillis();
-        long expiresAt = calculateExpirationMillis(newWarnCount, now);
-        BotLogger.debug("Timestamp now: " + now);
-        BotLogger.debug("Expira em: " + expiresAt);
-        BotLogger.debug("Diferença (ms): " + (expiresAt - now));
-
-        // persiste no banco
-        boolean success = WarnDAO.addWarn(userId, moderatorId, reason, now, expiresAt);
-        BotLogger.debug("Persistência no banco: " + (success ? "SUCESSO" : "FALHA"));
+        WarnResult result = repository.applyWarn(userId, moderatorId, reason, now, EXPIRATION_TIERS_MILLIS);
+        BotLogger.debug("Persistência no banco: {}", result);
+
+        if (result.isSuccess()) {
+            int newWarnCount = result.getWarnCount();
+            if (BotLogger.isDebugEnabled()) {
+                // longs seriam boxeados, então só monta a mensagem com debug ligado
+                BotLogger.debug("Expira em: " + result.getExpiresAt() + " (+" + (result.getExpiresAt() - now) + "ms)");
+            }
 
-        if (success) {
-            // verifica se realmente foi salvo
-            int verifyCount = WarnDAO.countActiveWarns(userId);
-            BotLogger.debug("Verificação pós-inserção: " + verifyCount + " warns ativos");
+            WarnedUserFilter.add(userId);
+            ActiveWarnIndex index = activeIndex;
+            if (index != null) {
+                // moderador <= 0 é gravado como NULL e lido de volta como 0
+                index.add(new Warn(result.getWarnId(), userId, Math.max(0, moderatorId), reason,
+                        now, result.getExpiresAt()), now);
+            }
 
-            BotLogger.moderation("WARN", userId, moderatorId, reason);
-            BotLogger.info(String.format("Warn %d/%d aplicado ao usuário %s",
+            BotLogger.moderation("WARN", String.valueOf(userId), String.valueOf(moderatorId), reason);
+            BotLogger.info(String.format("Warn %d/%d aplicado ao usuário %d",
                     newWarnCount, MAX_WARNS_BEFORE_BAN, userId));
 
             // aplica punição automática de forma assíncrona
@@ -76,43 +220,88 @@ public class WarnService {
         }
 
         BotLogger.debug("=== FIM addWarn ===");
-        return success;
+        return result;
+    }
+
+    /**
+     * Conta warns ativos de um usuário
+     */
+    public static int countActiveWarns(long userId) {
+        ActiveWarnIndex index = activeIndex;
+        if (index != null && userId > 0) {
+            return index.count(userId, System.currentTimeMillis());
+        }
+        if (!WarnedUserFilter.mightHaveWarns(userId)) {
+            return 0;
+        }
+        int count = repository.countActiveWarns(userId);
+        if (count == 0) {
+            WarnedUserFilter.recordEmptyPositive();
+        }
+        return count;
+    }
+
+    /**
+     * Uma página dos warns de um usuário (só ativos, ou o histórico), do mais recente ao mais antigo;
+     * com o índice, a página de ativos sai da memória
+     * @param cursor borda da página atual; null = primeira página
+     */
+    public static WarnPage getWarnPage(long userId, boolean activeOnly, WarnPage.Cursor cursor) {
+        if (userId <= 0) {
+            BotLogger.warn("Tentativa de buscar página de warns com userId inválido");
+            return WarnPage.empty();
+        }
+        ActiveWarnIndex index = activeIndex;
+        if (activeOnly && index != null) {
+            List<Warn> active = index.get(userId, System.currentTimeMillis());
+            return pageOrFirst(cursor, c -> WarnPage.slice(active, c, WARN_PAGE_SIZE));
+        }
+        if (!WarnedUserFilter.mightHaveWarns(userId)) {
+            return WarnPage.empty();
+        }
+        return readWarnPage(userId, activeOnly, cursor);
     }
 
     /**
-     * Retorna warns ativos de um usuário
+     * Leitura no armazenamento depois de o filtro responder "talvez"
      */
-    public static List<Warn> getActiveWarns(String userId) {
-        if (userId == null || userId.isEmpty()) {
-            BotLogger.warn("Tentativa de buscar warns com userId inválido");
-            return List.of();
+    private static WarnPage readWarnPage(long userId, boolean activeOnly, WarnPage.Cursor cursor) {
+        WarnPage page = pageOrFirst(cursor, c -> repository.getWarnPage(userId, activeOnly, c, WARN_PAGE_SIZE));
+        if (page.getTotal() == 0) {
+            WarnedUserFilter.recordEmptyPositive();
         }
-        return WarnDAO.getActiveWarns(userId);
+        return page;
     }
 
     /**
-     * Retorna o histórico de warns
+     * Lê a página do cursor; se ela veio vazia mas o usuário ainda tem warns (removidos ou expirados
+     * no meio da navegação), volta para a primeira, senão a mensagem ficaria sem linhas e sem botões
      */
-    public static List<Warn> getWarnHistory(String userId) {
-        if (userId == null || userId.isEmpty()) {
-            BotLogger.warn("Tentativa de buscar histórico com userId inválido");
-            return List.of();
+    private static WarnPage pageOrFirst(WarnPage.Cursor cursor, Function<WarnPage.Cursor, WarnPage> reader) {
+        WarnPage page = reader.apply(cursor);
+        if (cursor != null && page.isEmpty() && page.getTotal() > 0) {
+            page = reader.apply(null);
         }
-        return WarnDAO.getWarnHistory(userId);
+        return page;
     }
 
     /**
      * Remove todos os warns de um usuário
      */
-    public static int clearUserWarns(String userId) {
-        if (userId == null || userId.isEmpty()) {
+    public static int clearUserWarns(long userId) {
+        if (userId <= 0) {
             BotLogger.warn("Tentativa de limpar warns com userId inválido");
             return 0;
         }
 
-        int removed = WarnDAO.clearUserWarns(userId);
+        int removed = repository.clearUserWarns(userId);
         if (removed > 0) {
-            BotLogger.moderation("WARN_CLEAR", userId, "SYSTEM",
+            // 0 também é o retorno de erro no banco: aí os warns continuam lá, e no índice
+            ActiveWarnIndex index = activeIndex;
+            if (index != null) {
+                index.removeUser(userId);
+            }
+            BotLogger.moderation("WARN_CLEAR", String.valueOf(userId), "SYSTEM",
                     removed + " warns removidos");
         }
         return removed;
@@ -122,7 +311,11 @@ public class WarnService {
      * Remove um warn específico por ID
      */
     public static boolean removeWarnById(int warnId) {
-        boolean success = WarnDAO.removeWarnById(warnId);
+        boolean success = repository.removeWarnById(warnId);
+        ActiveWarnIndex index = activeIndex;
+        if (success && index != null) {
+            index.removeWarn(warnId);
+        }
         if (success) {
             BotLogger.info("Warn ID " + warnId + " removido manualmente");
         }
@@ -130,14 +323,41 @@ public class WarnService {
     }
 
     /**
-     * Limpa warns expirados do sistema
+     * Limpa warns expirados do sistema agora, em lotes (normalmente feito pelo {@link WarnReaper})
      */
     public static int purgeExpiredWarns() {
-        int purged = WarnDAO.purgeExpiredWarns();
-        if (purged > 0) {
-            BotLogger.info("Purge automático removeu " + purged + " warns expirados");
+        return WarnReaper.reapNow();
+    }
+
+    // ==================== ASSÍNCRONO ====================
+    // mesmas regras dos métodos acima, executadas no DatabaseExecutor;
+    // usados pelos comandos para que nenhuma thread do JDA espere pelo armazenamento
+
+    /**
+     * Versão assíncrona de {@link #addWarn}
+     */
+    public static CompletableFuture<WarnResult> addWarnAsync(long userId, long moderatorId,
+                                                          String reason, Guild guild) {
+        return DatabaseExecutor.supplyAsync(() -> addWarn(userId, moderatorId, reason, guild));
+    }
+
+    public static CompletableFuture<WarnPage> getWarnPageAsync(long userId, boolean activeOnly, WarnPage.Cursor cursor) {
+        // página do índice ou "sem warns" garantido pelo filtro: responde na própria thread
+        if (userId <= 0 || (activeOnly && activeIndex != null)) {
+            return CompletableFuture.completedFuture(getWarnPage(userId, activeOnly, cursor));
+        }
+        if (!WarnedUserFilter.mightHaveWarns(userId)) {
+            return CompletableFuture.completedFuture(WarnPage.empty());
         }
-        return purged;
+        return DatabaseExecutor.supplyAsync(() -> readWarnPage(userId, activeOnly, cursor));
+    }
+
+    public static CompletableFuture<Integer> clearUserWarnsAsync(long userId) {
+        return DatabaseExecutor.supplyAsync(() -> clearUserWarns(userId));
+    }
+
+    public static CompletableFuture<Boolean> removeWarnByIdAsync(int warnId) {
+        return DatabaseExecutor.supplyAsync(() -> removeWarnById(warnId));
     }
 
     // ==================== VALIDAÇÕES ====================
@@ -145,9 +365,9 @@ public class WarnService {
     /**
      * Valida entrada de dados para warn
      */
-    private static boolean validateWarnInput(String userId, String reason) {
-        if (userId == null || userId.isEmpty()) {
-            BotLogger.error("userId nulo ou vazio ao adicionar warn");
+    private static boolean validateWarnInput(long userId, String reason) {
+        if (userId <= 0) {
+            BotLogger.error("userId inválido ao adicionar warn");
             return false;
         }
 
@@ -175,13 +395,13 @@ public class WarnService {
 
         // bots não recebem warns
         if (member.getUser().isBot()) {
-            BotLogger.debug("Bot detectado, ignorando warn: " + member.getId());
+            BotLogger.debug("Bot detectado, ignorando warn: {}", member.getId());
             return false;
         }
 
         // staff não recebe warns
         if (hasModeratorPermissions(member)) {
-            BotLogger.debug("Membro com permissões de moderação, ignorando warn: " + member.getId());
+            BotLogger.debug("Membro com permissões de moderação, ignorando warn: {}", member.getId());
             return false;
         }
 
@@ -198,51 +418,23 @@ public class WarnService {
                 member.hasPermission(Permission.ADMINISTRATOR);
     }
 
-    // ==================== REGRAS DE EXPIRAÇÃO ====================
-
-    /**
-     * Calcula quando o warn deve expirar baseado na quantidade
-     *
-     * Regras:
-     * 1º warn -> 24 horas
-     * 2º warn -> 48 horas
-     * 3º warn -> 7 dias
-     * 4º warn -> 14 dias
-     * 5º warn -> 30 dias
-     */
-    private static long calculateExpirationMillis(int warnCount, long referenceTime) {
-        Duration duration = switch (warnCount) {
-            case 1 -> Duration.ofHours(24);
-            case 2 -> Duration.ofHours(48);
-            case 3 -> Duration.ofDays(7);
-            case 4 -> Duration.ofDays(14);
-            default -> Duration.ofDays(30);
-        };
-
-        long expiresAt = referenceTime + duration.toMillis();
-        BotLogger.debug(String.format("Warn %d expirará em: %s",
-                warnCount, duration.toString()));
-
-        return expiresAt;
-    }
-
     // ==================== PUNIÇÕES AUTOMÁTICAS ====================
 
     /**
      * Aplica punições
      */
-    private static void applyPunishmentAsync(int warnCount, String targetUserId, Guild guild) {
+    private static void applyPunishmentAsync(int warnCount, long targetUserId, Guild guild) {
         if (guild == null) {
             BotLogger.warn("Guild nula, não foi possível aplicar punição");
             return;
         }
 
-        BotLogger.debug("Iniciando aplicação assíncrona de punição para warn #" + warnCount);
+        BotLogger.debug("Iniciando aplicação assíncrona de punição para warn #{}", warnCount);
 
         // busca o membro de forma assíncrona
         guild.retrieveMemberById(targetUserId).queue(
                 target -> {
-                    BotLogger.debug("Membro encontrado para punição: " + target.getEffectiveName());
+                    BotLogger.debug("Membro encontrado para punição: {}", target.getEffectiveName());
 
                     // não pune bots ou staff
                     if (!canReceiveWarn(target)) {
@@ -0,0 +1,294 @@
+package com.bot.discordbot.moderation.warn.service;
+
+import com.bot.discordbot.moderation.warn.dao.WarnDAO;
+import com.bot.discordbot.util.BotLogger;
+import com.bot.discordbot.util.LongBloomFilter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Filtro de Bloom com todo user_id que já apareceu em warns: um "não" responde "sem warns"
+ * sem ir ao banco; um "talvez" segue o caminho normal. Usuários só entram (warns removidos ou
+ * expirados continuam no filtro), então um "não" nunca está errado.
+ *
+ * Persistido em arquivo (cabeçalho, CRC32 e os bits) no desligamento e a cada rodada do WarnReaper.
+ * Na inicialização o arquivo é carregado e completado com os warns de ID acima do maior ID da
+ * última carga; sem arquivo válido, com outro dimensionamento ou com o banco recriado, é reconstruído
+ * lendo o user_id de todos os warns.
+ *
+ * Só recebe os usuários dos warns aplicados por este processo (via WarnService): um warn gravado por
+ * outra instância no mesmo banco não entra, e o "não" passa a estar errado. Com mais de uma
+ * instância no mesmo banco, deixe warn.bloom.enabled=false.
+ */
+public class WarnedUserFilter {
+
+    private static final long MAGIC = 0x57424C4F4F4D3031L;     // "WBLOOM01"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+
+    // magic | version | crc (de tudo a partir de OFF_EXPECTED) | esperados | taxa | maior ID
+    private static final int OFF_VERSION = 8;
+    private static final int OFF_CRC = 12;
+    private static final int OFF_EXPECTED = 16;
+    private static final int OFF_RATE = 24;
+    private static final int OFF_HIGH_WATER_MARK = 32;
+
+    private static volatile LongBloomFilter filter;    // null = desligado: tudo é "talvez"
+    private static volatile long highWaterMark;
+    private static WarnDAO dao;
+    private static Path path;
+    private static long expectedUsers;
+    private static double falsePositiveRate;
+
+    // ==================== MÉTRICAS ====================
+
+    private static final LongAdder negatives = new LongAdder();
+    private static final LongAdder positives = new LongAdder();
+    private static final LongAdder emptyPositives = new LongAdder();
+
+    /**
+     * Carrega ou reconstrói o filtro; chamar antes de o bot receber comandos
+     * @param file onde persistir (null = reconstrói a cada inicialização)
+     */
+    public static synchronized void initialize(WarnDAO warnDAO, long expected, double rate, Path file)
+            throws SQLException {
+        dao = warnDAO;
+        path = file;
+        expectedUsers = expected;
+        falsePositiveRate = rate;
+
+        long start = System.nanoTime();
+        LongBloomFilter loaded = file != null ? load(file) : null;
+        if (loaded == null) {
+            rebuild();
+            return;
+        }
+        if (warnDAO.getMaxWarnId() < highWaterMark) {
+            BotLogger.warn("Filtro de usuários com warns é de um banco anterior (IDs recomeçaram); reconstruindo");
+            rebuild();
+            return;
+        }
+
+        long[] read = {0};
+        long previous = highWaterMark;
+        filter = loaded;
+        highWaterMark = warnDAO.forEachWarnedUser(previous, userId -> {
+            loaded.add(userId);
+            read[0]++;
+        });
+
+        BotLogger.info(String.format("Filtro de usuários com warns carregado de %s: +%d warns desde o ID %d (%dms)",
+                file, read[0], previous, (System.nanoTime() - start) / 1_000_000));
+    }
+
+    /**
+     * Refaz o filtro lendo todos os warns (inicialização sem arquivo válido, ou depois de um reset do banco)
+     */
+    public static synchronized void rebuild() throws SQLException {
+        if (dao == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        LongBloomFilter fresh = new LongBloomFilter(expectedUsers, falsePositiveRate);
+        long[] read = {0};
+        long scanned = dao.forEachWarnedUser(0, userId -> {
+            fresh.add(userId);
+            read[0]++;
+        });
+
+        // warns aplicados durante a leitura foram para o filtro antigo: relê o que passou do maior ID
+        filter = fresh;
+        highWaterMark = dao.forEachWarnedUser(scanned, userId -> {
+            fresh.add(userId);
+            read[0]++;
+        });
+
+        BotLogger.info(String.format("Filtro de usuários com warns reconstruído: %d warns lidos, %d KB, k=%d (%dms)",
+                read[0], fresh.getBitSize() / 8 / 1024, fresh.getHashCount(), (System.nanoTime() - start) / 1_000_000));
+        save();
+    }
+
+    /**
+     * Desliga o filtro (troca de armazenamento: ele só vale para o banco em que foi montado)
+     */
+    static synchronized void disable() {
+        filter = null;
+        dao = null;
+        path = null;
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * false = o usuário nunca recebeu warn (sem consultar o banco)
+     */
+    public static boolean mightHaveWarns(long userId) {
+        LongBloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(userId)) {
+            positives.increment();
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Um "talvez" que foi ao banco e não achou nada: falso positivo, ou warns já removidos
+     */
+    public static void recordEmptyPositive() {
+        if (filter != null) {
+            emptyPositives.increment();
+        }
+    }
+
+    public static void add(long userId) {
+        LongBloomFilter current = filter;
+        if (current != null) {
+            current.add(userId);
+        }
+    }
+
+    // ==================== PERSISTÊNCIA ====================
+
+    /**
+     * Grava o filtro no arquivo configurado (no desligamento e a cada rodada do {@link WarnReaper})
+     */
+    public static void save() {
+        LongBloomFilter current = filter;
+        Path file = path;
+        if (current == null || file == null) {
+            return;
+        }
+
+        // maior ID da última carga: o que entrou depois disso é relido na próxima inicialização
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + current.serializedSize());
+        buffer.putLong(0, MAGIC)
+                .putInt(OFF_VERSION, VERSION)
+                .putLong(OFF_EXPECTED, expectedUsers)
+                .putDouble(OFF_RATE, falsePositiveRate)
+                .putLong(OFF_HIGH_WATER_MARK, highWaterMark);
+        current.writeTo(buffer.position(HEADER_SIZE));
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), OFF_EXPECTED, buffer.capacity() - OFF_EXPECTED);
+        buffer.putInt(OFF_CRC, (int) crc.getValue());
+
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            BotLogger.error("Erro ao gravar filtro de usuários com warns", e);
+        }
+    }
+
+    /**
+     * @return filtro do arquivo (e {@link #highWaterMark} preenchido), ou null se não servir
+     */
+    private static LongBloomFilter load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                BotLogger.warn("Filtro de usuários com warns com tamanho inválido; reconstruindo");
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(OFF_EXPECTED, (int) size - OFF_EXPECTED));
+            if (buffer.getLong(0) != MAGIC || buffer.getInt(OFF_VERSION) != VERSION
+                    || buffer.getInt(OFF_CRC) != (int) crc.getValue()) {
+                BotLogger.warn("Filtro de usuários com warns corrompido ou de outra versão; reconstruindo");
+                return null;
+            }
+            if (buffer.getLong(OFF_EXPECTED) != expectedUsers || buffer.getDouble(OFF_RATE) != falsePositiveRate) {
+                BotLogger.info("Dimensionamento do filtro de usuários com warns mudou; reconstruindo");
+                return null;
+            }
+
+            LongBloomFilter loaded = LongBloomFilter.readFrom(buffer.position(HEADER_SIZE));
+            highWaterMark = buffer.getLong(OFF_HIGH_WATER_MARK);
+            return loaded;
+
+        } catch (IOException | IllegalArgumentException e) {
+            BotLogger.warn("Erro ao ler filtro de usuários com warns (" + e.getMessage() + "); reconstruindo");
+            return null;
+        }
+    }
+
+    // ==================== ESTADO ====================
+
+    public static boolean isEnabled() {
+        return filter != null;
+    }
+
+    public static long getNegativeCount() {
+        return negatives.sum();
+    }
+
+    public static long getPositiveCount() {
+        return positives.sum();
+    }
+
+    public static long getEmptyPositiveCount() {
+        return emptyPositives.sum();
+    }
+
+    /**
+     * Taxa de falsos positivos estimada pelo preenchimento (0 se desligado)
+     */
+    public static double getEstimatedFalsePositiveRate() {
+        LongBloomFilter current = filter;
+        return current != null ? current.getEstimatedFalsePositiveRate() : 0;
+    }
+
+    public static long getSizeBytes() {
+        LongBloomFilter current = filter;
+        return current != null ? current.getBitSize() / 8 : 0;
+    }
+
+    /**
+     * Resumo para o /debug
+     */
+    public static String getSummary() {
+        LongBloomFilter current = filter;
+        if (current == null) {
+            return "🌸 Filtro de usuários: desligado";
+        }
+
+        long negative = negatives.sum();
+        long positive = positives.sum();
+        return String.format("🌸 Filtro de usuários: %d de %d consultas sem banco | talvez sem warns: %d | FP estimado %.3f%% | %d KB, k=%d",
+                negative, negative + positive, emptyPositives.sum(),
+                current.getEstimatedFalsePositiveRate() * 100, current.getBitSize() / 8 / 1024, current.getHashCount());
+    }
+}
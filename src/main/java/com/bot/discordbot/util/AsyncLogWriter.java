@@ -0,0 +1,231 @@
+package com.bot.discordbot.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Backend assíncrono do {@link BotLogger}.
+ * As threads que logam apenas publicam eventos numa fila circular sem locks;
+ * uma única thread escritora formata, imprime no console e grava no arquivo em lotes.
+ */
+final class AsyncLogWriter {
+
+    /**
+     * O que fazer quando a fila está cheia
+     */
+    enum OverflowPolicy {
+        BLOCK,       // espera até ter espaço
+        DROP_DEBUG,  // descarta linhas DEBUG, espera nas demais
+        DROP_OLDEST; // descarta a linha mais antiga da fila
+
+        static OverflowPolicy parse(String value, OverflowPolicy defaultValue) {
+            if (value == null || value.isBlank()) {
+                return defaultValue;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                System.err.println("⚠️ Política de overflow de log inválida: " + value);
+                return defaultValue;
+            }
+        }
+    }
+
+    private static final int MAX_BATCH = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final LogRingBuffer<LogEvent> queue;
+    private final OverflowPolicy policy;
+    private final LogFile file; // null quando a escrita em arquivo está desabilitada
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final Thread writer;
+
+    private volatile boolean running = true;
+    private volatile boolean writerIdle = false;
+
+    // estado usado apenas pela thread escritora
+    private final StringBuilder consoleBatch = new StringBuilder(16 * 1024);
+    private final StringBuilder fileBatch = new StringBuilder(16 * 1024);
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedTimestamp;
+    private LocalDate cachedDate;
+
+    AsyncLogWriter(int capacity, OverflowPolicy policy, LogFile file) {
+        this.queue = new LogRingBuffer<>(capacity);
+        this.policy = policy;
+        this.file = file;
+
+        this.writer = new Thread(this::runWriter, "BotLogger-Writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Publica um evento na fila, aplicando a política de overflow se estiver cheia
+     */
+    void publish(LogEvent event) {
+        if (!queue.offer(event)) {
+            switch (policy) {
+                case DROP_OLDEST -> {
+                    while (!queue.offer(event)) {
+                        if (queue.poll() != null) {
+                            dropped.incrementAndGet();
+                        }
+                    }
+                }
+                case DROP_DEBUG -> {
+                    if (event.level == BotLogger.Level.DEBUG) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                    blockUntilQueued(event);
+                }
+                case BLOCK -> blockUntilQueued(event);
+            }
+        }
+
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void blockUntilQueued(LogEvent event) {
+        while (!queue.offer(event)) {
+            if (!running || Thread.currentThread() == writer) {
+                dropped.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+
+    // ==================== THREAD ESCRITORA ====================
+
+    private void runWriter() {
+        while (running || !queue.isEmpty()) {
+            if (drainBatch() == 0) {
+                writerIdle = true;
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerIdle = false;
+            }
+        }
+        if (file != null) {
+            file.close();
+        }
+    }
+
+    /**
+     * Consome até MAX_BATCH eventos e grava tudo de uma vez
+     */
+    private int drainBatch() {
+        int count = 0;
+        LocalDate batchDate = null;
+        LogEvent event;
+
+        while (count < MAX_BATCH && (event = queue.poll()) != null) {
+            String timestamp = timestampOf(event.epochMillis);
+
+            // virada do dia no meio do lote: grava o que já tem no arquivo anterior
+            if (batchDate != null && !batchDate.equals(cachedDate)) {
+                flush(batchDate);
+            }
+            batchDate = cachedDate;
+
+            String message = event.message();
+            BotLogger.appendConsoleLine(consoleBatch, timestamp, event.level, message);
+            BotLogger.appendFileLine(fileBatch, timestamp, event.level, message);
+            BotLogger.writeStructured(event);
+            count++;
+        }
+
+        if (count > 0) {
+            flush(batchDate);
+            written.addAndGet(count);
+        }
+        return count;
+    }
+
+    private void flush(LocalDate date) {
+        if (consoleBatch.length() > 0) {
+            System.out.print(consoleBatch);
+            System.out.flush();
+            consoleBatch.setLength(0);
+        }
+
+        if (file == null) {
+            fileBatch.setLength(0);
+        } else if (fileBatch.length() > 0) {
+            try {
+                byte[] bytes = fileBatch.toString().getBytes(StandardCharsets.UTF_8);
+                file.write(date, ByteBuffer.wrap(bytes));
+            } catch (IOException e) {
+                System.err.println("⚠️ Erro ao escrever log em arquivo: " + e.getMessage());
+            }
+            fileBatch.setLength(0);
+        }
+    }
+
+    /**
+     * Formata o timestamp reaproveitando o valor enquanto estiver no mesmo segundo
+     */
+    private String timestampOf(long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second != cachedSecond) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+            cachedSecond = second;
+            cachedTimestamp = BotLogger.formatTimestamp(time);
+            cachedDate = time.toLocalDate();
+        }
+        return cachedTimestamp;
+    }
+
+    // ==================== CICLO DE VIDA / ESTATÍSTICAS ====================
+
+    /**
+     * Para a thread escritora depois de esvaziar a fila
+     */
+    void shutdown(long timeoutMillis) {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    long getWrittenCount() {
+        return written.get();
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    int getCapacity() {
+        return queue.capacity();
+    }
+
+    OverflowPolicy getPolicy() {
+        return policy;
+    }
+}
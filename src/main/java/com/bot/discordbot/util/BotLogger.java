@@ -1,28 +1,45 @@
 package com.bot.discordbot.util;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * Sistema de logging centralizado para o bot.
  * Registra mensagens em console e arquivo.
+ * No modo assíncrono, as chamadas apenas publicam numa fila e uma thread dedicada escreve.
  */
 public class BotLogger {
 
     private static final DateTimeFormatter TIMESTAMP_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    private static final DateTimeFormatter FILE_DATE_FORMAT =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
     private static final Path LOG_DIR = Paths.get("logs");
+    private static final LogFile LOG_FILE = new LogFile(LOG_DIR, LogRollingPolicy.defaults());
     private static boolean fileLoggingEnabled = true;
 
+    private static volatile AsyncLogWriter asyncWriter;
+    private static volatile JsonLogSink jsonSink;
+
+    // nível mínimo, lido uma vez na inicialização e trocado em runtime via setLevel()
+    private static volatile Level minLevel = readInitialLevel();
+
+    // stack traces já impressos, por fingerprint (classe + frames)
+    private static final int MAX_FINGERPRINTS = 1024;
+    private static final long STACK_TRACE_REPEAT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final Map<Long, SeenStackTrace> SEEN_STACK_TRACES = new ConcurrentHashMap<>();
+
     static {
         try {
             if (!Files.exists(LOG_DIR)) {
@@ -35,18 +52,40 @@ public class BotLogger {
     }
 
     public enum Level {
-        INFO("ℹ️", "INFO"),
-        SUCCESS("✅", "SUCCESS"),
-        WARNING("⚠️", "WARN"),
-        ERROR("❌", "ERROR"),
-        DEBUG("🔍", "DEBUG");
+        INFO("ℹ️", "INFO", 1),
+        SUCCESS("✅", "SUCCESS", 1),
+        WARNING("⚠️", "WARN", 2),
+        ERROR("❌", "ERROR", 3),
+        DEBUG("🔍", "DEBUG", 0);
 
         private final String emoji;
         private final String label;
+        private final int severity;
 
-        Level(String emoji, String label) {
+        Level(String emoji, String label, int severity) {
             this.emoji = emoji;
             this.label = label;
+            this.severity = severity;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Converte texto (nome ou label, ex: "debug", "warn") para o nível
+         * @return null se não reconhecido
+         */
+        public static Level parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            for (Level level : values()) {
+                if (level.name().equalsIgnoreCase(value.trim()) || level.label.equalsIgnoreCase(value.trim())) {
+                    return level;
+                }
+            }
+            return null;
         }
     }
 
@@ -54,21 +93,27 @@ public class BotLogger {
      * Registra mensagem de informação
      */
     public static void info(String message) {
-        log(Level.INFO, message);
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, message);
+        }
     }
 
     /**
      * Registra mensagem de sucesso
      */
     public static void success(String message) {
-        log(Level.SUCCESS, message);
+        if (isEnabled(Level.SUCCESS)) {
+            log(Level.SUCCESS, message);
+        }
     }
 
     /**
      * Registra mensagem de aviso
      */
     public static void warn(String message) {
-        log(Level.WARNING, message);
+        if (isEnabled(Level.WARNING)) {
+            log(Level.WARNING, message);
+        }
     }
 
     /**
@@ -79,11 +124,57 @@ public class BotLogger {
     }
 
     /**
-     * Registra mensagem de erro com exceção
+     * Registra mensagem de erro com exceção.
+     * O stack trace completo só é impresso na primeira vez (e depois a cada 5 minutos);
+     * repetições da mesma exceção registram apenas a linha com o fingerprint e a contagem.
      */
     public static void error(String message, Throwable throwable) {
-        log(Level.ERROR, message + " - " + throwable.getMessage());
-        throwable.printStackTrace();
+        long fingerprint = fingerprint(throwable);
+        long now = System.currentTimeMillis();
+
+        if (SEEN_STACK_TRACES.size() >= MAX_FINGERPRINTS) {
+            SEEN_STACK_TRACES.clear();
+        }
+        SeenStackTrace seen = SEEN_STACK_TRACES.computeIfAbsent(fingerprint, key -> new SeenStackTrace());
+        long occurrences = seen.count.incrementAndGet();
+        long lastPrinted = seen.lastPrinted;
+
+        if (occurrences == 1 || now - lastPrinted >= STACK_TRACE_REPEAT_MILLIS) {
+            seen.lastPrinted = now;
+            log(Level.ERROR, message + " - " + throwable.getMessage()
+                    + String.format(" [trace %08x]", (int) fingerprint));
+            throwable.printStackTrace();
+        } else {
+            log(Level.ERROR, message + " - " + throwable.getMessage()
+                    + String.format(" [trace %08x repetido, %d ocorrências]", (int) fingerprint, occurrences));
+        }
+    }
+
+    /**
+     * Fingerprint da exceção: classes e frames (classe, método, linha) de toda a cadeia de causas.
+     * A mensagem fica de fora, pois costuma conter IDs que mudam a cada ocorrência.
+     */
+    private static long fingerprint(Throwable throwable) {
+        long hash = 1125899906842597L;
+        int depth = 0;
+
+        for (Throwable current = throwable; current != null && depth < 8; current = current.getCause(), depth++) {
+            hash = 31 * hash + current.getClass().getName().hashCode();
+            for (StackTraceElement frame : current.getStackTrace()) {
+                hash = 31 * hash + frame.getClassName().hashCode();
+                hash = 31 * hash + frame.getMethodName().hashCode();
+                hash = 31 * hash + frame.getLineNumber();
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return hash;
+    }
+
+    private static final class SeenStackTrace {
+        final AtomicLong count = new AtomicLong();
+        volatile long lastPrinted;
     }
 
     /**
@@ -95,71 +186,380 @@ public class BotLogger {
         }
     }
 
+    /**
+     * Debug com mensagem construída só se o nível estiver ativo
+     */
+    public static void debug(Supplier<String> message) {
+        if (isDebugEnabled()) {
+            log(Level.DEBUG, message.get());
+        }
+    }
+
+    /**
+     * Debug parametrizado: cada {} é substituído pelo argumento correspondente.
+     * Com debug desligado nada é formatado nem alocado.
+     */
+    public static void debug(String pattern, Object arg) {
+        if (isDebugEnabled()) {
+            log(Level.DEBUG, format(pattern, arg, null, null, 1));
+        }
+    }
+
+    public static void debug(String pattern, Object arg1, Object arg2) {
+        if (isDebugEnabled()) {
+            log(Level.DEBUG, format(pattern, arg1, arg2, null, 2));
+        }
+    }
+
+    public static void debug(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (isDebugEnabled()) {
+            log(Level.DEBUG, format(pattern, arg1, arg2, arg3, 3));
+        }
+    }
+
+    public static void debug(String pattern, Object... args) {
+        if (isDebugEnabled()) {
+            log(Level.DEBUG, format(pattern, args));
+        }
+    }
+
+    // versões com long (IDs do Discord, contagens): o boxing só acontece com debug ligado
+
+    public static void debug(String pattern, long arg) {
+        if (isDebugEnabled()) {
+            log(Level.DEBUG, format(pattern, arg, null, null, 1));
+        }
+    }
+
+    public static void debug(String pattern, long arg1, long arg2) {
+        if (isDebugEnabled()) {
+            log(Level.DEBUG, format(pattern, arg1, arg2, null, 2));
+        }
+    }
+
+    // ==================== LIMITE DE VOLUME ====================
+
+    /**
+     * Log limitado por token bucket: até {@code permits} mensagens por janela neste ponto de chamada.
+     * O excedente é contado e resumido periodicamente.
+     *
+     * @param site nome do ponto de chamada (aparece no resumo, ex: "welcome.join")
+     */
+    public static ThrottledLog rateLimited(String site, int permits, Duration window) {
+        return ThrottledLog.rateLimited(site, permits, window);
+    }
+
+    /**
+     * Log amostrado: registra 1 a cada {@code everyN} mensagens (sempre a primeira)
+     */
+    public static ThrottledLog sampled(String site, int everyN) {
+        return ThrottledLog.sampled(site, everyN);
+    }
+
+    // ==================== NÍVEL ====================
+
+    /**
+     * Verifica se mensagens do nível informado seriam registradas.
+     * ERROR é sempre registrado.
+     */
+    public static boolean isEnabled(Level level) {
+        return level.severity >= minLevel.severity || level == Level.ERROR;
+    }
+
+    /**
+     * Verifica se modo debug está ativo (leitura de um campo volátil)
+     */
+    public static boolean isDebugEnabled() {
+        return minLevel == Level.DEBUG;
+    }
+
+    public static Level getLevel() {
+        return minLevel;
+    }
+
+    /**
+     * Troca o nível mínimo em runtime (ex: via /debug action:loglevel)
+     */
+    public static void setLevel(Level level) {
+        if (level == null) {
+            return;
+        }
+        Level previous = minLevel;
+        minLevel = level;
+        if (previous != level) {
+            log(Level.INFO, "Nível de log alterado: " + previous.label + " -> " + level.label);
+        }
+    }
+
     /**
      * Log principal
      */
     private static void log(Level level, String message) {
-        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-        String formattedMessage = String.format("[%s] %s %s: %s",
-                timestamp,
-                level.emoji,
-                level.label,
-                message
-        );
+        log(LogEvent.message(level, message));
+    }
+
+    private static void log(LogEvent event) {
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null) {
+            writer.publish(event);
+            return;
+        }
+
+        Level level = event.level;
+        String message = event.message();
+        LocalDateTime now = LocalDateTime.now();
+        String timestamp = formatTimestamp(now);
 
         // console
-        System.out.println(formattedMessage);
+        StringBuilder consoleLine = new StringBuilder(timestamp.length() + message.length() + 16);
+        appendConsoleLine(consoleLine, timestamp, level, message);
+        System.out.print(consoleLine);
 
         // arquivo
         if (fileLoggingEnabled) {
-            writeToFile(timestamp, level, message);
+            writeToFile(now, timestamp, level, message);
+        }
+
+        // JSON
+        writeStructured(event);
+    }
+
+    /**
+     * Envia o evento ao sink JSON, se ativo
+     */
+    static void writeStructured(LogEvent event) {
+        JsonLogSink sink = jsonSink;
+        if (sink != null) {
+            sink.write(event);
         }
     }
 
     /**
      * Escreve log em arquivo
      */
-    private static void writeToFile(String timestamp, Level level, String message) {
+    private static void writeToFile(LocalDateTime now, String timestamp, Level level, String message) {
         try {
-            String date = LocalDateTime.now().format(FILE_DATE_FORMAT);
-            Path logFile = LOG_DIR.resolve("bot-" + date + ".log");
-
-            String logLine = String.format("[%s] [%s] %s%n", timestamp, level.label, message);
+            StringBuilder logLine = new StringBuilder(timestamp.length() + message.length() + 16);
+            appendFileLine(logLine, timestamp, level, message);
 
-            Files.writeString(logFile, logLine,
-                    StandardOpenOption.CREATE,
-                    StandardOpenOption.APPEND
-            );
+            LOG_FILE.write(now.toLocalDate(),
+                    ByteBuffer.wrap(logLine.toString().getBytes(StandardCharsets.UTF_8)));
         } catch (IOException e) {
             System.err.println("⚠️ Erro ao escrever log em arquivo: " + e.getMessage());
         }
     }
 
+    // ==================== FORMATAÇÃO ====================
+
+    static String format(String pattern, Object arg1, Object arg2, Object arg3, int argCount) {
+        StringBuilder sb = new StringBuilder(pattern.length() + 32);
+        int start = 0;
+        int argIndex = 0;
+        int placeholder;
+
+        while (argIndex < argCount && (placeholder = pattern.indexOf("{}", start)) >= 0) {
+            Object arg = argIndex == 0 ? arg1 : argIndex == 1 ? arg2 : arg3;
+            sb.append(pattern, start, placeholder).append(arg);
+            start = placeholder + 2;
+            argIndex++;
+        }
+
+        return sb.append(pattern, start, pattern.length()).toString();
+    }
+
+    private static String format(String pattern, Object[] args) {
+        StringBuilder sb = new StringBuilder(pattern.length() + 32);
+        int start = 0;
+        int argIndex = 0;
+        int placeholder;
+
+        while (args != null && argIndex < args.length && (placeholder = pattern.indexOf("{}", start)) >= 0) {
+            sb.append(pattern, start, placeholder).append(args[argIndex++]);
+            start = placeholder + 2;
+        }
+
+        return sb.append(pattern, start, pattern.length()).toString();
+    }
+
+    static String formatTimestamp(LocalDateTime time) {
+        return time.format(TIMESTAMP_FORMAT);
+    }
+
+    /**
+     * Linha de console: [timestamp] emoji LABEL: mensagem
+     */
+    static void appendConsoleLine(StringBuilder sb, String timestamp, Level level, String message) {
+        sb.append('[').append(timestamp).append("] ")
+                .append(level.emoji).append(' ')
+                .append(level.label).append(": ")
+                .append(message).append(System.lineSeparator());
+    }
+
+    /**
+     * Linha de arquivo: [timestamp] [LABEL] mensagem
+     */
+    static void appendFileLine(StringBuilder sb, String timestamp, Level level, String message) {
+        sb.append('[').append(timestamp).append("] [")
+                .append(level.label).append("] ")
+                .append(message).append(System.lineSeparator());
+    }
+
+    // ==================== MODO ASSÍNCRONO ====================
+
+    /**
+     * Ativa o modo assíncrono: log() passa a só publicar numa fila limitada,
+     * e uma thread dedicada grava em lotes
+     *
+     * @param capacity tamanho da fila (arredondado para potência de 2)
+     * @param overflowPolicy BLOCK, DROP_DEBUG ou DROP_OLDEST
+     */
+    public static synchronized void enableAsync(int capacity, String overflowPolicy) {
+        if (asyncWriter != null) {
+            warn("Logger assíncrono já está ativo");
+            return;
+        }
+
+        AsyncLogWriter.OverflowPolicy policy =
+                AsyncLogWriter.OverflowPolicy.parse(overflowPolicy, AsyncLogWriter.OverflowPolicy.DROP_DEBUG);
+
+        asyncWriter = new AsyncLogWriter(capacity, policy, fileLoggingEnabled ? LOG_FILE : null);
+
+        info(String.format("Logger assíncrono ativado (fila: %d, overflow: %s)",
+                asyncWriter.getCapacity(), policy));
+    }
+
+    /**
+     * Esvazia a fila e encerra a thread escritora (chamar no shutdown)
+     */
+    public static synchronized void shutdown() {
+        ThrottledLog.flushAll();
+
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null) {
+            writer.shutdown(5000);
+            asyncWriter = null;
+        }
+        JsonLogSink sink = jsonSink;
+        if (sink != null) {
+            jsonSink = null;
+            sink.close();
+        }
+        LOG_FILE.close();
+        LOG_FILE.getArchiver().shutdown(5000);
+    }
+
+    // ==================== SINK JSON ====================
+
     /**
-     * Verifica se modo debug está ativo
+     * Ativa o sink estruturado (logs/bot-events-*.jsonl, um objeto JSON por linha)
+     *
+     * @param segmentMegabytes tamanho pré-alocado de cada segmento mapeado em memória
      */
-    private static boolean isDebugEnabled() {
+    public static synchronized void enableJsonSink(int segmentMegabytes) {
+        if (jsonSink != null || !fileLoggingEnabled) {
+            return;
+        }
+        jsonSink = new JsonLogSink(LOG_DIR, segmentMegabytes * 1024 * 1024, LOG_FILE.getArchiver());
+        info("Sink JSON ativado (segmentos de " + segmentMegabytes + " MB)");
+    }
+
+    // ==================== ROTAÇÃO ====================
+
+    /**
+     * Define a política de rotação/retenção dos arquivos de log.
+     * Também agenda o arquivamento de logs antigos que ficaram de execuções anteriores.
+     */
+    public static void setRollingPolicy(LogRollingPolicy policy) {
+        if (policy == null || !fileLoggingEnabled) {
+            return;
+        }
+        LOG_FILE.setRollingPolicy(policy);
+        info("Rotação de logs: " + policy);
+    }
+
+    /**
+     * Quantidade de linhas descartadas pela política de overflow
+     */
+    public static long getDroppedCount() {
+        AsyncLogWriter writer = asyncWriter;
+        return writer != null ? writer.getDroppedCount() : 0;
+    }
+
+    /**
+     * Linhas esperando na fila do logger assíncrono (0 no modo síncrono)
+     */
+    public static int getQueueDepth() {
+        AsyncLogWriter writer = asyncWriter;
+        return writer != null ? writer.getQueueSize() : 0;
+    }
+
+    public static int getQueueCapacity() {
+        AsyncLogWriter writer = asyncWriter;
+        return writer != null ? writer.getCapacity() : 0;
+    }
+
+    /**
+     * Resumo do estado do logger (usado pelo /debug)
+     */
+    public static String getStats() {
+        AsyncLogWriter writer = asyncWriter;
+        LogArchiver archiver = LOG_FILE.getArchiver();
+        String rolling = String.format("🗜️ Rotação: %d arquivos comprimidos | %d apagados pela retenção",
+                archiver.getCompressedCount(), archiver.getDeletedCount());
+
+        JsonLogSink sink = jsonSink;
+        if (sink != null) {
+            rolling += "\n🧾 JSON: " + sink.getWrittenCount() + " eventos";
+        }
+
+        if (writer == null) {
+            return "📝 Logger: síncrono\n" + rolling;
+        }
+
+        return String.format(
+                "📝 Logger: assíncrono | fila %d/%d | %d escritas | %d descartadas (%s)%n%s",
+                writer.getQueueSize(),
+                writer.getCapacity(),
+                writer.getWrittenCount(),
+                writer.getDroppedCount(),
+                writer.getPolicy(),
+                rolling
+        );
+    }
+
+    /**
+     * Nível inicial: DEBUG se o modo debug estiver ativo, senão INFO
+     */
+    private static Level readInitialLevel() {
         // verifica a variável de ambiente primeiro
         String debugEnv = System.getenv("DEBUG");
         if ("true".equalsIgnoreCase(debugEnv) || "1".equals(debugEnv)) {
-            return true;
+            return Level.DEBUG;
         }
 
         // verifica system property, pois poderia ser setada via config
         String debugProp = System.getProperty("debug.enabled");
         if ("true".equalsIgnoreCase(debugProp)) {
-            return true;
+            return Level.DEBUG;
         }
 
-        return false;
+        return Level.INFO;
     }
 
     /**
      * Log de comando executado
      */
     public static void commandExecuted(String commandName, String userId, String username) {
-        info(String.format("Comando /%s executado por %s (ID: %s)",
-                commandName, username, userId));
+        commandExecuted(commandName, userId, username, null, -1);
+    }
+
+    /**
+     * Log de comando executado com guild e duração (-1 se desconhecida)
+     */
+    public static void commandExecuted(String commandName, String userId, String username,
+                                       String guildId, long durationMs) {
+        if (!isEnabled(Level.INFO)) return;
+        log(LogEvent.command(commandName, userId, username, guildId, durationMs));
     }
 
     /**
@@ -174,18 +574,30 @@ public class BotLogger {
      * Log de ação de moderação
      */
     public static void moderation(String action, String targetId, String moderatorId, String reason) {
-        info(String.format("Moderação: %s aplicado em %s por %s - Motivo: %s",
-                action, targetId, moderatorId, reason));
+        if (!isEnabled(Level.INFO)) return;
+        log(LogEvent.moderation(action, targetId, moderatorId, reason));
     }
 
     /**
      * Log de database
      */
     public static void database(String operation, boolean success) {
-        if (success) {
-            debug("Database: " + operation + " - Sucesso");
-        } else {
-            error("Database: " + operation + " - Falha");
-        }
+        database(operation, null, success);
+    }
+
+    /**
+     * Log de database com detalhe (ex: ID), formatado apenas se for registrado
+     */
+    public static void database(String operation, Object detail, boolean success) {
+        if (success && !isDebugEnabled()) return;
+        log(LogEvent.database(operation, detail, success));
+    }
+
+    /**
+     * Log de database com ID numérico, sem boxing quando não for registrado
+     */
+    public static void database(String operation, long detail, boolean success) {
+        if (success && !isDebugEnabled()) return;
+        log(LogEvent.database(operation, detail, success));
     }
 }
\ No newline at end of file
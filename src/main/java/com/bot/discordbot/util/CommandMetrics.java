@@ -0,0 +1,208 @@
+package com.bot.discordbot.util;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latências e erros por comando slash.
+ *
+ * Para cada comando guarda três {@link LatencyHistogram}:
+ * <ul>
+ *   <li>ack: da criação da interação (timestamp do snowflake) até o bot confirmar (reply/deferReply)</li>
+ *   <li>resposta: da criação da interação até a resposta final chegar ao Discord</li>
+ *   <li>banco: tempo das chamadas ao banco feitas pelo comando, incluindo a espera por conexão</li>
+ * </ul>
+ * Ack e resposta usam o relógio do Discord como início, então incluem o atraso do gateway
+ * (o que o usuário percebe) e têm resolução de milissegundos.
+ * Os comandos são registrados no início; depois disso, registrar uma medida é só um get
+ * no mapa e incrementos atômicos, sem alocação.
+ */
+public final class CommandMetrics {
+
+    private static final long DISCORD_EPOCH = 1420070400000L;
+
+    /**
+     * Causa de um erro, para os contadores
+     */
+    public enum Cause {
+        DATABASE("banco"),
+        TIMEOUT("timeout"),
+        DISCORD("discord"),
+        UNAVAILABLE("banco indisponível"),
+        INTERNAL("interno");
+
+        private final String label;
+
+        Cause(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Classifica uma exceção (desembrulhando as de CompletableFuture); o que não é banco
+         * nem timeout conta como interno. Falhas de chamadas ao Discord são informadas por quem as faz.
+         */
+        public static Cause of(Throwable error) {
+            Throwable cause = error;
+            while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                    && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof SQLTimeoutException || cause instanceof TimeoutException) {
+                return TIMEOUT;
+            }
+            if (cause instanceof SQLException) {
+                return DATABASE;
+            }
+            return INTERNAL;
+        }
+    }
+
+    /**
+     * Medidas de um comando; os getters leem os contadores sem travar
+     */
+    public static final class CommandStats {
+        private final AtomicLong calls = new AtomicLong();
+        private final LatencyHistogram ack = new LatencyHistogram();
+        private final LatencyHistogram response = new LatencyHistogram();
+        private final LatencyHistogram database = new LatencyHistogram();
+        private final AtomicLongArray errors = new AtomicLongArray(Cause.values().length);
+
+        private CommandStats() {
+        }
+
+        public long getCalls() {
+            return calls.get();
+        }
+
+        public LatencyHistogram getAck() {
+            return ack;
+        }
+
+        public LatencyHistogram getResponse() {
+            return response;
+        }
+
+        public LatencyHistogram getDatabase() {
+            return database;
+        }
+
+        public long getErrors(Cause cause) {
+            return errors.get(cause.ordinal());
+        }
+    }
+
+    private static final Map<String, CommandStats> COMMANDS = new ConcurrentHashMap<>();
+
+    private CommandMetrics() {
+    }
+
+    /**
+     * Cria as estruturas do comando; medidas de comandos não registrados são ignoradas
+     */
+    public static void register(String command) {
+        COMMANDS.computeIfAbsent(command, name -> new CommandStats());
+    }
+
+    // ==================== REGISTRO ====================
+
+    public static void recordCall(String command) {
+        CommandStats entry = COMMANDS.get(command);
+        if (entry != null) {
+            entry.calls.incrementAndGet();
+        }
+    }
+
+    /**
+     * Interação confirmada agora; {@code interactionId} é o snowflake da interação
+     */
+    public static void recordAck(String command, long interactionId) {
+        CommandStats entry = COMMANDS.get(command);
+        if (entry != null) {
+            entry.ack.record(sinceCreation(interactionId));
+        }
+    }
+
+    /**
+     * Resposta final entregue agora
+     */
+    public static void recordResponse(String command, long interactionId) {
+        CommandStats entry = COMMANDS.get(command);
+        if (entry != null) {
+            entry.response.record(sinceCreation(interactionId));
+        }
+    }
+
+    public static void recordDatabase(String command, long nanos) {
+        CommandStats entry = COMMANDS.get(command);
+        if (entry != null) {
+            entry.database.recordNanos(nanos);
+        }
+    }
+
+    public static void recordError(String command, Cause cause) {
+        CommandStats entry = COMMANDS.get(command);
+        if (entry != null) {
+            entry.errors.incrementAndGet(cause.ordinal());
+        }
+    }
+
+    private static long sinceCreation(long snowflake) {
+        long createdAt = (snowflake >>> 22) + DISCORD_EPOCH;
+        return (System.currentTimeMillis() - createdAt) * 1000;
+    }
+
+    // ==================== LEITURA ====================
+
+    /**
+     * Comandos registrados, em ordem alfabética
+     */
+    public static Map<String, CommandStats> getAll() {
+        return new TreeMap<>(COMMANDS);
+    }
+
+    /**
+     * Resumo dos comandos já usados (usado pelo /debug action:metrics)
+     */
+    public static String render() {
+        StringBuilder sb = new StringBuilder();
+        Cause[] causes = Cause.values();
+
+        for (Map.Entry<String, CommandStats> item : getAll().entrySet()) {
+            CommandStats entry = item.getValue();
+            long calls = entry.getCalls();
+            if (calls == 0) {
+                continue;
+            }
+
+            sb.append("**/").append(item.getKey()).append("** — ").append(calls).append(" chamadas");
+            StringBuilder errors = new StringBuilder();
+            for (Cause cause : causes) {
+                long count = entry.getErrors(cause);
+                if (count > 0) {
+                    errors.append(errors.length() == 0 ? "" : ", ").append(cause.getLabel()).append(' ').append(count);
+                }
+            }
+            sb.append(errors.length() == 0 ? ", sem erros" : " | erros: " + errors).append('\n');
+            sb.append("ack: ").append(entry.ack.summary()).append('\n');
+            sb.append("resposta: ").append(entry.response.summary()).append('\n');
+            if (entry.database.getCount() > 0) {
+                sb.append("banco: ").append(entry.database.summary()).append('\n');
+            }
+            sb.append('\n');
+        }
+
+        return sb.length() == 0 ? "_(nenhum comando executado ainda)_" : sb.toString().trim();
+    }
+}
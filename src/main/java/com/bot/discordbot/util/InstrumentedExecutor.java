@@ -0,0 +1,144 @@
+package com.bot.discordbot.util;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor com limite de concorrência e métricas de fila.
+ *
+ * Cada tarefa vai direto para o executor de baixo (normalmente uma virtual thread por tarefa) e espera
+ * uma vaga num semáforo antes de rodar: esperar numa virtual thread é barato, e o limite impede que uma
+ * rajada de eventos abra mais trabalho simultâneo do que o banco e a API aguentam.
+ * Mede quantas tarefas estão na fila e rodando, e quanto tempo cada uma esperou pela vaga.
+ */
+public final class InstrumentedExecutor extends AbstractExecutorService {
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * @param name nome exibido nas métricas
+     * @param maxConcurrency tarefas rodando ao mesmo tempo; as demais esperam na fila
+     */
+    public InstrumentedExecutor(String name, ExecutorService delegate, int maxConcurrency) {
+        this.name = name;
+        this.delegate = delegate;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.permits = new Semaphore(this.maxConcurrency);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long submittedAt = System.nanoTime();
+        queued.incrementAndGet();
+
+        delegate.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                queued.decrementAndGet();
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long waited = System.nanoTime() - submittedAt;
+            queued.decrementAndGet();
+            running.incrementAndGet();
+            started.incrementAndGet();
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                failed.incrementAndGet();
+                throw e;
+            } finally {
+                running.decrementAndGet();
+                permits.release();
+                completed.incrementAndGet();
+            }
+        });
+    }
+
+    // ==================== MÉTRICAS ====================
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    public int getRunningCount() {
+        return running.get();
+    }
+
+    public String getStats() {
+        long begun = started.get();
+        return String.format("%s: %d/%d rodando | %d na fila | espera média %.2fms, máx %.2fms | %d executadas, %d falhas",
+                name,
+                running.get(),
+                maxConcurrency,
+                queued.get(),
+                begun == 0 ? 0.0 : totalWaitNanos.get() / (double) begun / 1_000_000,
+                maxWaitNanos.get() / 1_000_000.0,
+                completed.get(),
+                failed.get());
+    }
+
+    // ==================== CICLO DE VIDA ====================
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,311 @@
+package com.bot.discordbot.util;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sink estruturado: um objeto JSON por linha em logs/bot-events-yyyy-MM-dd.N.jsonl.
+ * Cada segmento é pré-alocado e mapeado em memória; o evento é codificado direto em bytes
+ * num buffer reutilizado (sem String intermediária por campo) e copiado para o mapeamento.
+ * Quando o segmento enche ou o dia muda, ele é truncado ao tamanho real e arquivado.
+ */
+final class JsonLogSink {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final int MAX_EVENT_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final LogArchiver archiver;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final ByteBuffer encodeBuffer = ByteBuffer.allocate(MAX_EVENT_BYTES);
+    private final AtomicLong written = new AtomicLong();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private Path segmentPath;
+    private LocalDate segmentDate;
+
+    JsonLogSink(Path directory, int segmentBytes, LogArchiver archiver) {
+        this.directory = directory;
+        this.segmentBytes = Math.max(MAX_EVENT_BYTES, segmentBytes);
+        this.archiver = archiver;
+        recoverSegments();
+    }
+
+    /**
+     * Codifica e grava um evento
+     */
+    synchronized void write(LogEvent event) {
+        try {
+            encode(event);
+
+            LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(event.epochMillis), zone);
+            if (segment == null || !date.equals(segmentDate) || segment.remaining() < encodeBuffer.remaining()) {
+                openNextSegment(date);
+            }
+
+            segment.put(encodeBuffer);
+            written.incrementAndGet();
+
+        } catch (BufferOverflowException e) {
+            // evento maior que o buffer de codificação: descarta só ele
+            System.err.println("⚠️ Evento de log grande demais para o sink JSON, descartado");
+        } catch (IOException e) {
+            System.err.println("⚠️ Erro ao escrever log JSON: " + e.getMessage());
+            closeSegment();
+        }
+    }
+
+    // ==================== SEGMENTOS ====================
+
+    private void openNextSegment(LocalDate date) throws IOException {
+        closeSegment();
+
+        Path path;
+        int index = 1;
+        do {
+            path = directory.resolve("bot-events-" + date + "." + index++ + ".jsonl");
+        } while (Files.exists(path) || Files.exists(path.resolveSibling(path.getFileName() + ".gz")));
+
+        channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        );
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segmentPath = path;
+        segmentDate = date;
+        archiver.addActiveFile(path);
+    }
+
+    /**
+     * Trunca o segmento ao que foi escrito e entrega ao arquivamento
+     */
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+
+        Path closed = segmentPath;
+        try {
+            int used = segment.position();
+            segment.force();
+            try {
+                channel.truncate(used);
+            } catch (IOException e) {
+                // alguns sistemas não permitem truncar com o mapeamento ativo;
+                // o preenchimento com zeros é removido por recoverSegments() na próxima inicialização
+            }
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("⚠️ Erro ao fechar segmento de log JSON: " + e.getMessage());
+        }
+
+        channel = null;
+        segment = null;
+        segmentPath = null;
+        segmentDate = null;
+        archiver.removeActiveFile(closed);
+        archiver.archive(closed);
+    }
+
+    /**
+     * Remove o preenchimento de zeros de segmentos que não foram fechados (ex: crash)
+     */
+    private void recoverSegments() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "bot-events-*.jsonl")) {
+            for (Path file : files) {
+                try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    long end = trimmedLength(fc);
+                    if (end < fc.size()) {
+                        fc.truncate(end);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Erro ao recuperar segmentos de log JSON: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Procura, de trás para frente em blocos, o último byte diferente de zero
+     */
+    private static long trimmedLength(FileChannel fc) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+        long end = fc.size();
+
+        while (end > 0) {
+            long start = Math.max(0, end - chunk.capacity());
+            chunk.clear().limit((int) (end - start));
+            fc.read(chunk, start);
+
+            for (int i = chunk.position() - 1; i >= 0; i--) {
+                if (chunk.get(i) != 0) {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    synchronized void close() {
+        closeSegment();
+    }
+
+    long getWrittenCount() {
+        return written.get();
+    }
+
+    // ==================== CODIFICAÇÃO ====================
+
+    private void encode(LogEvent event) {
+        ByteBuffer buf = encodeBuffer;
+        buf.clear();
+
+        ascii(buf, "{\"ts\":");
+        number(buf, event.epochMillis);
+        ascii(buf, ",\"level\":\"");
+        ascii(buf, event.level.getLabel());
+        ascii(buf, "\",\"thread\":");
+        string(buf, event.thread);
+
+        switch (event.kind) {
+            case MESSAGE -> field(buf, "msg", event.message());
+            case COMMAND -> {
+                ascii(buf, ",\"event\":\"command\"");
+                field(buf, "command", event.command);
+                field(buf, "userId", event.userId);
+                field(buf, "username", event.username);
+                field(buf, "guildId", event.guildId);
+                if (event.durationMs >= 0) {
+                    ascii(buf, ",\"durationMs\":");
+                    number(buf, event.durationMs);
+                }
+            }
+            case MODERATION -> {
+                ascii(buf, ",\"event\":\"moderation\"");
+                field(buf, "action", event.action);
+                field(buf, "userId", event.userId);
+                field(buf, "moderatorId", event.moderatorId);
+                field(buf, "reason", event.reason);
+            }
+            case DATABASE -> {
+                ascii(buf, ",\"event\":\"database\"");
+                field(buf, "operation", event.operation);
+                if (event.detail instanceof Number n) {
+                    ascii(buf, ",\"detail\":");
+                    number(buf, n.longValue());
+                } else if (event.detail != null) {
+                    field(buf, "detail", event.detail.toString());
+                }
+                ascii(buf, event.success ? ",\"success\":true" : ",\"success\":false");
+            }
+        }
+
+        ascii(buf, "}\n");
+        buf.flip();
+    }
+
+    private static void field(ByteBuffer buf, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        buf.put((byte) ',').put((byte) '"');
+        ascii(buf, name);
+        buf.put((byte) '"').put((byte) ':');
+        string(buf, value);
+    }
+
+    private static void ascii(ByteBuffer buf, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buf.put((byte) value.charAt(i));
+        }
+    }
+
+    /**
+     * Escreve os dígitos direto no buffer (sem Long.toString)
+     */
+    private static void number(ByteBuffer buf, long value) {
+        if (value == Long.MIN_VALUE) {
+            ascii(buf, "-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            buf.put((byte) '-');
+            value = -value;
+        }
+
+        int start = buf.position();
+        do {
+            buf.put((byte) ('0' + (value % 10)));
+            value /= 10;
+        } while (value > 0);
+
+        // dígitos saíram invertidos
+        for (int i = start, j = buf.position() - 1; i < j; i++, j--) {
+            byte tmp = buf.get(i);
+            buf.put(i, buf.get(j));
+            buf.put(j, tmp);
+        }
+    }
+
+    /**
+     * String JSON com escape, codificada em UTF-8 caractere a caractere.
+     * Textos que não cabem no buffer são cortados.
+     */
+    private static void string(ByteBuffer buf, String value) {
+        buf.put((byte) '"');
+        int limit = buf.capacity() - 16;
+
+        for (int i = 0; i < value.length() && buf.position() < limit; i++) {
+            char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                buf.put((byte) '\\').put((byte) c);
+            } else if (c == '\n') {
+                buf.put((byte) '\\').put((byte) 'n');
+            } else if (c == '\r') {
+                buf.put((byte) '\\').put((byte) 'r');
+            } else if (c == '\t') {
+                buf.put((byte) '\\').put((byte) 't');
+            } else if (c < 0x20) {
+                buf.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                        .put(HEX[c >> 4]).put(HEX[c & 0xF]);
+            } else if (c < 0x80) {
+                buf.put((byte) c);
+            } else if (c < 0x800) {
+                buf.put((byte) (0xC0 | (c >> 6)))
+                        .put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buf.put((byte) (0xF0 | (cp >> 18)))
+                        .put((byte) (0x80 | ((cp >> 12) & 0x3F)))
+                        .put((byte) (0x80 | ((cp >> 6) & 0x3F)))
+                        .put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buf.put((byte) '?');
+            } else {
+                buf.put((byte) (0xE0 | (c >> 12)))
+                        .put((byte) (0x80 | ((c >> 6) & 0x3F)))
+                        .put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+
+        buf.put((byte) '"');
+    }
+}
@@ -0,0 +1,129 @@
+package com.bot.discordbot.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências em microssegundos, com memória fixa e sem locks.
+ *
+ * Buckets log-lineares: valores até 15µs têm bucket exato; acima disso, cada potência de 2
+ * é dividida em 8 faixas iguais, então o erro relativo de um percentil fica abaixo de 12,5%.
+ * 256 buckets cobrem de 0 a ~4 horas; valores maiores caem no último.
+ * {@link #record} só faz incrementos atômicos: não aloca nem trava.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR_LIMIT = 16;        // valores exatos abaixo disso
+    private static final int SUB_BUCKET_BITS = 3;      // 8 faixas por potência de 2
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 256;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Registra uma latência (valores negativos contam como 0)
+     */
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                break;
+            }
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        record(nanos / 1000);
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);   // >= 4
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        int index = LINEAR_LIMIT + (exponent - 4) * SUB_BUCKETS + subBucket;
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    /**
+     * Maior valor que cai no bucket (o percentil é reportado pelo limite superior)
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 4;
+        int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long base = 1L << exponent;
+        long width = base >>> SUB_BUCKET_BITS;
+        return base + (subBucket + 1) * width - 1;
+    }
+
+    // ==================== LEITURA ====================
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSum() {
+        return sum.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : sum.get() / (double) n;
+    }
+
+    /**
+     * @param percentile entre 0 e 100
+     * @return latência (µs) abaixo da qual está a fração pedida das amostras, limitada ao máximo visto
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * "p50 1.2 | p95 3.4 | p99 8.0 | máx 12.3 ms"
+     */
+    public String summary() {
+        if (count.get() == 0) {
+            return "sem amostras";
+        }
+        return String.format("p50 %.1f | p95 %.1f | p99 %.1f | máx %.1f ms",
+                getPercentile(50) / 1000.0,
+                getPercentile(95) / 1000.0,
+                getPercentile(99) / 1000.0,
+                max.get() / 1000.0);
+    }
+}
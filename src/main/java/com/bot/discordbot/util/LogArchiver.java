@@ -0,0 +1,229 @@
+package com.bot.discordbot.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Comprime e apaga arquivos de log rotacionados.
+ * Todo o trabalho roda numa thread de baixa prioridade, então quem escreve log
+ * só paga pelo rename do arquivo, nunca pela compressão.
+ */
+final class LogArchiver {
+
+    private final Path directory;
+    private volatile LogRollingPolicy policy;
+    private volatile Path activeFile;
+    private final Set<Path> otherActiveFiles = ConcurrentHashMap.newKeySet();
+    private ExecutorService executor;
+
+    private final AtomicLong compressed = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+
+    LogArchiver(Path directory, LogRollingPolicy policy) {
+        this.directory = directory;
+        this.policy = policy;
+    }
+
+    void setPolicy(LogRollingPolicy policy) {
+        this.policy = policy;
+    }
+
+    LogRollingPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Informa o arquivo em uso, que nunca é comprimido nem apagado
+     */
+    void setActiveFile(Path activeFile) {
+        this.activeFile = activeFile;
+    }
+
+    /**
+     * Arquivos em uso por outros sinks (ex: segmento JSON aberto)
+     */
+    void addActiveFile(Path file) {
+        otherActiveFiles.add(file);
+    }
+
+    void removeActiveFile(Path file) {
+        otherActiveFiles.remove(file);
+    }
+
+    private boolean isActive(Path file) {
+        return file.equals(activeFile) || otherActiveFiles.contains(file);
+    }
+
+    /**
+     * Agenda compressão (se ativa) e aplicação da retenção para um arquivo rotacionado
+     */
+    void archive(Path rolledFile) {
+        submit(() -> {
+            if (policy.isCompress()) {
+                compress(rolledFile);
+            }
+            applyRetention();
+        });
+    }
+
+    /**
+     * Arquiva arquivos que sobraram de execuções anteriores (exceto o ativo)
+     */
+    void archivePending() {
+        submit(() -> {
+            if (policy.isCompress()) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "bot-*.{log,jsonl}")) {
+                    for (Path file : files) {
+                        if (!isActive(file)) {
+                            compress(file);
+                        }
+                    }
+                } catch (IOException e) {
+                    System.err.println("⚠️ Erro ao listar logs pendentes: " + e.getMessage());
+                }
+            }
+            applyRetention();
+        });
+    }
+
+    private synchronized void submit(Runnable task) {
+        if (executor == null || executor.isShutdown()) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "BotLogger-Archiver");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+        executor.execute(task);
+    }
+
+    /**
+     * Comprime para .gz (via arquivo temporário, para nunca deixar um .gz pela metade)
+     */
+    private void compress(Path file) {
+        Path target = file.resolveSibling(file.getFileName() + ".gz");
+        Path temp = file.resolveSibling(file.getFileName() + ".gz.tmp");
+
+        try {
+            FileTime lastModified = Files.getLastModifiedTime(file);
+
+            try (InputStream in = Files.newInputStream(file);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+                in.transferTo(out);
+            }
+
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.setLastModifiedTime(target, lastModified);
+            Files.delete(file);
+            compressed.incrementAndGet();
+
+        } catch (IOException e) {
+            System.err.println("⚠️ Erro ao comprimir log " + file.getFileName() + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // o próximo arquivamento tenta de novo
+            }
+        }
+    }
+
+    /**
+     * Apaga os arquivos rotacionados mais antigos até respeitar os limites
+     */
+    private void applyRetention() {
+        LogRollingPolicy current = policy;
+        if (current.getMaxArchives() == 0 && current.getMaxTotalBytes() == 0) {
+            return;
+        }
+
+        List<Path> archives = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "bot-*.{log,log.gz,jsonl,jsonl.gz}")) {
+            for (Path file : files) {
+                if (!isActive(file)) {
+                    archives.add(file);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Erro ao listar logs arquivados: " + e.getMessage());
+            return;
+        }
+
+        archives.sort(Comparator.comparing(LogArchiver::lastModified));
+
+        long totalBytes = 0;
+        for (Path archive : archives) {
+            totalBytes += size(archive);
+        }
+
+        int index = 0;
+        while (index < archives.size()
+                && ((current.getMaxArchives() > 0 && archives.size() - index > current.getMaxArchives())
+                || (current.getMaxTotalBytes() > 0 && totalBytes > current.getMaxTotalBytes()))) {
+            Path oldest = archives.get(index++);
+            long size = size(oldest);
+            try {
+                Files.deleteIfExists(oldest);
+                totalBytes -= size;
+                deleted.incrementAndGet();
+            } catch (IOException e) {
+                System.err.println("⚠️ Erro ao apagar log antigo " + oldest.getFileName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Espera as compressões pendentes terminarem (chamado no shutdown)
+     */
+    synchronized void shutdown(long timeoutMillis) {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    long getCompressedCount() {
+        return compressed.get();
+    }
+
+    long getDeletedCount() {
+        return deleted.get();
+    }
+}
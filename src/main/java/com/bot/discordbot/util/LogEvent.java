@@ -0,0 +1,97 @@
+package com.bot.discordbot.util;
+
+/**
+ * Evento de log publicado pelo {@link BotLogger}.
+ * Carrega apenas os dados brutos: eventos tipados (comando, moderação, database)
+ * guardam os campos separados e só montam o texto se algum sink de texto pedir.
+ */
+final class LogEvent {
+
+    enum Kind {
+        MESSAGE,
+        COMMAND,
+        MODERATION,
+        DATABASE
+    }
+
+    final Kind kind;
+    final BotLogger.Level level;
+    final long epochMillis;
+    final String thread;
+
+    private String message; // montada sob demanda para eventos tipados
+
+    // ==================== CAMPOS TIPADOS ====================
+
+    String command;
+    String userId;
+    String username;
+    String guildId;
+    long durationMs = -1;
+
+    String action;
+    String moderatorId;
+    String reason;
+
+    String operation;
+    Object detail;
+    boolean success;
+
+    private LogEvent(Kind kind, BotLogger.Level level, String message) {
+        this.kind = kind;
+        this.level = level;
+        this.epochMillis = System.currentTimeMillis();
+        this.thread = Thread.currentThread().getName();
+        this.message = message;
+    }
+
+    static LogEvent message(BotLogger.Level level, String message) {
+        return new LogEvent(Kind.MESSAGE, level, message);
+    }
+
+    static LogEvent command(String command, String userId, String username, String guildId, long durationMs) {
+        LogEvent event = new LogEvent(Kind.COMMAND, BotLogger.Level.INFO, null);
+        event.command = command;
+        event.userId = userId;
+        event.username = username;
+        event.guildId = guildId;
+        event.durationMs = durationMs;
+        return event;
+    }
+
+    static LogEvent moderation(String action, String targetId, String moderatorId, String reason) {
+        LogEvent event = new LogEvent(Kind.MODERATION, BotLogger.Level.INFO, null);
+        event.action = action;
+        event.userId = targetId;
+        event.moderatorId = moderatorId;
+        event.reason = reason;
+        return event;
+    }
+
+    static LogEvent database(String operation, Object detail, boolean success) {
+        LogEvent event = new LogEvent(Kind.DATABASE,
+                success ? BotLogger.Level.DEBUG : BotLogger.Level.ERROR, null);
+        event.operation = operation;
+        event.detail = detail;
+        event.success = success;
+        return event;
+    }
+
+    /**
+     * Texto legível do evento (o mesmo formato usado antes dos campos tipados)
+     */
+    String message() {
+        if (message == null) {
+            message = switch (kind) {
+                case COMMAND -> "Comando /" + command + " executado por " + username + " (ID: " + userId + ")"
+                        + (durationMs >= 0 ? " em " + durationMs + "ms" : "");
+                case MODERATION -> "Moderação: " + action + " aplicado em " + userId + " por " + moderatorId
+                        + " - Motivo: " + reason;
+                case DATABASE -> "Database: " + operation + (detail != null ? " (" + detail + ")" : "")
+                        + (success ? " - Sucesso" : " - Falha");
+                case MESSAGE -> "";
+            };
+        }
+        return message;
+    }
+}
@@ -0,0 +1,134 @@
+package com.bot.discordbot.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Arquivo de log diário (logs/bot-yyyy-MM-dd.log).
+ * Mantém um único FileChannel aberto e só troca de arquivo quando o dia muda
+ * ou quando o tamanho máximo da {@link LogRollingPolicy} é atingido.
+ * Arquivos rotacionados são entregues ao {@link LogArchiver}.
+ */
+final class LogFile {
+
+    private final Path directory;
+    private final LogArchiver archiver;
+
+    private FileChannel channel;
+    private LocalDate currentDate;
+    private Path currentPath;
+    private long currentSize;
+
+    LogFile(Path directory, LogRollingPolicy policy) {
+        this.directory = directory;
+        this.archiver = new LogArchiver(directory, policy);
+    }
+
+    /**
+     * Escreve um bloco de bytes no arquivo do dia informado
+     */
+    synchronized void write(LocalDate date, ByteBuffer data) throws IOException {
+        if (channel != null) {
+            if (!date.equals(currentDate)) {
+                rollByDate();
+            } else if (archiver.getPolicy().exceedsSize(currentSize, data.remaining())) {
+                rollBySize();
+            }
+        }
+
+        if (channel == null) {
+            open(date);
+        }
+
+        while (data.hasRemaining()) {
+            currentSize += channel.write(data);
+        }
+    }
+
+    private void open(LocalDate date) throws IOException {
+        Path file = directory.resolve("bot-" + date + ".log");
+        channel = FileChannel.open(file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND
+        );
+        currentDate = date;
+        currentPath = file;
+        currentSize = channel.size();
+        archiver.setActiveFile(file);
+    }
+
+    /**
+     * Meia-noite: o arquivo do dia anterior fica completo e vai para o arquivamento
+     */
+    private void rollByDate() {
+        Path finished = currentPath;
+        close();
+        archiver.archive(finished);
+    }
+
+    /**
+     * Tamanho máximo: renomeia para bot-yyyy-MM-dd.N.log e abre um arquivo novo
+     */
+    private void rollBySize() throws IOException {
+        Path finished = currentPath;
+        LocalDate date = currentDate;
+        close();
+
+        Path rolled = nextRolledPath(date);
+        Files.move(finished, rolled, StandardCopyOption.ATOMIC_MOVE);
+        archiver.archive(rolled);
+    }
+
+    private Path nextRolledPath(LocalDate date) {
+        for (int index = 1; ; index++) {
+            Path candidate = directory.resolve("bot-" + date + "." + index + ".log");
+            Path compressed = directory.resolve(candidate.getFileName() + ".gz");
+            if (!Files.exists(candidate) && !Files.exists(compressed)) {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Troca a política de rotação e arquiva o que sobrou de execuções anteriores
+     */
+    synchronized void setRollingPolicy(LogRollingPolicy policy) {
+        archiver.setPolicy(policy);
+        archiver.setActiveFile(directory.resolve("bot-" + LocalDate.now() + ".log"));
+        archiver.archivePending();
+    }
+
+    LogRollingPolicy getRollingPolicy() {
+        return archiver.getPolicy();
+    }
+
+    LogArchiver getArchiver() {
+        return archiver;
+    }
+
+    /**
+     * Fecha o arquivo atual (se houver)
+     */
+    synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("⚠️ Erro ao fechar arquivo de log: " + e.getMessage());
+        }
+        channel = null;
+        currentDate = null;
+        currentPath = null;
+        currentSize = 0;
+    }
+}
@@ -0,0 +1,97 @@
+package com.bot.discordbot.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fila circular limitada e sem locks (múltiplos produtores, múltiplos consumidores).
+ * Cada posição tem um número de sequência que indica se está livre para escrita
+ * ou pronta para leitura, então produtores e consumidores só disputam um CAS.
+ */
+final class LogRingBuffer<E> {
+
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong(); // próxima posição a ler
+    private final AtomicLong tail = new AtomicLong(); // próxima posição a escrever
+
+    LogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.buffer = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Tenta inserir um elemento
+     * @return false se a fila estiver cheia
+     */
+    boolean offer(E element) {
+        long pos = tail.get();
+
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer[index] = element;
+                    sequences.set(index, pos + 1); // publica para o consumidor
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove o elemento mais antigo
+     * @return null se a fila estiver vazia
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long pos = head.get();
+
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    E element = (E) buffer[index];
+                    buffer[index] = null;
+                    sequences.set(index, pos + mask + 1); // libera para o produtor
+                    return element;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, buffer.length));
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.bot.discordbot.util;
+
+/**
+ * Política de rotação dos arquivos de log.
+ * O arquivo do dia é rotacionado quando passa do tamanho máximo ou quando o dia muda;
+ * arquivos rotacionados são comprimidos em segundo plano e os mais antigos são apagados
+ * quando a retenção (quantidade ou bytes totais) é ultrapassada.
+ */
+public final class LogRollingPolicy {
+
+    private static final long MB = 1024L * 1024L;
+
+    private final long maxFileBytes;
+    private final int maxArchives;
+    private final long maxTotalBytes;
+    private final boolean compress;
+
+    /**
+     * @param maxFileBytes tamanho máximo do arquivo ativo (0 = sem limite)
+     * @param maxArchives quantidade máxima de arquivos rotacionados mantidos (0 = sem limite)
+     * @param maxTotalBytes soma máxima dos arquivos rotacionados (0 = sem limite)
+     * @param compress comprime arquivos rotacionados com gzip
+     */
+    public LogRollingPolicy(long maxFileBytes, int maxArchives, long maxTotalBytes, boolean compress) {
+        this.maxFileBytes = Math.max(0, maxFileBytes);
+        this.maxArchives = Math.max(0, maxArchives);
+        this.maxTotalBytes = Math.max(0, maxTotalBytes);
+        this.compress = compress;
+    }
+
+    /**
+     * Padrão: 100 MB por arquivo, 30 arquivos ou 1 GB de histórico, comprimido
+     */
+    public static LogRollingPolicy defaults() {
+        return new LogRollingPolicy(100 * MB, 30, 1024 * MB, true);
+    }
+
+    public static LogRollingPolicy ofMegabytes(long maxFileMb, int maxArchives, long maxTotalMb, boolean compress) {
+        return new LogRollingPolicy(maxFileMb * MB, maxArchives, maxTotalMb * MB, compress);
+    }
+
+    /**
+     * Verifica se escrever mais {@code incoming} bytes estouraria o limite do arquivo
+     */
+    boolean exceedsSize(long currentSize, int incoming) {
+        return maxFileBytes > 0 && currentSize > 0 && currentSize + incoming > maxFileBytes;
+    }
+
+    long getMaxFileBytes() {
+        return maxFileBytes;
+    }
+
+    int getMaxArchives() {
+        return maxArchives;
+    }
+
+    long getMaxTotalBytes() {
+        return maxTotalBytes;
+    }
+
+    boolean isCompress() {
+        return compress;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("máx %s por arquivo, %s arquivos, %s no total%s",
+                maxFileBytes > 0 ? (maxFileBytes / MB) + " MB" : "∞",
+                maxArchives > 0 ? String.valueOf(maxArchives) : "∞",
+                maxTotalBytes > 0 ? (maxTotalBytes / MB) + " MB" : "∞",
+                compress ? ", gzip" : "");
+    }
+}
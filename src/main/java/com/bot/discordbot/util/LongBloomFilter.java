@@ -0,0 +1,138 @@
+package com.bot.discordbot.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de chaves long: "não contém" é garantido, "contém" pode ser falso positivo.
+ *
+ * Os bits ficam num AtomicLongArray, então inclusões e consultas concorrentes não precisam de trava.
+ * As k posições saem de dois hashes (h1 + i*h2), que dão a mesma taxa de falsos positivos
+ * de k hashes independentes.
+ */
+public final class LongBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+
+    /**
+     * Dimensiona para {@code expectedInsertions} chaves com taxa de falsos positivos {@code falsePositiveRate}
+     */
+    public LongBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+
+        // m = -n ln p / (ln 2)^2 ; k = m/n ln 2
+        long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+        this.words = new AtomicLongArray(words);
+        this.bitSize = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    private LongBloomFilter(long[] words, int hashCount) {
+        this.words = new AtomicLongArray(words);
+        this.bitSize = (long) words.length * 64;
+        this.hashCount = hashCount;
+    }
+
+    public void add(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1) | 1;    // ímpar: não repete posição dentro de um ciclo
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                word = words.get(index);
+            }
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Fração de bits ligados
+     */
+    public double getFillRatio() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return (double) set / bitSize;
+    }
+
+    /**
+     * Taxa de falsos positivos estimada pelo preenchimento atual: fill^k
+     */
+    public double getEstimatedFalsePositiveRate() {
+        return Math.pow(getFillRatio(), hashCount);
+    }
+
+    // ==================== SERIALIZAÇÃO ====================
+
+    /**
+     * Bytes de {@link #writeTo}
+     */
+    public int serializedSize() {
+        return 8 + words.length() * 8;
+    }
+
+    /**
+     * Grava quantidade de hashes, quantidade de palavras e os bits (cópia palavra a palavra:
+     * inclusões concorrentes podem ou não entrar, nunca corrompem)
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(hashCount);
+        buffer.putInt(words.length());
+        for (int i = 0; i < words.length(); i++) {
+            buffer.putLong(words.get(i));
+        }
+    }
+
+    /**
+     * Lê o formato de {@link #writeTo}
+     * @throws IllegalArgumentException se os tamanhos forem inválidos
+     */
+    public static LongBloomFilter readFrom(ByteBuffer buffer) {
+        int hashCount = buffer.getInt();
+        int length = buffer.getInt();
+        if (hashCount <= 0 || length <= 0 || (long) length * 8 > buffer.remaining()) {
+            throw new IllegalArgumentException("filtro de Bloom inválido");
+        }
+
+        long[] words = new long[length];
+        buffer.asLongBuffer().get(words);
+        buffer.position(buffer.position() + length * 8);
+        return new LongBloomFilter(words, hashCount);
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bot.discordbot.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede as fases da inicialização. Como banco e Discord sobem em paralelo, cada fase guarda
+ * em que thread rodou e quando começou em relação ao início, para o relatório mostrar a sobreposição.
+ */
+public final class StartupReport {
+
+    @FunctionalInterface
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    private static final class Phase {
+        final String name;
+        final String thread;
+        final long startNanos;
+        final long endNanos;
+
+        Phase(String name, String thread, long startNanos, long endNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+    }
+
+    private static final List<Phase> PHASES = new ArrayList<>();
+    private static volatile long beganNanos = System.nanoTime();
+
+    private StartupReport() {
+    }
+
+    /**
+     * Marca o instante zero (início do main)
+     */
+    public static void begin() {
+        beganNanos = System.nanoTime();
+    }
+
+    /**
+     * Executa e registra uma fase; a fase é registrada mesmo se falhar
+     */
+    public static void time(String name, Step step) throws Exception {
+        long start = System.nanoTime();
+        try {
+            step.run();
+        } finally {
+            long end = System.nanoTime();
+            synchronized (PHASES) {
+                PHASES.add(new Phase(name, Thread.currentThread().getName(), start, end));
+            }
+        }
+    }
+
+    /**
+     * Escreve o relatório no log: início relativo, duração e thread de cada fase, e o tempo total
+     */
+    public static void log() {
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - beganNanos);
+
+        StringBuilder sb = new StringBuilder("⏱️ Inicialização concluída em ").append(totalMillis).append("ms");
+        synchronized (PHASES) {
+            PHASES.sort((a, b) -> Long.compare(a.startNanos, b.startNanos));
+            for (Phase phase : PHASES) {
+                sb.append(String.format("%n   +%5dms  %-18s %6dms  [%s]",
+                        TimeUnit.NANOSECONDS.toMillis(phase.startNanos - beganNanos),
+                        phase.name,
+                        TimeUnit.NANOSECONDS.toMillis(phase.endNanos - phase.startNanos),
+                        phase.thread));
+            }
+        }
+        BotLogger.info(sb.toString());
+    }
+}
@@ -0,0 +1,209 @@
+package com.bot.discordbot.util;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log limitado para um ponto de chamada que pode repetir milhares de vezes (ex: raids).
+ * Dois modos:
+ * <ul>
+ *   <li>token bucket: até N mensagens por janela, o resto é suprimido</li>
+ *   <li>amostragem: registra 1 a cada N mensagens</li>
+ * </ul>
+ * A primeira ocorrência sempre passa. As mensagens suprimidas viram um resumo periódico
+ * ("4.812 mensagens semelhantes suprimidas em 10s"), então o volume fica limitado sem
+ * esconder que algo está acontecendo.
+ *
+ * Criar via {@link BotLogger#rateLimited} ou {@link BotLogger#sampled}, guardando em um campo estático.
+ */
+public final class ThrottledLog {
+
+    private static final long MIN_SUMMARY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final List<ThrottledLog> SITES = new CopyOnWriteArrayList<>();
+    private static ScheduledExecutorService summaryScheduler;
+
+    private final String site;
+
+    // token bucket (capacity > 0)
+    private final int capacity;
+    private final long refillNanos;
+    private double tokens;
+    private long lastRefill;
+
+    // amostragem (sampleEvery > 0)
+    private final int sampleEvery;
+    private final AtomicLong seen = new AtomicLong();
+
+    // resumo das mensagens suprimidas
+    private final long summaryNanos;
+    private final AtomicLong suppressed = new AtomicLong();
+    private volatile long suppressionStart;
+    private volatile BotLogger.Level suppressedLevel = BotLogger.Level.INFO;
+
+    private ThrottledLog(String site, int capacity, Duration window, int sampleEvery) {
+        this.site = site;
+        this.capacity = capacity;
+        this.refillNanos = window.toNanos();
+        this.sampleEvery = sampleEvery;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+        this.summaryNanos = Math.max(MIN_SUMMARY_NANOS, refillNanos);
+    }
+
+    static ThrottledLog rateLimited(String site, int permits, Duration window) {
+        return register(new ThrottledLog(site, Math.max(1, permits), window, 0));
+    }
+
+    static ThrottledLog sampled(String site, int everyN) {
+        return register(new ThrottledLog(site, 0, Duration.ZERO, Math.max(1, everyN)));
+    }
+
+    private static ThrottledLog register(ThrottledLog log) {
+        SITES.add(log);
+        startSummaryScheduler();
+        return log;
+    }
+
+    // ==================== API ====================
+
+    public void info(String message) {
+        if (BotLogger.isEnabled(BotLogger.Level.INFO) && tryAcquire(BotLogger.Level.INFO)) {
+            BotLogger.info(message);
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2) {
+        if (BotLogger.isEnabled(BotLogger.Level.INFO) && tryAcquire(BotLogger.Level.INFO)) {
+            BotLogger.info(BotLogger.format(pattern, arg1, arg2, null, 2));
+        }
+    }
+
+    public void success(String message) {
+        if (BotLogger.isEnabled(BotLogger.Level.SUCCESS) && tryAcquire(BotLogger.Level.SUCCESS)) {
+            BotLogger.success(message);
+        }
+    }
+
+    public void warn(String message) {
+        if (BotLogger.isEnabled(BotLogger.Level.WARNING) && tryAcquire(BotLogger.Level.WARNING)) {
+            BotLogger.warn(message);
+        }
+    }
+
+    public void error(String message) {
+        if (tryAcquire(BotLogger.Level.ERROR)) {
+            BotLogger.error(message);
+        }
+    }
+
+    public void error(String message, Throwable throwable) {
+        if (tryAcquire(BotLogger.Level.ERROR)) {
+            BotLogger.error(message, throwable);
+        }
+    }
+
+    // ==================== CONTROLE ====================
+
+    /**
+     * Decide se a mensagem passa; se não, conta como suprimida
+     */
+    private boolean tryAcquire(BotLogger.Level level) {
+        boolean allowed = sampleEvery > 0
+                ? seen.getAndIncrement() % sampleEvery == 0
+                : takeToken();
+
+        if (!allowed) {
+            if (suppressed.getAndIncrement() == 0) {
+                suppressionStart = System.nanoTime();
+            }
+            if (level == BotLogger.Level.ERROR || level == BotLogger.Level.WARNING) {
+                suppressedLevel = level;
+            }
+        }
+        return allowed;
+    }
+
+    private synchronized boolean takeToken() {
+        long now = System.nanoTime();
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + (double) elapsed * capacity / refillNanos);
+            lastRefill = now;
+        }
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Emite o resumo se a janela de supressão já fechou (ou sempre, se {@code force})
+     */
+    private void flushSummary(boolean force) {
+        if (suppressed.get() == 0) {
+            return;
+        }
+
+        long elapsed = System.nanoTime() - suppressionStart;
+        if (!force && elapsed < summaryNanos) {
+            return;
+        }
+
+        long count = suppressed.getAndSet(0);
+        if (count == 0) {
+            return;
+        }
+
+        String summary = String.format("⏸️ [%s] %,d mensagens semelhantes suprimidas em %ds",
+                site, count, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(elapsed)));
+
+        BotLogger.Level level = suppressedLevel;
+        suppressedLevel = BotLogger.Level.INFO;
+        if (level == BotLogger.Level.ERROR || level == BotLogger.Level.WARNING) {
+            BotLogger.warn(summary);
+        } else {
+            BotLogger.info(summary);
+        }
+    }
+
+    private static synchronized void startSummaryScheduler() {
+        if (summaryScheduler != null) {
+            return;
+        }
+
+        summaryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BotLogger-Throttle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        summaryScheduler.scheduleAtFixedRate(() -> {
+            for (ThrottledLog log : SITES) {
+                log.flushSummary(false);
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Emite os resumos pendentes de todos os pontos (chamado no shutdown)
+     */
+    static void flushAll() {
+        for (ThrottledLog log : SITES) {
+            log.flushSummary(true);
+        }
+    }
+
+    public String getSite() {
+        return site;
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+}
@@ -0,0 +1,64 @@
+package com.bot.discordbot.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Acesso a virtual threads (Java 21+) sem depender delas em tempo de compilação.
+ * Em JVMs sem suporte, cai para threads de plataforma daemon nomeadas.
+ */
+public final class VirtualThreads {
+
+    private static final Method NEW_PER_TASK_EXECUTOR = findPerTaskExecutor();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Verifica se a JVM atual oferece virtual threads
+     */
+    public static boolean isSupported() {
+        return NEW_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Executor com uma virtual thread por tarefa.
+     * Sem suporte, usa um pool fixo de {@code fallbackThreads} threads de plataforma.
+     *
+     * @param name prefixo do nome das threads do fallback
+     */
+    public static ExecutorService newPerTaskExecutor(String name, int fallbackThreads) {
+        if (NEW_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_PER_TASK_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                BotLogger.warn("Falha ao criar executor de virtual threads, usando threads de plataforma: "
+                        + e.getMessage());
+            }
+        }
+        return Executors.newFixedThreadPool(Math.max(1, fallbackThreads), daemonFactory(name));
+    }
+
+    /**
+     * Fábrica de threads daemon nomeadas "name-N"
+     */
+    public static ThreadFactory daemonFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Method findPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
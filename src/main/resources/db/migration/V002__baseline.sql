@@ -0,0 +1,26 @@
+-- Tabelas warns e logs, particionadas por mês (as partições mensais são criadas pelo PartitionManager).
+-- IF NOT EXISTS: bancos anteriores ao controle de versão já têm as tabelas e só passam a ser versionados.
+
+CREATE TABLE IF NOT EXISTS warns (
+    id SERIAL,
+    user_id BIGINT NOT NULL,
+    moderator_id BIGINT,
+    reason TEXT,
+    timestamp BIGINT NOT NULL,
+    expires_at BIGINT NOT NULL,
+    PRIMARY KEY (id, expires_at)
+) PARTITION BY RANGE (expires_at);
+
+CREATE TABLE IF NOT EXISTS warns_default PARTITION OF warns DEFAULT;
+
+CREATE TABLE IF NOT EXISTS logs (
+    id SERIAL,
+    action_type VARCHAR(50) NOT NULL,
+    user_id VARCHAR(20),
+    moderator_id VARCHAR(20),
+    details TEXT,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE IF NOT EXISTS logs_default PARTITION OF logs DEFAULT;
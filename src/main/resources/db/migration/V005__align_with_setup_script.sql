@@ -0,0 +1,9 @@
+-- Bancos criados pelo setup_database.sql antigo tinham objetos que o bot nunca usou:
+-- created_at duplica timestamp; idx_warns_user_id é coberto pelo prefixo de idx_warns_user_expires;
+-- ninguém consulta logs por usuário, e por data a poda de partições já resolve.
+
+ALTER TABLE warns DROP COLUMN IF EXISTS created_at;
+DROP INDEX IF EXISTS idx_warns_user_id;
+DROP INDEX IF EXISTS idx_logs_user_id;
+DROP INDEX IF EXISTS idx_logs_timestamp;
+DROP FUNCTION IF EXISTS cleanup_expired_warns();
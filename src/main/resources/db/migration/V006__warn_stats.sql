@@ -0,0 +1,71 @@
+-- Contadores de warns mantidos por triggers, para o health check e as estatísticas
+-- não precisarem de COUNT(*) sobre a tabela inteira.
+-- Triggers por comando (FOR EACH STATEMENT) com tabelas de transição: um DELETE de 1000 linhas
+-- do WarnReaper vira um UPDATE por shard aqui. Comandos na tabela raiz incluem as linhas de todas
+-- as partições; o PartitionManager desconta as linhas de uma partição antes de removê-la.
+-- São 16 linhas (shards, user_id % 16) em vez de uma: com uma linha só, todo INSERT/DELETE em warns
+-- esperaria a trava dela até o commit, serializando as escritas de usuários diferentes.
+-- Quem lê soma as linhas.
+
+-- único lugar que define o número de shards (triggers e PartitionManager usam a função)
+CREATE OR REPLACE FUNCTION warn_stats_shard(user_id BIGINT) RETURNS SMALLINT AS $$
+    SELECT (user_id % 16)::SMALLINT
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE TABLE IF NOT EXISTS warn_stats (
+    shard SMALLINT PRIMARY KEY,
+    total_rows BIGINT NOT NULL DEFAULT 0,       -- linhas hoje em warns, dos usuários deste shard
+    total_applied BIGINT NOT NULL DEFAULT 0     -- warns já aplicados (só cresce)
+);
+
+-- sem escritas em warns enquanto a contagem inicial é feita
+LOCK TABLE warns IN SHARE MODE;
+
+INSERT INTO warn_stats (shard, total_rows, total_applied)
+SELECT g.shard, COALESCE(c.n, 0), COALESCE(c.n, 0)
+FROM generate_series(0, 15) AS g(shard)
+LEFT JOIN (SELECT warn_stats_shard(user_id) AS shard, COUNT(*) AS n FROM warns GROUP BY 1) c
+       ON c.shard = g.shard
+ON CONFLICT (shard) DO NOTHING;
+
+-- um UPDATE por shard, em ordem de shard: dois lotes concorrentes travam as linhas na mesma ordem
+CREATE OR REPLACE FUNCTION warn_stats_inserted() RETURNS trigger AS $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT warn_stats_shard(user_id) AS shard, COUNT(*) AS n
+             FROM inserted GROUP BY 1 ORDER BY 1 LOOP
+        UPDATE warn_stats
+        SET total_rows = total_rows + r.n,
+            total_applied = total_applied + r.n
+        WHERE shard = r.shard;
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION warn_stats_deleted() RETURNS trigger AS $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT warn_stats_shard(user_id) AS shard, COUNT(*) AS n
+             FROM deleted GROUP BY 1 ORDER BY 1 LOOP
+        UPDATE warn_stats
+        SET total_rows = GREATEST(total_rows - r.n, 0)
+        WHERE shard = r.shard;
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS warn_stats_insert ON warns;
+CREATE TRIGGER warn_stats_insert
+    AFTER INSERT ON warns
+    REFERENCING NEW TABLE AS inserted
+    FOR EACH STATEMENT EXECUTE FUNCTION warn_stats_inserted();
+
+DROP TRIGGER IF EXISTS warn_stats_delete ON warns;
+CREATE TRIGGER warn_stats_delete
+    AFTER DELETE ON warns
+    REFERENCING OLD TABLE AS deleted
+    FOR EACH STATEMENT EXECUTE FUNCTION warn_stats_deleted();
@@ -0,0 +1,53 @@
+package com.bot.discordbot.moderation.warn.dao;
+
+import com.bot.discordbot.moderation.warn.model.Warn;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileWarnRepositoryTest extends WarnRepositoryContractTest {
+
+    private static final int SYNC_INTERVAL_MS = 50;
+
+    @TempDir
+    Path directory;
+
+    @Override
+    protected WarnRepository createRepository() throws Exception {
+        return FileWarnRepository.open(directory, SYNC_INTERVAL_MS);
+    }
+
+    @Test
+    void warnsSurviveReopen() throws Exception {
+        long now = System.currentTimeMillis();
+        repository.addWarn(7L, 1L, "a", now, now + 60_000);
+        repository.addWarn(7L, 1L, "b", now + 1, now + 60_000);
+        int removed = repository.applyWarn(7L, 1L, "c", now + 2, new long[]{60_000}).getWarnId();
+        repository.removeWarnById(removed);
+        repository.close();
+
+        repository = createRepository();
+
+        List<Warn> active = repository.getActiveWarns(7L);
+        assertEquals(List.of("a", "b"), active.stream().map(Warn::getReason).toList());
+        assertTrue(repository.getWarnById(removed).isEmpty());
+        repository.clearUserWarns(7L);
+    }
+
+    @Test
+    void writesAfterCloseFail() {
+        long now = System.currentTimeMillis();
+        repository.close();
+
+        assertFalse(repository.addWarn(7L, 1L, "tarde", now, now + 60_000));
+        assertFalse(repository.applyWarn(7L, 1L, "tarde", now, new long[]{60_000}).isSuccess());
+        assertEquals(-1, repository.purgeExpiredChunk(now, 10));
+        repository.close();
+    }
+}
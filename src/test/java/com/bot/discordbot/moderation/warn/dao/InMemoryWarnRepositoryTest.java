@@ -0,0 +1,9 @@
+package com.bot.discordbot.moderation.warn.dao;
+
+class InMemoryWarnRepositoryTest extends WarnRepositoryContractTest {
+
+    @Override
+    protected WarnRepository createRepository() {
+        return new InMemoryWarnRepository();
+    }
+}
@@ -0,0 +1,35 @@
+package com.bot.discordbot.moderation.warn.dao;
+
+import com.bot.discordbot.config.BotConfig;
+import com.bot.discordbot.database.Database;
+import com.bot.discordbot.database.SchemaMigrations;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+/**
+ * Roda o contrato contra o PostgreSQL de DB_HOST (mesmas variáveis do bot); sem ela, é pulado.
+ * Usar um banco de teste: as migrações são aplicadas nele
+ */
+@EnabledIfEnvironmentVariable(named = "DB_HOST", matches = ".+")
+class WarnDAOTest extends WarnRepositoryContractTest {
+
+    @BeforeAll
+    static void connect() {
+        BotConfig.initializeWithoutDiscord();
+        if (!Database.isInitialized()) {
+            Database.initialize();
+        }
+        SchemaMigrations.migrate();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        Database.shutdown();
+    }
+
+    @Override
+    protected WarnRepository createRepository() {
+        return new WarnDAO();
+    }
+}
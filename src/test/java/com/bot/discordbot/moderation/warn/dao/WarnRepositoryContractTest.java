@@ -0,0 +1,297 @@
+package com.bot.discordbot.moderation.warn.dao;
+
+import com.bot.discordbot.moderation.warn.model.Warn;
+import com.bot.discordbot.moderation.warn.model.WarnPage;
+import com.bot.discordbot.moderation.warn.model.WarnResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Contrato do {@link WarnRepository}, rodado contra cada implementação.
+ *
+ * Os usuários de cada teste são sorteados e limpos no fim, então o mesmo teste serve para um
+ * banco compartilhado. Timestamps antigos (perto de 0) marcam warns já expirados.
+ */
+abstract class WarnRepositoryContractTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long[] TIERS = {HOUR, 2 * HOUR, 3 * HOUR};
+    private static final long MODERATOR = 42L;
+
+    protected WarnRepository repository;
+    private final List<Long> users = new ArrayList<>();
+
+    protected abstract WarnRepository createRepository() throws Exception;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        repository = createRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (long userId : users) {
+            repository.clearUserWarns(userId);
+        }
+        repository.close();
+    }
+
+    private long newUser() {
+        long userId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+        users.add(userId);
+        return userId;
+    }
+
+    // ==================== CREATE ====================
+
+    @Test
+    void addWarnIsReturnedWithAllFields() {
+        long userId = newUser();
+        long now = System.currentTimeMillis();
+
+        assertTrue(repository.addWarn(userId, MODERATOR, "spam", now, now + HOUR));
+
+        List<Warn> active = repository.getActiveWarns(userId);
+        assertEquals(1, active.size());
+        Warn warn = active.get(0);
+        assertEquals(userId, warn.getUserId());
+        assertEquals(MODERATOR, warn.getModeratorId());
+        assertEquals("spam", warn.getReason());
+        assertEquals(now, warn.getTimestamp());
+        assertEquals(now + HOUR, warn.getExpiresAt());
+        assertEquals(Optional.of(warn), repository.getWarnById(warn.getId()));
+    }
+
+    @Test
+    void systemWarnKeepsModeratorZero() {
+        long userId = newUser();
+        long now = System.currentTimeMillis();
+
+        assertTrue(repository.applyWarn(userId, 0, "automod", now, TIERS).isSuccess());
+
+        assertEquals(0, repository.getActiveWarns(userId).get(0).getModeratorId());
+    }
+
+    @Test
+    void invalidUserIdFailsWithoutThrowing() {
+        long now = System.currentTimeMillis();
+
+        assertFalse(repository.addWarn(0, MODERATOR, "x", now, now + HOUR));
+        assertFalse(repository.applyWarn(-1, MODERATOR, "x", now, TIERS).isSuccess());
+        assertEquals(0, repository.countActiveWarns(0));
+        assertTrue(repository.getActiveWarns(0).isEmpty());
+        assertTrue(repository.getWarnPage(-1, false, null, 10).isEmpty());
+        assertEquals(0, repository.clearUserWarns(0));
+    }
+
+    // ==================== APPLY ====================
+
+    @Test
+    void applyWarnPicksTierByNewCount() {
+        long userId = newUser();
+        long now = System.currentTimeMillis();
+
+        for (int i = 1; i <= 4; i++) {
+            WarnResult result = repository.applyWarn(userId, MODERATOR, "warn " + i, now + i, TIERS);
+            assertTrue(result.isSuccess());
+            assertEquals(i, result.getWarnCount());
+            // a última faixa vale para todos os seguintes
+            assertEquals(now + i + TIERS[Math.min(i, TIERS.length) - 1], result.getExpiresAt());
+        }
+        assertEquals(4, repository.countActiveWarns(userId));
+    }
+
+    @Test
+    void applyWarnIgnoresExpiredWarns() {
+        long userId = newUser();
+        long now = System.currentTimeMillis();
+        repository.addWarn(userId, MODERATOR, "antigo", 1_000, 2_000);
+
+        WarnResult result = repository.applyWarn(userId, MODERATOR, "novo", now, TIERS);
+
+        assertEquals(1, result.getWarnCount());
+        assertEquals(now + TIERS[0], result.getExpiresAt());
+    }
+
+    @Test
+    void concurrentApplyWarnNeverRepeatsCount() throws Exception {
+        long userId = newUser();
+        long now = System.currentTimeMillis();
+        int threads = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<WarnResult>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> repository.applyWarn(userId, MODERATOR, "corrida", now, TIERS)));
+            }
+
+            Set<Integer> counts = new HashSet<>();
+            for (Future<WarnResult> future : futures) {
+                counts.add(future.get(30, TimeUnit.SECONDS).getWarnCount());
+            }
+            assertEquals(threads, counts.size());
+            assertTrue(counts.contains(1) && counts.contains(threads));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ==================== READ ====================
+
+    @Test
+    void activeAreOldestFirstAndHistoryNewestFirst() {
+        long userId = newUser();
+        long now = System.currentTimeMillis();
+        repository.addWarn(userId, MODERATOR, "b", now - 2_000, now + HOUR);
+        repository.addWarn(userId, MODERATOR, "a", now - 3_000, now + HOUR);
+        repository.addWarn(userId, MODERATOR, "expirado", 1_000, 2_000);
+        repository.addWarn(userId, MODERATOR, "c", now - 1_000, now + HOUR);
+
+        assertEquals(List.of("a", "b", "c"), reasons(repository.getActiveWarns(userId)));
+        assertEquals(List.of("c", "b", "a", "expirado"), reasons(history(userId)));
+        assertEquals(3, repository.countActiveWarns(userId));
+    }
+
+    @Test
+    void unknownUserHasNothing() {
+        long userId = newUser();
+
+        assertEquals(0, repository.countActiveWarns(userId));
+        assertTrue(repository.getActiveWarns(userId).isEmpty());
+        assertTrue(repository.getWarnPage(userId, false, null, 10).isEmpty());
+    }
+
+    @Test
+    void returnedWarnsAreCopies() {
+        long userId = newUser();
+        long now = System.currentTimeMillis();
+        repository.addWarn(userId, MODERATOR, "original", now, now + HOUR);
+
+        repository.getActiveWarns(userId).get(0).setReason("alterado");
+
+        assertEquals("original", repository.getActiveWarns(userId).get(0).getReason());
+    }
+
+    // ==================== PAGE ====================
+
+    @Test
+    void pagesWalkHistoryBothWays() {
+        long userId = newUser();
+        long now = System.currentTimeMillis();
+        // timestamps repetidos: o id desempata
+        for (int i = 0; i < 25; i++) {
+            repository.addWarn(userId, MODERATOR, "w" + i, now - (i / 3) * 1_000L, now + HOUR);
+        }
+        List<Warn> history = history(userId);
+
+        WarnPage first = repository.getWarnPage(userId, false, null, 10);
+        WarnPage second = repository.getWarnPage(userId, false,
+                WarnPage.Cursor.olderThan(last(first)), 10);
+        WarnPage third = repository.getWarnPage(userId, false,
+                WarnPage.Cursor.olderThan(last(second)), 10);
+
+        assertEquals(25, first.getTotal());
+        assertEquals(history.subList(0, 10), first.getWarns());
+        assertEquals(history.subList(10, 20), second.getWarns());
+        assertEquals(history.subList(20, 25), third.getWarns());
+        assertTrue(first.hasOlder() && !first.hasNewer());
+        assertTrue(second.hasOlder() && second.hasNewer());
+        assertTrue(!third.hasOlder() && third.hasNewer());
+
+        WarnPage back = repository.getWarnPage(userId, false,
+                WarnPage.Cursor.newerThan(second.getWarns().get(0)), 10);
+        assertEquals(first.getWarns(), back.getWarns());
+        assertFalse(back.hasNewer());
+    }
+
+    @Test
+    void activePagesSkipExpired() {
+        long userId = newUser();
+        long now = System.currentTimeMillis();
+        repository.addWarn(userId, MODERATOR, "expirado", 1_000, 2_000);
+        repository.addWarn(userId, MODERATOR, "ativo", now, now + HOUR);
+
+        WarnPage page = repository.getWarnPage(userId, true, null, 10);
+
+        assertEquals(1, page.getTotal());
+        assertEquals(List.of("ativo"), reasons(page.getWarns()));
+        assertEquals(2, repository.getWarnPage(userId, false, null, 10).getTotal());
+    }
+
+    // ==================== DELETE ====================
+
+    @Test
+    void removeWarnByIdOnlyOnce() {
+        long userId = newUser();
+        long now = System.currentTimeMillis();
+        int id = repository.applyWarn(userId, MODERATOR, "x", now, TIERS).getWarnId();
+
+        assertTrue(repository.removeWarnById(id));
+        assertFalse(repository.removeWarnById(id));
+        assertTrue(repository.getWarnById(id).isEmpty());
+        assertEquals(0, repository.countActiveWarns(userId));
+    }
+
+    @Test
+    void clearUserWarnsKeepsOtherUsers() {
+        long userId = newUser();
+        long other = newUser();
+        long now = System.currentTimeMillis();
+        repository.addWarn(userId, MODERATOR, "a", now, now + HOUR);
+        repository.addWarn(userId, MODERATOR, "b", 1_000, 2_000);
+        repository.addWarn(other, MODERATOR, "c", now, now + HOUR);
+
+        assertEquals(2, repository.clearUserWarns(userId));
+
+        assertTrue(history(userId).isEmpty());
+        assertEquals(1, repository.countActiveWarns(other));
+    }
+
+    @Test
+    void purgeRemovesOnlyExpiredUpToLimit() {
+        long userId = newUser();
+        long now = System.currentTimeMillis();
+        // expirações perto de 0: nenhum outro dado real cai abaixo do corte
+        repository.addWarn(userId, MODERATOR, "e1", 100, 1_000);
+        repository.addWarn(userId, MODERATOR, "e2", 100, 1_500);
+        repository.addWarn(userId, MODERATOR, "ativo", now, now + HOUR);
+
+        assertEquals(1, repository.purgeExpiredChunk(2_000, 1));
+        assertEquals(1, repository.purgeExpiredChunk(2_000, 10));
+        assertEquals(0, repository.purgeExpiredChunk(2_000, 10));
+
+        assertEquals(List.of("ativo"), reasons(history(userId)));
+    }
+
+    // ==================== UTILITIES ====================
+
+    // o histórico inteiro numa página só (os testes têm poucos warns por usuário)
+    private List<Warn> history(long userId) {
+        return repository.getWarnPage(userId, false, null, 1_000).getWarns();
+    }
+
+    private static List<String> reasons(List<Warn> warns) {
+        return warns.stream().map(Warn::getReason).toList();
+    }
+
+    private static Warn last(WarnPage page) {
+        return page.getWarns().get(page.getWarns().size() - 1);
+    }
+}